@@ -0,0 +1,118 @@
+package com.lemicare.shoppingcart.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares a JMH JSON result against a stored baseline and prints, per benchmark and parameter
+ * set, the change in score and in bytes allocated per operation.
+ * <p>
+ * A score that moves in the wrong direction by more than the threshold, or an allocation rate
+ * that grows by more than it, is reported as a regression and makes the process exit with 1.
+ * Results missing from either file are listed but do not fail the comparison.
+ * <p>
+ * Usage: {@code BaselineComparison <baseline.json> <candidate.json> [thresholdPercent]}
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOC_NORM = "gc.alloc.rate.norm";
+    private static final double ALLOC_NOISE_BYTES = 8;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("usage: BaselineComparison <baseline.json> <candidate.json> [thresholdPercent]");
+            System.exit(2);
+        }
+        double threshold = args.length > 2 ? Double.parseDouble(args[2]) : 10.0;
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, JsonNode> baseline = index(objectMapper.readTree(new File(args[0])));
+        Map<String, JsonNode> candidate = index(objectMapper.readTree(new File(args[1])));
+
+        int regressions = 0;
+        System.out.printf("%-70s %14s %14s %8s %12s %12s %8s%n",
+                "benchmark", "base score", "new score", "delta", "base B/op", "new B/op", "delta");
+        for (Map.Entry<String, JsonNode> entry : candidate.entrySet()) {
+            JsonNode before = baseline.get(entry.getKey());
+            if (before == null) {
+                System.out.printf("%-70s (no baseline)%n", entry.getKey());
+                continue;
+            }
+            JsonNode after = entry.getValue();
+            double baseScore = before.path("primaryMetric").path("score").asDouble();
+            double newScore = after.path("primaryMetric").path("score").asDouble();
+            double scoreDelta = percentChange(baseScore, newScore);
+            // Throughput should go up; every other mode reports time, which should go down.
+            boolean higherIsBetter = "thrpt".equals(after.path("mode").asText());
+            boolean slower = higherIsBetter ? scoreDelta < -threshold : scoreDelta > threshold;
+
+            double baseAlloc = allocation(before);
+            double newAlloc = allocation(after);
+            double allocDelta = percentChange(baseAlloc, newAlloc);
+            // Ignore growth of a few bytes, which is noise for paths that barely allocate.
+            boolean allocates = newAlloc - baseAlloc > ALLOC_NOISE_BYTES && allocDelta > threshold;
+
+            System.out.printf("%-70s %14.3f %14.3f %+7.1f%% %12.1f %12.1f %+7.1f%%%s%n",
+                    entry.getKey(), baseScore, newScore, scoreDelta, baseAlloc, newAlloc, allocDelta,
+                    slower || allocates ? "  REGRESSION" : "");
+            if (slower || allocates) {
+                regressions++;
+            }
+        }
+        for (String key : baseline.keySet()) {
+            if (!candidate.containsKey(key)) {
+                System.out.printf("%-70s (not in candidate)%n", key);
+            }
+        }
+
+        System.out.printf("%d regression(s) beyond %.1f%%%n", regressions, threshold);
+        if (regressions > 0) {
+            System.exit(1);
+        }
+    }
+
+    private static Map<String, JsonNode> index(JsonNode results) {
+        Map<String, JsonNode> byKey = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            StringBuilder key = new StringBuilder(result.path("benchmark").asText()
+                    .replace("com.lemicare.shoppingcart.benchmark.", ""));
+            Iterator<Map.Entry<String, JsonNode>> params = result.path("params").fields();
+            while (params.hasNext()) {
+                Map.Entry<String, JsonNode> param = params.next();
+                key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText());
+            }
+            byKey.put(key.toString(), result);
+        }
+        return byKey;
+    }
+
+    private static double allocation(JsonNode result) {
+        // JMH prefixes secondary metric names with a middle dot, so match on the suffix.
+        Iterator<Map.Entry<String, JsonNode>> metrics = result.path("secondaryMetrics").fields();
+        while (metrics.hasNext()) {
+            Map.Entry<String, JsonNode> metric = metrics.next();
+            if (metric.getKey().endsWith(ALLOC_NORM)) {
+                return metric.getValue().path("score").asDouble();
+            }
+        }
+        return Double.NaN;
+    }
+
+    private static double percentChange(double before, double after) {
+        if (Double.isNaN(before) || Double.isNaN(after)) {
+            return Double.NaN;
+        }
+        if (before == 0) {
+            return after == 0 ? 0 : Double.POSITIVE_INFINITY;
+        }
+        return (after - before) / before * 100;
+    }
+}
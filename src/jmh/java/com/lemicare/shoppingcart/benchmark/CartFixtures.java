@@ -0,0 +1,78 @@
+package com.lemicare.shoppingcart.benchmark;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.google.cloud.Timestamp;
+import com.lemicare.shoppingcart.dto.response.CartProductView;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Deterministic carts and catalogue entries shared by the benchmarks.
+ */
+final class CartFixtures {
+
+    private static final String[] WEIGHT_UNITS = {"g", "kg", "G", "lb"};
+    private static final String[] LENGTH_UNITS = {"cm", "mm", "CM", "inch"};
+
+    private CartFixtures() {
+    }
+
+    static Cart cart(List<CartItem> items) {
+        int totalItems = 0;
+        double subtotal = 0;
+        for (CartItem item : items) {
+            totalItems += item.getQuantity();
+            subtotal += item.getItemTotalPrice();
+        }
+        Timestamp now = Timestamp.ofTimeSecondsAndNanos(1_760_000_000L, 0);
+        return Cart.builder()
+                .cartId("cart-0001")
+                .orgId("org-bench")
+                .userId("user-bench")
+                .status("ACTIVE")
+                .totalItems(totalItems)
+                .subtotalAmount(subtotal)
+                .createdAt(now)
+                .lastModifiedAt(now)
+                .build();
+    }
+
+    static List<CartItem> items(int lines) {
+        SplittableRandom random = new SplittableRandom(42);
+        List<CartItem> items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            double price = random.nextInt(10, 500_000) / 100.0;
+            int quantity = random.nextInt(1, 20);
+            Timestamp addedAt = Timestamp.ofTimeSecondsAndNanos(1_760_000_000L + i, 0);
+            items.add(CartItem.builder()
+                    .cartItemId("item-" + i)
+                    .orgId("org-bench")
+                    .cartId("cart-0001")
+                    .productId("product-" + i)
+                    .productName("Vitamin D3 60K Capsules " + i)
+                    .priceAtAddToCart(price)
+                    .quantity(quantity)
+                    .itemTotalPrice(price * quantity)
+                    .addedAt(addedAt)
+                    .lastModifiedAt(addedAt)
+                    .sku("SKU-" + i)
+                    .build());
+        }
+        return items;
+    }
+
+    static CartProductView product(int i) {
+        return CartProductView.builder()
+                .productId("product-" + i)
+                .productName("Vitamin D3 60K Capsules " + i)
+                .mrp(249.5)
+                .weight(new CartProductView.WeightView(BigDecimal.valueOf(50 + i % 400), WEIGHT_UNITS[i % 4]))
+                .dimensions(new CartProductView.DimensionsView(BigDecimal.valueOf(12.5), BigDecimal.valueOf(6),
+                        BigDecimal.valueOf(4 + i % 10), LENGTH_UNITS[i % 4]))
+                .build();
+    }
+}
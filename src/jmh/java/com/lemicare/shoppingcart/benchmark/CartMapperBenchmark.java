@@ -0,0 +1,43 @@
+package com.lemicare.shoppingcart.benchmark;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.lemicare.shoppingcart.dto.request.CartDto;
+import com.lemicare.shoppingcart.mapper.CartItemMapper;
+import com.lemicare.shoppingcart.mapper.CartMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures mapping a stored cart and its items to the {@link CartDto} returned by every cart
+ * endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartMapperBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int lines;
+
+    private CartMapper mapper;
+    private Cart cart;
+    private List<CartItem> items;
+
+    @Setup
+    public void setUp() {
+        mapper = new CartMapper(new CartItemMapper());
+        items = CartFixtures.items(lines);
+        cart = CartFixtures.cart(items);
+    }
+
+    @Benchmark
+    public CartDto toDto() {
+        return mapper.toDto(cart, items);
+    }
+}
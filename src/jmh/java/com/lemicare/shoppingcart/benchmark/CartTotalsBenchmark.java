@@ -0,0 +1,58 @@
+package com.lemicare.shoppingcart.benchmark;
+
+import com.cosmicdoc.common.model.CartItem;
+import com.lemicare.shoppingcart.pricing.CartTotals;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares recomputing cart totals with the former {@code mapToInt}/{@code mapToDouble} streams
+ * versus the single pass over long minor units in {@link CartTotals}.
+ * Run with the gc profiler (the profile default) to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartTotalsBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int lines;
+
+    private List<CartItem> items;
+
+    @Setup
+    public void setUp() {
+        SplittableRandom random = new SplittableRandom(42);
+        items = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            double price = random.nextInt(10, 500_000) / 100.0;
+            int quantity = random.nextInt(1, 20);
+            items.add(CartItem.builder()
+                    .cartItemId("item-" + i)
+                    .productId("product-" + i)
+                    .priceAtAddToCart(price)
+                    .quantity(quantity)
+                    .itemTotalPrice(price * quantity)
+                    .build());
+        }
+    }
+
+    @Benchmark
+    public void doubleStreams(Blackhole blackhole) {
+        blackhole.consume(items.stream().mapToInt(CartItem::getQuantity).sum());
+        blackhole.consume(items.stream().mapToDouble(CartItem::getItemTotalPrice).sum());
+    }
+
+    @Benchmark
+    public CartTotals minorUnits() {
+        return CartTotals.of(items);
+    }
+}
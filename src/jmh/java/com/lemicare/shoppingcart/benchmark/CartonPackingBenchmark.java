@@ -0,0 +1,61 @@
+package com.lemicare.shoppingcart.benchmark;
+
+import com.lemicare.shoppingcart.config.ShippingProperties;
+import com.lemicare.shoppingcart.shipping.CartonPacker;
+import com.lemicare.shoppingcart.shipping.PackingPlan;
+import com.lemicare.shoppingcart.shipping.ParcelMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures first-fit-decreasing packing of carts with the default carton catalogue, uncached
+ * and as a plan cache hit. The budget for a 200-unit cart is well under a millisecond.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CartonPackingBenchmark {
+
+    /** Distinct products in the cart; units are spread over them to total {@link #units}. */
+    @Param({"5", "40", "200"})
+    public int lines;
+
+    @Param({"200"})
+    public int units;
+
+    private CartonPacker packer;
+    private List<CartonPacker.Line> cart;
+
+    @Setup
+    public void setUp() {
+        packer = new CartonPacker(new ShippingProperties(), new SimpleMeterRegistry());
+        SplittableRandom random = new SplittableRandom(7);
+        cart = new ArrayList<>(lines);
+        for (int i = 0; i < lines; i++) {
+            int quantity = units / lines + (i < units % lines ? 1 : 0);
+            // Pharmacy-sized items: 2-15 cm per side, 20 g to 1.5 kg.
+            ParcelMetrics metrics = new ParcelMetrics(random.nextLong(20, 1_500),
+                    random.nextLong(200, 1_500), random.nextLong(200, 1_000), random.nextLong(200, 800), true, true);
+            cart.add(new CartonPacker.Line(metrics, quantity));
+        }
+        packer.plan(cart);
+    }
+
+    @Benchmark
+    public PackingPlan pack() {
+        return packer.pack(cart);
+    }
+
+    @Benchmark
+    public PackingPlan planCached() {
+        return packer.plan(cart);
+    }
+}
@@ -0,0 +1,110 @@
+package com.lemicare.shoppingcart.benchmark;
+
+import com.lemicare.shoppingcart.dto.response.CartProductView;
+import com.lemicare.shoppingcart.shipping.ParcelAggregator;
+import com.lemicare.shoppingcart.shipping.ParcelMetrics;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares aggregating cart lines into a parcel with per-line {@code BigDecimal} unit
+ * conversion, as shipping estimation used to, versus {@link ParcelMetrics} resolved once per
+ * product and summed in {@link ParcelAggregator}'s primitive fields.
+ * Run with the gc profiler (the profile default) to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParcelAggregationBenchmark {
+
+    private static final String[] WEIGHT_UNITS = {"g", "kg", "G", "lb"};
+    private static final String[] LENGTH_UNITS = {"cm", "mm", "CM", "inch"};
+
+    @Param({"10", "300"})
+    public int lines;
+
+    private CartProductView[] products;
+    private int[] quantities;
+
+    @Setup
+    public void setUp() {
+        products = new CartProductView[lines];
+        quantities = new int[lines];
+        for (int i = 0; i < lines; i++) {
+            products[i] = CartProductView.builder()
+                    .productId("product-" + i)
+                    .weight(new CartProductView.WeightView(BigDecimal.valueOf(50 + i % 400), WEIGHT_UNITS[i % 4]))
+                    .dimensions(new CartProductView.DimensionsView(BigDecimal.valueOf(12.5), BigDecimal.valueOf(6),
+                            BigDecimal.valueOf(4 + i % 10), LENGTH_UNITS[i % 4]))
+                    .build();
+            quantities[i] = 1 + i % 5;
+        }
+    }
+
+    @Benchmark
+    public void bigDecimalPerLine(Blackhole blackhole) {
+        BigDecimal totalWeightKg = BigDecimal.ZERO;
+        BigDecimal maxLength = BigDecimal.ZERO;
+        BigDecimal maxWidth = BigDecimal.ZERO;
+        BigDecimal maxHeight = BigDecimal.ZERO;
+        BigDecimal volume = BigDecimal.ZERO;
+        for (int i = 0; i < lines; i++) {
+            CartProductView product = products[i];
+            BigDecimal quantity = BigDecimal.valueOf(quantities[i]);
+            totalWeightKg = totalWeightKg.add(toKg(product.getWeight()).multiply(quantity));
+            CartProductView.DimensionsView dims = product.getDimensions();
+            BigDecimal height = toCm(dims.getHeight(), dims.getUnit());
+            BigDecimal width = toCm(dims.getWidth(), dims.getUnit());
+            BigDecimal length = toCm(dims.getLength(), dims.getUnit());
+            maxLength = maxLength.max(length);
+            maxWidth = maxWidth.max(width);
+            maxHeight = maxHeight.max(height);
+            volume = volume.add(height.multiply(width).multiply(length).multiply(quantity));
+        }
+        blackhole.consume(totalWeightKg);
+        blackhole.consume(maxLength);
+        blackhole.consume(maxWidth);
+        blackhole.consume(maxHeight);
+        blackhole.consume(volume);
+    }
+
+    @Benchmark
+    public ParcelAggregator primitiveAggregator() {
+        // Metrics are resolved per distinct product, as in CartService; here every line is distinct.
+        Map<String, ParcelMetrics> metrics = new HashMap<>(lines * 2);
+        for (CartProductView product : products) {
+            metrics.put(product.getProductId(), ParcelMetrics.of(product));
+        }
+        ParcelAggregator parcel = new ParcelAggregator();
+        for (int i = 0; i < lines; i++) {
+            parcel.add(metrics.get(products[i].getProductId()), quantities[i]);
+        }
+        return parcel;
+    }
+
+    // The conversions shipping estimation used before ParcelMetrics.
+    private static BigDecimal toKg(CartProductView.WeightView weight) {
+        return switch (weight.getUnit().toLowerCase()) {
+            case "g" -> weight.getValue().divide(new BigDecimal("1000"), 3, RoundingMode.HALF_UP);
+            case "lb" -> weight.getValue().multiply(new BigDecimal("0.453592")).setScale(3, RoundingMode.HALF_UP);
+            default -> weight.getValue();
+        };
+    }
+
+    private static BigDecimal toCm(BigDecimal value, String unit) {
+        return switch (unit.toLowerCase()) {
+            case "mm" -> value.divide(new BigDecimal("10"), 2, RoundingMode.HALF_UP);
+            case "inch" -> value.multiply(new BigDecimal("2.54")).setScale(2, RoundingMode.HALF_UP);
+            default -> value;
+        };
+    }
+}
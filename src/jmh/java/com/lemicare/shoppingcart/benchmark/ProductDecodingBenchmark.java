@@ -0,0 +1,106 @@
+package com.lemicare.shoppingcart.benchmark;
+
+import com.cosmicdoc.common.model.StorefrontProduct;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lemicare.shoppingcart.config.StreamingJacksonDecoder;
+import com.lemicare.shoppingcart.dto.response.CartProductView;
+import feign.Request;
+import feign.Response;
+import org.openjdk.jmh.annotations.*;
+
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a storefront product payload into the full {@code StorefrontProduct}
+ * versus the lean {@link CartProductView}, through the service's Feign decoder.
+ * Run with the gc profiler (the profile default) to compare allocation per operation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ProductDecodingBenchmark {
+
+    private static final Type PRODUCT_LIST = new TypeReference<List<StorefrontProduct>>() { }.getType();
+    private static final Type VIEW_LIST = new TypeReference<List<CartProductView>>() { }.getType();
+
+    @Param({"1", "50"})
+    public int products;
+
+    private StreamingJacksonDecoder decoder;
+    private Request request;
+    private byte[] singlePayload;
+    private byte[] listPayload;
+
+    @Setup
+    public void setUp() {
+        decoder = new StreamingJacksonDecoder(new ObjectMapper());
+        request = Request.create(Request.HttpMethod.GET, "http://storefront/api/internal/storefront/org/products",
+                Collections.emptyMap(), null, StandardCharsets.UTF_8, null);
+
+        singlePayload = productJson(0).getBytes(StandardCharsets.UTF_8);
+        StringBuilder list = new StringBuilder("[");
+        for (int i = 0; i < products; i++) {
+            if (i > 0) {
+                list.append(',');
+            }
+            list.append(productJson(i));
+        }
+        listPayload = list.append(']').toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public Object decodeFullProduct() throws Exception {
+        return decoder.decode(response(singlePayload), StorefrontProduct.class);
+    }
+
+    @Benchmark
+    public Object decodeProductView() throws Exception {
+        return decoder.decode(response(singlePayload), CartProductView.class);
+    }
+
+    @Benchmark
+    public Object decodeFullProductList() throws Exception {
+        return decoder.decode(response(listPayload), PRODUCT_LIST);
+    }
+
+    @Benchmark
+    public Object decodeProductViewList() throws Exception {
+        return decoder.decode(response(listPayload), VIEW_LIST);
+    }
+
+    private Response response(byte[] body) {
+        return Response.builder()
+                .status(200)
+                .reason("OK")
+                .request(request)
+                .headers(Collections.emptyMap())
+                .body(body)
+                .build();
+    }
+
+    // A storefront-sized payload: the cart reads six fields, the rest is catalogue content.
+    private static String productJson(int i) {
+        return """
+                {"productId":"prod-%1$d","productName":"Vitamin D3 60K Capsules %1$d","mrp":249.5,"sku":"SKU-%1$d",
+                 "weight":{"value":120,"unit":"g"},
+                 "dimensions":{"length":12,"width":6,"height":4,"unit":"cm"},
+                 "shortDescription":"Supports bone health and immunity.",
+                 "longDescription":"%2$s",
+                 "highlights":["Once weekly dose","Doctor recommended","Sugar free","Vegetarian capsule"],
+                 "searchKeywords":["vitamin d","cholecalciferol","immunity","bone health","supplement"],
+                 "seoMeta":{"title":"Vitamin D3 60K","description":"Buy Vitamin D3 online","slug":"vitamin-d3-60k-%1$d"},
+                 "mediaGallery":[{"url":"https://cdn.example.com/p/%1$d/1.jpg","alt":"front"},
+                                 {"url":"https://cdn.example.com/p/%1$d/2.jpg","alt":"back"},
+                                 {"url":"https://cdn.example.com/p/%1$d/3.jpg","alt":"label"}],
+                 "specifications":{"brand":"Lemicare","form":"Capsule","packSize":"4 capsules","storage":"Below 25C"}}
+                """.formatted(i, "Detailed product description. ".repeat(20));
+    }
+}
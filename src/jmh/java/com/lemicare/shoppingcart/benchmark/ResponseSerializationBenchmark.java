@@ -0,0 +1,91 @@
+package com.lemicare.shoppingcart.benchmark;
+
+import com.cosmicdoc.common.model.CartItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.lemicare.shoppingcart.dto.request.CartDto;
+import com.lemicare.shoppingcart.dto.response.DeliveryOption;
+import com.lemicare.shoppingcart.dto.response.ShippingEstimate;
+import com.lemicare.shoppingcart.dto.response.ShippingParcel;
+import com.lemicare.shoppingcart.mapper.CartItemMapper;
+import com.lemicare.shoppingcart.mapper.CartMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures writing the two largest responses, {@link CartDto} and {@link ShippingEstimate}, to
+ * JSON bytes with a writer created once, as Spring MVC does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ResponseSerializationBenchmark {
+
+    @Param({"1", "10", "100", "500"})
+    public int lines;
+
+    private ObjectWriter cartWriter;
+    private ObjectWriter estimateWriter;
+    private CartDto cart;
+    private ShippingEstimate estimate;
+
+    @Setup
+    public void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+        cartWriter = objectMapper.writerFor(CartDto.class);
+        estimateWriter = objectMapper.writerFor(ShippingEstimate.class);
+
+        List<CartItem> items = CartFixtures.items(lines);
+        cart = new CartMapper(new CartItemMapper()).toDto(CartFixtures.cart(items), items);
+
+        List<DeliveryOption> options = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            options.add(DeliveryOption.builder()
+                    .courierId(String.valueOf(100 + i))
+                    .carrierName("Courier " + i)
+                    .serviceType(i % 2 == 0 ? "SURFACE" : "AIR")
+                    .description("Standard delivery")
+                    .cost(BigDecimal.valueOf(4_500 + i * 750, 2))
+                    .currency("INR")
+                    .estimatedDeliveryDays(2 + i % 5)
+                    .etdRaw("Oct 2" + i % 9 + ", 2026")
+                    .withBestOption(i == 0)
+                    .build());
+        }
+        List<ShippingParcel> parcels = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, lines / 50); i++) {
+            parcels.add(ShippingParcel.builder()
+                    .carton("L")
+                    .lengthCm(BigDecimal.valueOf(4_500, 2))
+                    .widthCm(BigDecimal.valueOf(3_500, 2))
+                    .heightCm(BigDecimal.valueOf(2_500, 2))
+                    .weightKg(BigDecimal.valueOf(7_250, 3))
+                    .units(25)
+                    .build());
+        }
+        estimate = ShippingEstimate.builder()
+                .cartId(cart.getCartId())
+                .destinationPincode(600029)
+                .estimatedTotalShippingCost(options.get(0).getCost())
+                .deliveryOptions(options)
+                .parcels(parcels)
+                .build();
+    }
+
+    @Benchmark
+    public byte[] cartDto() throws Exception {
+        return cartWriter.writeValueAsBytes(cart);
+    }
+
+    @Benchmark
+    public byte[] shippingEstimate() throws Exception {
+        return estimateWriter.writeValueAsBytes(estimate);
+    }
+}
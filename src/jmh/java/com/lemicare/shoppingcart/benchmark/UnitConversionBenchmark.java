@@ -0,0 +1,66 @@
+package com.lemicare.shoppingcart.benchmark;
+
+import com.lemicare.shoppingcart.dto.response.CartProductView;
+import com.lemicare.shoppingcart.shipping.ParcelMetrics;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares normalizing one product's weight and dimensions with the former lowercase-and-switch
+ * {@code BigDecimal} conversion versus {@link ParcelMetrics} and the unit enums' lookup table.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UnitConversionBenchmark {
+
+    private static final int PRODUCTS = 64;
+
+    private final CartProductView[] products = new CartProductView[PRODUCTS];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        for (int i = 0; i < PRODUCTS; i++) {
+            products[i] = CartFixtures.product(i);
+        }
+    }
+
+    @Benchmark
+    public BigDecimal bigDecimalSwitch() {
+        CartProductView product = products[next++ & (PRODUCTS - 1)];
+        CartProductView.DimensionsView dims = product.getDimensions();
+        return toKg(product.getWeight())
+                .add(toCm(dims.getLength(), dims.getUnit()))
+                .add(toCm(dims.getWidth(), dims.getUnit()))
+                .add(toCm(dims.getHeight(), dims.getUnit()));
+    }
+
+    @Benchmark
+    public ParcelMetrics unitTable() {
+        return ParcelMetrics.of(products[next++ & (PRODUCTS - 1)]);
+    }
+
+    // The conversions shipping estimation used before ParcelMetrics.
+    private static BigDecimal toKg(CartProductView.WeightView weight) {
+        return switch (weight.getUnit().toLowerCase()) {
+            case "g" -> weight.getValue().divide(new BigDecimal("1000"), 3, RoundingMode.HALF_UP);
+            case "lb" -> weight.getValue().multiply(new BigDecimal("0.453592")).setScale(3, RoundingMode.HALF_UP);
+            default -> weight.getValue();
+        };
+    }
+
+    private static BigDecimal toCm(BigDecimal value, String unit) {
+        return switch (unit.toLowerCase()) {
+            case "mm" -> value.divide(new BigDecimal("10"), 2, RoundingMode.HALF_UP);
+            case "inch" -> value.multiply(new BigDecimal("2.54")).setScale(2, RoundingMode.HALF_UP);
+            default -> value;
+        };
+    }
+}
@@ -0,0 +1,147 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.google.cloud.Timestamp;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the off-heap {@link HotCartCache}, which decodes a snapshot from the slab on every
+ * hit, with a bounded Guava heap cache holding the same snapshots.
+ * <p>
+ * The heap cache copies the cart and its items on the way in and out, as the tiered store
+ * would have to: callers mutate the carts they are handed. Run with the {@code gc} profiler
+ * (the profile default) to compare allocation per hit as well as throughput.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class HotTierBenchmark {
+
+    private static final int CARTS = 1_000;
+    private static final int BLOCK_SIZE = 1024;
+
+    @Param({"1", "10", "100", "500"})
+    public int lines;
+
+    private HotCartCache slabCache;
+    private Cache<String, CartSnapshot> heapCache;
+    private CartSnapshot[] snapshots;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        snapshots = new CartSnapshot[CARTS];
+        long capacityBytes = 0;
+        for (int i = 0; i < CARTS; i++) {
+            snapshots[i] = snapshot("cart-" + i, lines);
+            capacityBytes += CartSnapshotCodec.encode(snapshots[i]).length + BLOCK_SIZE;
+        }
+
+        // Sized so that every cart fits and neither cache evicts during the run.
+        HotCartTierProperties properties = new HotCartTierProperties();
+        properties.setBlockSize(BLOCK_SIZE);
+        properties.setCapacityBytes(capacityBytes);
+        properties.setMaxStaleness(Duration.ofHours(1));
+        properties.setIdleTimeout(Duration.ofHours(1));
+        slabCache = new HotCartCache(properties, new SimpleMeterRegistry());
+        heapCache = CacheBuilder.newBuilder()
+                .maximumSize(CARTS)
+                .expireAfterWrite(properties.getMaxStaleness())
+                .build();
+
+        for (int i = 0; i < CARTS; i++) {
+            slabCache.put(snapshots[i]);
+            heapCache.put(snapshots[i].cart().getCartId(), copyOf(snapshots[i]));
+        }
+    }
+
+    @Benchmark
+    public CartSnapshot slabHit() {
+        return slabCache.getByCartId(nextCartId()).orElseThrow();
+    }
+
+    @Benchmark
+    public CartSnapshot heapHit() {
+        return copyOf(heapCache.getIfPresent(nextCartId()));
+    }
+
+    @Benchmark
+    public void slabPut() {
+        slabCache.put(snapshots[nextIndex()]);
+    }
+
+    @Benchmark
+    public void heapPut() {
+        CartSnapshot snapshot = snapshots[nextIndex()];
+        heapCache.put(snapshot.cart().getCartId(), copyOf(snapshot));
+    }
+
+    private int nextIndex() {
+        int index = next;
+        next = index + 1 == CARTS ? 0 : index + 1;
+        return index;
+    }
+
+    private String nextCartId() {
+        return snapshots[nextIndex()].cart().getCartId();
+    }
+
+    private static CartSnapshot copyOf(CartSnapshot snapshot) {
+        List<CartItem> items = new ArrayList<>(snapshot.items().size());
+        for (CartItem item : snapshot.items()) {
+            items.add(CartSnapshots.copyOf(item));
+        }
+        return new CartSnapshot(CartSnapshots.copyOf(snapshot.cart()), items);
+    }
+
+    private static CartSnapshot snapshot(String cartId, int lines) {
+        SplittableRandom random = new SplittableRandom(cartId.hashCode());
+        Timestamp now = Timestamp.ofTimeSecondsAndNanos(1_760_000_000L, 0);
+        List<CartItem> items = new ArrayList<>(lines);
+        int totalItems = 0;
+        double subtotal = 0;
+        for (int i = 0; i < lines; i++) {
+            double price = random.nextInt(10, 500_000) / 100.0;
+            int quantity = random.nextInt(1, 20);
+            totalItems += quantity;
+            subtotal += price * quantity;
+            items.add(CartItem.builder()
+                    .cartItemId(cartId + "-item-" + i)
+                    .orgId("org-bench")
+                    .cartId(cartId)
+                    .productId("product-" + i)
+                    .productName("Vitamin D3 60K Capsules " + i)
+                    .priceAtAddToCart(price)
+                    .quantity(quantity)
+                    .itemTotalPrice(price * quantity)
+                    .addedAt(now)
+                    .lastModifiedAt(now)
+                    .sku("SKU-" + i)
+                    .build());
+        }
+        Cart cart = Cart.builder()
+                .cartId(cartId)
+                .orgId("org-bench")
+                .userId("user-" + cartId)
+                .status("ACTIVE")
+                .totalItems(totalItems)
+                .subtotalAmount(subtotal)
+                .createdAt(now)
+                .lastModifiedAt(now)
+                .build();
+        return new CartSnapshot(cart, items);
+    }
+}
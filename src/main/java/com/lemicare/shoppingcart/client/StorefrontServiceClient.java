@@ -1,6 +1,7 @@
 package com.lemicare.shoppingcart.client;
 
 import com.cosmicdoc.common.model.StorefrontProduct;
+import com.lemicare.shoppingcart.dto.response.CartProductView;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -21,4 +22,18 @@ public interface StorefrontServiceClient {
             @PathVariable("organizationId") String organizationId,
             @RequestParam("productIds") List<String> productIds);
 
+    /**
+     * Same endpoint as {@link #getProductDetails}, decoded into the lean cart projection.
+     */
+    @GetMapping("/api/internal/storefront/{orgId}/product/{productId}/details")
+    CartProductView getProductView(@PathVariable("orgId") String orgId, @PathVariable("productId") String productId);
+
+    /**
+     * Same endpoint as {@link #getProductsByIds}, decoded into the lean cart projection.
+     */
+    @GetMapping("/api/internal/storefront/{organizationId}/products")
+    List<CartProductView> getProductViewsByIds(
+            @PathVariable("organizationId") String organizationId,
+            @RequestParam("productIds") List<String> productIds);
+
 }
@@ -0,0 +1,22 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.service.CartItemPurger;
+import com.lemicare.shoppingcart.storage.CartStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the background purger that deletes the items of cleared carts.
+ */
+@Configuration
+@EnableConfigurationProperties(CartClearProperties.class)
+public class CartClearConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public CartItemPurger cartItemPurger(CartStore cartStore, CartClearProperties properties,
+                                         MeterRegistry meterRegistry) {
+        return new CartItemPurger(cartStore, properties, meterRegistry);
+    }
+}
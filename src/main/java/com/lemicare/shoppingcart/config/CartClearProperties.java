@@ -0,0 +1,25 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the background deletion of a cleared cart's items,
+ * bound from {@code app.cart-clear.*} in application.yml.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cart-clear")
+public class CartClearProperties {
+
+    /** Upper bound on item deletes per second for a single cart. */
+    private int maxDeletesPerSecond = 500;
+
+    /** Number of carts whose items are purged concurrently. */
+    private int purgeThreads = 2;
+
+    /**
+     * Cleared carts waiting for a purge thread. When the queue is full the items are left
+     * in place and removed later by the cart reaper together with the cleared cart.
+     */
+    private int queueCapacity = 1000;
+}
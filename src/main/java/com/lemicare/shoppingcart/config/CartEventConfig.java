@@ -0,0 +1,21 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.service.CartEventHub;
+import com.lemicare.shoppingcart.storage.CartStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the hub behind the server-sent cart event stream.
+ */
+@Configuration
+@EnableConfigurationProperties(CartEventProperties.class)
+public class CartEventConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public CartEventHub cartEventHub(CartStore cartStore, CartEventProperties properties, MeterRegistry meterRegistry) {
+        return new CartEventHub(cartStore, properties, meterRegistry);
+    }
+}
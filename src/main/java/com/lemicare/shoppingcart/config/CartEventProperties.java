@@ -0,0 +1,29 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the server-sent cart event stream, bound from {@code app.cart-events.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cart-events")
+public class CartEventProperties {
+
+    /** Open streams allowed on this instance. */
+    private int maxConnections = 5000;
+
+    /** Open streams allowed per user or guest (tabs and devices). */
+    private int maxConnectionsPerOwner = 10;
+
+    /** Interval of comment lines that keep idle streams open through proxies. */
+    private Duration heartbeatInterval = Duration.ofSeconds(15);
+
+    /** Streams are closed after this long; EventSource reconnects with Last-Event-ID. */
+    private Duration streamTimeout = Duration.ofMinutes(30);
+
+    /** Threads writing events to subscribers, so slow clients never stall the change listener. */
+    private int fanOutThreads = 4;
+}
@@ -0,0 +1,24 @@
+package com.lemicare.shoppingcart.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lemicare.shoppingcart.mapper.CartMapper;
+import com.lemicare.shoppingcart.service.CartExportService;
+import com.lemicare.shoppingcart.storage.CartStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the admin cart export.
+ */
+@Configuration
+@EnableConfigurationProperties(CartExportProperties.class)
+public class CartExportConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public CartExportService cartExportService(CartStore cartStore, CartMapper cartMapper, ObjectMapper objectMapper,
+                                               CartExportProperties properties, MeterRegistry meterRegistry) {
+        return new CartExportService(cartStore, cartMapper, objectMapper, properties, meterRegistry);
+    }
+}
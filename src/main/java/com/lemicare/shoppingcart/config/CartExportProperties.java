@@ -0,0 +1,27 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Settings for the admin NDJSON cart export, bound from {@code app.cart-export.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cart-export")
+public class CartExportProperties {
+
+    /** Cart-id ranges read in parallel per export: 1, 2, 4, 8 or 16. */
+    private int partitions = 16;
+
+    /** Carts read per query from one range. */
+    private int pageSize = 200;
+
+    /**
+     * Pages buffered between the readers and the response. Readers block when it is full,
+     * so heap use stays at about queueCapacity * pageSize carts however large the tenant is.
+     */
+    private int queueCapacity = 8;
+
+    /** Exports allowed to run at the same time on one instance. */
+    private int maxConcurrentExports = 2;
+}
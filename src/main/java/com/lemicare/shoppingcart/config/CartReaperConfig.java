@@ -0,0 +1,24 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.service.CartReaperService;
+import com.lemicare.shoppingcart.storage.CartStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schedules the cart reaper unless {@code app.cart-reaper.enabled} is false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.cart-reaper", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(CartReaperProperties.class)
+public class CartReaperConfig {
+
+    @Bean
+    public CartReaperService cartReaperService(CartStore cartStore, CartReaperProperties properties,
+                                               MeterRegistry meterRegistry) {
+        return new CartReaperService(cartStore, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,44 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Settings for the background job that deletes carts nobody will come back to,
+ * bound from {@code app.cart-reaper.*} in application.yml.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cart-reaper")
+public class CartReaperProperties {
+
+    /** Whether the reaper is scheduled at all. */
+    private boolean enabled = true;
+
+    /** How long a cart is kept after it last changed, per terminal status. Statuses not listed are never reaped. */
+    private Map<String, Duration> retention = new LinkedHashMap<>(Map.of(
+            "ABANDONED", Duration.ofDays(30),
+            "CLEARED", Duration.ofDays(7),
+            "MERGED_TO_USER_CART", Duration.ofDays(1)));
+
+    /** Active guest carts untouched for this long are reaped too. Active user carts are always kept. */
+    private Duration guestRetention = Duration.ofDays(30);
+
+    /** Carts read per page; each page is deleted before the next one is fetched. */
+    private int pageSize = 200;
+
+    /**
+     * Upper bound on cart deletes per second, and separately on item deletes, to leave write
+     * capacity for shoppers.
+     */
+    private double maxDeletesPerSecond = 200;
+
+    /** Upper bound on carts deleted in one run; the rest is picked up by the next run. */
+    private int maxCartsPerRun = 20_000;
+
+    /** Upper bound on carts read in one run, whether or not they end up deleted. */
+    private int maxCartReadsPerRun = 50_000;
+}
@@ -0,0 +1,27 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.client.StorefrontServiceClient;
+import com.lemicare.shoppingcart.service.CartRepricer;
+import com.lemicare.shoppingcart.service.CartSummaryService;
+import com.lemicare.shoppingcart.storage.CartStore;
+import com.lemicare.shoppingcart.storage.CartTransactionRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires re-pricing of cart lines on read.
+ */
+@Configuration
+@EnableConfigurationProperties(CartRepricingProperties.class)
+public class CartRepricingConfig {
+
+    @Bean
+    public CartRepricer cartRepricer(CartStore cartStore, StorefrontServiceClient storefrontServiceClient,
+                                     CartTransactionRunner cartTransactionRunner, CartSummaryService cartSummaryService,
+                                     CartRepricingProperties properties, MeterRegistry meterRegistry) {
+        return new CartRepricer(cartStore, storefrontServiceClient, cartTransactionRunner, cartSummaryService,
+                properties, meterRegistry);
+    }
+}
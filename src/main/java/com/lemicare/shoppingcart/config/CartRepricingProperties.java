@@ -0,0 +1,27 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for re-pricing cart lines against the catalogue on read, bound from
+ * {@code app.cart-repricing.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cart-repricing")
+public class CartRepricingProperties {
+
+    /** Whether cart reads check line prices against the current catalogue. */
+    private boolean enabled = true;
+
+    /**
+     * A cart is re-priced at most once per window on each instance, so reads cost at most one
+     * catalogue call per cart per window.
+     */
+    private Duration freshnessWindow = Duration.ofMinutes(5);
+
+    /** Carts whose last re-pricing time is remembered at once. */
+    private long maxTrackedCarts = 100_000;
+}
@@ -0,0 +1,22 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.service.CartSummaryService;
+import com.lemicare.shoppingcart.storage.CartStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the cart summary service and its micro-cache.
+ */
+@Configuration
+@EnableConfigurationProperties(CartSummaryProperties.class)
+public class CartSummaryConfig {
+
+    @Bean
+    public CartSummaryService cartSummaryService(CartStore cartStore, CartSummaryProperties properties,
+                                                 MeterRegistry meterRegistry) {
+        return new CartSummaryService(cartStore, properties, meterRegistry);
+    }
+}
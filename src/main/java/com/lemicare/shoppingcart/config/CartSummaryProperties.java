@@ -0,0 +1,23 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the cart summary endpoint and its micro-cache, bound from {@code app.cart-summary.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.cart-summary")
+public class CartSummaryProperties {
+
+    /**
+     * How long a summary is served from the local cache. Writes through this instance evict it
+     * right away, so this only bounds how late changes made through other instances show up.
+     */
+    private Duration cacheTtl = Duration.ofSeconds(2);
+
+    /** Owners whose summary is cached at once. */
+    private long cacheMaxEntries = 50_000;
+}
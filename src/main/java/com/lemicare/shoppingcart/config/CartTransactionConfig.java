@@ -0,0 +1,28 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.metrics.TenantTags;
+import com.lemicare.shoppingcart.storage.CartStore;
+import com.lemicare.shoppingcart.storage.CartTransactionProperties;
+import com.lemicare.shoppingcart.storage.CartTransactionRunner;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.tracing.Tracer;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires the instrumented, policy-driven runner used for all cart transactions.
+ */
+@Configuration
+@EnableConfigurationProperties(CartTransactionProperties.class)
+public class CartTransactionConfig {
+
+    @Bean
+    public CartTransactionRunner cartTransactionRunner(CartStore cartStore, CartTransactionProperties properties,
+                                                       MeterRegistry meterRegistry, TenantTags tenantTags,
+                                                       ObjectProvider<Tracer> tracer) {
+        return new CartTransactionRunner(cartStore, properties, meterRegistry, tenantTags,
+                tracer.getIfAvailable(() -> Tracer.NOOP));
+    }
+}
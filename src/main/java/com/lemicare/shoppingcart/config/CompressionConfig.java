@@ -0,0 +1,33 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.filter.ResponseCompressionFilter;
+import com.lemicare.shoppingcart.metrics.CompressionMetrics;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers response compression for the public cart and wishlist endpoints.
+ */
+@Configuration
+@EnableConfigurationProperties(CompressionProperties.class)
+public class CompressionConfig {
+
+    /**
+     * Maps the compression filter to the configured URL patterns only, ahead of the
+     * security chain so that error responses written by it are compressed as well.
+     *
+     * @return The filter registration.
+     */
+    @Bean
+    public FilterRegistrationBean<ResponseCompressionFilter> responseCompressionFilter(
+            CompressionProperties properties, CompressionMetrics metrics) {
+        FilterRegistrationBean<ResponseCompressionFilter> registration =
+                new FilterRegistrationBean<>(new ResponseCompressionFilter(properties, metrics));
+        registration.setUrlPatterns(properties.getUrlPatterns());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
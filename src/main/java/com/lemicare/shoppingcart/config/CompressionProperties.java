@@ -0,0 +1,31 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for gzip compression of the public cart and wishlist responses,
+ * bound from {@code app.compression.*} in application.yml.
+ * <p>
+ * Compression of Feign traffic is configured separately through
+ * {@code spring.cloud.openfeign.compression.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.compression")
+public class CompressionProperties {
+
+    /** Whether responses may be gzip-compressed at all. */
+    private boolean enabled = true;
+
+    /** Responses smaller than this many bytes are sent as-is. */
+    private int minResponseSize = 2048;
+
+    /** Content types eligible for compression, matched against the response media type. */
+    private List<String> mimeTypes = new ArrayList<>(List.of("application/json", "application/problem+json"));
+
+    /** Servlet URL patterns the compression filter is mapped to. */
+    private List<String> urlPatterns = new ArrayList<>(List.of("/api/public/cart/*", "/api/wishlists/*"));
+}
@@ -5,8 +5,15 @@ import com.cosmicdoc.common.repository.impl.*;
 import com.google.cloud.firestore.Firestore;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
+/**
+ * Firestore-backed repositories from the common library.
+ * Not loaded under the 'local' profile, where FirebaseConfig provides no Firestore
+ * and the in-memory stores are used instead.
+ */
 @Configuration
+@Profile("!local")
 public class EntityConfiguration {
 
     Firestore firestore;
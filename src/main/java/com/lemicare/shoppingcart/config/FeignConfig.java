@@ -1,8 +1,13 @@
 package com.lemicare.shoppingcart.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lemicare.shoppingcart.metrics.CompressionMetrics;
+import com.lemicare.shoppingcart.metrics.FeignClientMetrics;
 import feign.RetryableException;
 import feign.Retryer;
+import feign.codec.Decoder;
 import feign.codec.ErrorDecoder;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
@@ -28,6 +33,31 @@ public class FeignConfig {
         return new Retryer.Default(100, 1000, 3);
     }
 
+    /**
+     * Times every attempt of every client method, tagged with status and whether it was a retry.
+     *
+     * @param meterRegistry The registry the timers are published to.
+     * @return The capability applied to every Feign client.
+     */
+    @Bean
+    public FeignClientMetrics feignClientMetrics(MeterRegistry meterRegistry) {
+        return new FeignClientMetrics(meterRegistry);
+    }
+
+    /**
+     * Defines how successful responses are decoded.
+     * Bodies are parsed directly from the response stream, skipping any fields
+     * the target read model does not declare.
+     *
+     * @param objectMapper The application's ObjectMapper, used as the base configuration.
+     * @param compressionMetrics Records bytes saved by compressed responses.
+     * @return A configured Decoder instance.
+     */
+    @Bean
+    public Decoder feignDecoder(ObjectMapper objectMapper, CompressionMetrics compressionMetrics) {
+        return new StreamingJacksonDecoder(objectMapper, compressionMetrics);
+    }
+
     /**
      * Defines the custom error decoding logic.
      * This allows us to control which HTTP errors trigger a retry.
@@ -1,11 +1,15 @@
 package com.lemicare.shoppingcart.config;
 
+import com.google.api.gax.grpc.ChannelPoolSettings;
+import com.google.api.gax.grpc.InstantiatingGrpcChannelProvider;
 import com.google.auth.oauth2.GoogleCredentials;
 import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.FirestoreOptions;
 import com.google.firebase.FirebaseApp;
 import com.google.firebase.FirebaseOptions;
 import com.google.firebase.cloud.FirestoreClient;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
@@ -24,6 +28,7 @@ import java.io.InputStream;
  */
 @Configuration
 @Profile("!local") // CRITICAL: This bean will not be created if the profile is 'local'.
+@EnableConfigurationProperties(FirestoreChannelProperties.class)
 public class FirebaseConfig {
 
     // Injects the path to the service account key from application.yml
@@ -34,19 +39,32 @@ public class FirebaseConfig {
      * Initializes the Firebase Admin SDK as a Spring Bean.
      * <p>
      * It robustly checks if an app has already been initialized to prevent errors
-     * during application restarts or in certain testing scenarios.
+     * during application restarts or in certain testing scenarios. The Firestore client gets a
+     * fixed pool of gRPC channels with keep-alive pings, so channels opened during start-up
+     * warm-up stay usable instead of being torn down while idle.
      *
+     * @param channelProperties Channel pool and keep-alive settings.
      * @return The initialized FirebaseApp instance.
      * @throws IOException if the credentials file cannot be found or read.
      */
     @Bean
-    public FirebaseApp firebaseApp() throws IOException {
+    public FirebaseApp firebaseApp(FirestoreChannelProperties channelProperties) throws IOException {
         if (FirebaseApp.getApps().isEmpty()) {
             // Load the service account credentials from the project's classpath (src/main/resources)
             InputStream serviceAccount = new ClassPathResource(serviceAccountPath).getInputStream();
 
+            InstantiatingGrpcChannelProvider channelProvider = FirestoreOptions.getDefaultTransportChannelProviderBuilder()
+                    .setChannelPoolSettings(ChannelPoolSettings.staticallySized(channelProperties.getPoolSize()))
+                    .setKeepAliveTime(org.threeten.bp.Duration.ofMillis(channelProperties.getKeepAliveTime().toMillis()))
+                    .setKeepAliveTimeout(org.threeten.bp.Duration.ofMillis(channelProperties.getKeepAliveTimeout().toMillis()))
+                    .setKeepAliveWithoutCalls(true)
+                    .build();
+
             FirebaseOptions options = FirebaseOptions.builder()
                     .setCredentials(GoogleCredentials.fromStream(serviceAccount))
+                    .setFirestoreOptions(FirestoreOptions.newBuilder()
+                            .setChannelProvider(channelProvider)
+                            .build())
                     .build();
 
             return FirebaseApp.initializeApp(options);
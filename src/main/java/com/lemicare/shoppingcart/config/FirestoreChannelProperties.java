@@ -0,0 +1,23 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * gRPC channel settings of the Firestore client, bound from {@code app.firebase.channel.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.firebase.channel")
+public class FirestoreChannelProperties {
+
+    /** Number of gRPC channels kept open to Firestore; each carries up to 100 concurrent streams. */
+    private int poolSize = 2;
+
+    /** Interval of HTTP/2 keep-alive pings, so idle channels survive between requests. */
+    private Duration keepAliveTime = Duration.ofSeconds(60);
+
+    /** How long to wait for a keep-alive ping acknowledgement before the channel is recycled. */
+    private Duration keepAliveTimeout = Duration.ofSeconds(20);
+}
@@ -0,0 +1,34 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.profiling.FlightRecorderService;
+import com.lemicare.shoppingcart.profiling.FlightRecordingEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.text.ParseException;
+
+/**
+ * Starts the continuous flight recording and exposes the dump endpoint, unless
+ * {@code app.jfr.enabled} is false. Access to {@code /actuator/jfr} is restricted in
+ * {@link SecurityConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(FlightRecorderProperties.class)
+public class FlightRecorderConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public FlightRecorderService flightRecorderService(FlightRecorderProperties properties)
+            throws IOException, ParseException {
+        return new FlightRecorderService(properties);
+    }
+
+    @Bean
+    public FlightRecordingEndpoint flightRecordingEndpoint(FlightRecorderService flightRecorderService,
+                                                           FlightRecorderProperties properties) {
+        return new FlightRecordingEndpoint(flightRecorderService, properties.getDefaultDumpAge());
+    }
+}
@@ -0,0 +1,32 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the continuous Flight Recorder session, bound from {@code app.jfr.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.jfr")
+public class FlightRecorderProperties {
+
+    /** Whether a recording runs for the lifetime of the service. */
+    private boolean enabled = true;
+
+    /** JFR settings file: "default" (about 1% overhead) or "profile" (more detail, more overhead). */
+    private String settings = "default";
+
+    /** How much history the recording keeps; also the longest window a dump can cover. */
+    private Duration maxAge = Duration.ofMinutes(30);
+
+    /** Upper bound for the recording's disk repository. */
+    private long maxSizeBytes = 64L * 1024 * 1024;
+
+    /** Window dumped when the request does not name one. */
+    private Duration defaultDumpAge = Duration.ofMinutes(5);
+
+    /** Cart operations shorter than this are not recorded as events. */
+    private Duration operationThreshold = Duration.ZERO;
+}
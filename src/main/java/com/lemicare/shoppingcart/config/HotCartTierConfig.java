@@ -0,0 +1,37 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.storage.CartStore;
+import com.lemicare.shoppingcart.storage.FirestoreCartStore;
+import com.lemicare.shoppingcart.storage.HotCartCache;
+import com.lemicare.shoppingcart.storage.HotCartTierProperties;
+import com.lemicare.shoppingcart.storage.TieredCartStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Puts the off-heap hot-cart tier in front of Firestore when
+ * {@code app.storage.hot-tier.enabled} is true. The tiered store is marked primary,
+ * so the service layer picks it up in place of the plain Firestore store.
+ */
+@Configuration
+@Profile("!local")
+@ConditionalOnProperty(prefix = "app.storage.hot-tier", name = "enabled", havingValue = "true")
+@EnableConfigurationProperties(HotCartTierProperties.class)
+public class HotCartTierConfig {
+
+    @Bean
+    public HotCartCache hotCartCache(HotCartTierProperties properties, MeterRegistry meterRegistry) {
+        return new HotCartCache(properties, meterRegistry);
+    }
+
+    @Bean
+    @Primary
+    public CartStore tieredCartStore(FirestoreCartStore firestoreCartStore, HotCartCache hotCartCache) {
+        return new TieredCartStore(firestoreCartStore, hotCartCache);
+    }
+}
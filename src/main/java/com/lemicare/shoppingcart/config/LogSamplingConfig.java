@@ -0,0 +1,31 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.filter.RequestLogSamplingFilter;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registers log sampling for the hot cart and wishlist endpoints. The asynchronous JSON appender
+ * and the turbo filter that holds back unsampled logs are set up in {@code logback-spring.xml}.
+ */
+@Configuration
+@EnableConfigurationProperties(LogSamplingProperties.class)
+public class LogSamplingConfig {
+
+    /**
+     * Runs outside the compression filter, so the slow threshold covers the whole response.
+     *
+     * @return The filter registration.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestLogSamplingFilter> requestLogSamplingFilter(LogSamplingProperties properties) {
+        FilterRegistrationBean<RequestLogSamplingFilter> registration =
+                new FilterRegistrationBean<>(new RequestLogSamplingFilter(properties));
+        registration.setUrlPatterns(properties.getUrlPatterns());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
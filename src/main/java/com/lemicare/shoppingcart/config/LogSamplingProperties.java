@@ -0,0 +1,32 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for sampling the per-request INFO logs of the hot endpoints, bound from
+ * {@code app.logging.sampling.*}. WARN and ERROR logs are never sampled.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.logging.sampling")
+public class LogSamplingProperties {
+
+    /** Whether INFO logs of the matched endpoints are sampled; when false every request logs in full. */
+    private boolean enabled = true;
+
+    /** Fraction of requests, between 0 and 1, whose INFO logs are written as they happen. */
+    private double rate = 0.05;
+
+    /** Unsampled requests taking at least this long have their held-back logs written in full. */
+    private Duration slowThreshold = Duration.ofMillis(500);
+
+    /** Log calls held back per request; further ones are counted, not kept. */
+    private int maxDeferredEvents = 64;
+
+    /** Servlet URL patterns whose requests are sampled. */
+    private List<String> urlPatterns = new ArrayList<>(List.of("/api/public/cart/*", "/api/wishlists/*"));
+}
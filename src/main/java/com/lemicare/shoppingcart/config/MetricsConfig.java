@@ -0,0 +1,34 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.metrics.TenantServerRequestObservationConvention;
+import com.lemicare.shoppingcart.metrics.TenantTags;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Metrics beyond the Spring Boot defaults: an organization tag on endpoint timers and a guard on
+ * the number of organization tag values.
+ * <p>
+ * {@link TenantTags} already folds organizations past {@code app.metrics.max-org-tags} into
+ * {@value TenantTags#OVERFLOW}; the meter filter is the backstop for meters that tag an
+ * organization without going through it, and drops their extra series instead of registering
+ * them.
+ */
+@Configuration
+public class MetricsConfig {
+
+    // "other" and "unknown" come on top of the tagged organizations.
+    private static final int RESERVED_ORG_TAGS = 2;
+
+    @Bean
+    public TenantServerRequestObservationConvention tenantServerRequestObservationConvention(TenantTags tenantTags) {
+        return new TenantServerRequestObservationConvention(tenantTags);
+    }
+
+    @Bean
+    public MeterFilter orgTagCardinalityFilter(@Value("${app.metrics.max-org-tags:100}") int maxOrgTags) {
+        return MeterFilter.maximumAllowableTags("", "org", maxOrgTags + RESERVED_ORG_TAGS, MeterFilter.deny());
+    }
+}
@@ -0,0 +1,43 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.filter.RateLimitFilter;
+import com.lemicare.shoppingcart.metrics.TenantTags;
+import com.lemicare.shoppingcart.ratelimit.TenantRateLimiter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Limits request rates per organization and per shopper on the cart and wishlist endpoints
+ * when {@code app.rate-limit.enabled} is true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(RateLimitProperties.class)
+public class RateLimitConfig {
+
+    @Bean
+    public TenantRateLimiter tenantRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry,
+                                               TenantTags tenantTags) {
+        return new TenantRateLimiter(properties, meterRegistry, tenantTags);
+    }
+
+    /**
+     * Runs after the security chain, which sets the tenant context for token-authenticated calls.
+     *
+     * @return The filter registration.
+     */
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   TenantRateLimiter tenantRateLimiter) {
+        FilterRegistrationBean<RateLimitFilter> registration =
+                new FilterRegistrationBean<>(new RateLimitFilter(tenantRateLimiter));
+        registration.setUrlPatterns(properties.getUrlPatterns());
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 10);
+        return registration;
+    }
+}
@@ -0,0 +1,68 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-tenant and per-shopper request limits for the cart and wishlist APIs, bound from
+ * {@code app.rate-limit.*}.
+ * <p>
+ * Each organization gets the limits of its tier: a token bucket for its request rate and a cap
+ * on its requests in progress, so one tenant cannot take all request threads. Each shopper
+ * (the authenticated user or, for guests, the client address) within an organization has its
+ * own, smaller bucket.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.rate-limit")
+public class RateLimitProperties {
+
+    /** Whether requests are limited at all. */
+    private boolean enabled = true;
+
+    /** Servlet URL patterns the limits apply to. */
+    private List<String> urlPatterns = new ArrayList<>(List.of("/api/public/cart/*", "/api/wishlists/*"));
+
+    /** Tier of organizations not listed in {@link #orgTiers}. */
+    private String defaultTier = "standard";
+
+    /** Limits per tier name. */
+    private Map<String, Limits> tiers = new LinkedHashMap<>(Map.of(
+            "standard", new Limits(50, 100, 32),
+            "premium", new Limits(200, 400, 96)));
+
+    /** Tier of individual organizations, by orgId. */
+    private Map<String, String> orgTiers = new HashMap<>();
+
+    /** Request rate and burst of a single shopper. */
+    private Limits shopper = new Limits(5, 20, 0);
+
+    /** Buckets kept in memory; the least recently used are dropped beyond this. */
+    private long maxTrackedKeys = 100_000;
+
+    /** Buckets not used for this long are dropped, which refills them. */
+    private Duration idleExpiry = Duration.ofMinutes(10);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limits {
+
+        /** Sustained requests per second. */
+        private double requestsPerSecond;
+
+        /** Requests allowed in a burst above the sustained rate. */
+        private int burst;
+
+        /** Requests in progress at once; 0 for no cap. */
+        private int maxConcurrent;
+    }
+}
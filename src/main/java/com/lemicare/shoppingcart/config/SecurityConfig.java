@@ -62,6 +62,9 @@ public class SecurityConfig {
                         .requestMatchers("/api/public/**").permitAll() // Allow all public endpoints
                         .requestMatchers("/test/**").permitAll() // Allow test endpoints for Firestore testing
                         .requestMatchers("/error").permitAll() // Allow error pages
+                        // Flight recordings and slow-request captures expose code paths and tenant ids; operators only
+                        .requestMatchers("/actuator/jfr", "/actuator/jfr/**").hasAnyAuthority("admin", "ops.profile")
+                        .requestMatchers("/actuator/slowrequests").hasAnyAuthority("admin", "ops.profile")
                         .anyRequest().permitAll() // For now, allow everything for debugging
                 )
 
@@ -0,0 +1,28 @@
+package com.lemicare.shoppingcart.config;
+
+import com.lemicare.shoppingcart.client.DeliveryServiceClient;
+import com.lemicare.shoppingcart.service.ShippingQuoteService;
+import com.lemicare.shoppingcart.shipping.CartonPacker;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Wires carton packing and parcel quoting for shipping estimates.
+ */
+@Configuration
+@EnableConfigurationProperties(ShippingProperties.class)
+public class ShippingConfig {
+
+    @Bean
+    public CartonPacker cartonPacker(ShippingProperties properties, MeterRegistry meterRegistry) {
+        return new CartonPacker(properties, meterRegistry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ShippingQuoteService shippingQuoteService(DeliveryServiceClient deliveryServiceClient,
+                                                     ShippingProperties properties, MeterRegistry meterRegistry) {
+        return new ShippingQuoteService(deliveryServiceClient, properties, meterRegistry);
+    }
+}
@@ -0,0 +1,63 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Settings for packing carts into parcels and quoting them, bound from {@code app.shipping.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.shipping")
+public class ShippingProperties {
+
+    /** Cartons available for packing, with inner dimensions. */
+    private List<CartonSpec> cartons = new ArrayList<>(List.of(
+            new CartonSpec("S", 20, 15, 10, 2),
+            new CartonSpec("M", 30, 25, 15, 5),
+            new CartonSpec("L", 45, 35, 25, 10),
+            new CartonSpec("XL", 60, 45, 40, 20)));
+
+    /**
+     * Share of a carton's volume that items may fill. Packing is by volume, so this leaves
+     * room for the gaps real items leave between them.
+     */
+    private double fillFactor = 0.8;
+
+    /** Packing plans remembered by cart composition. */
+    private long planCacheMaxEntries = 10_000;
+
+    /** Plans unused for this long are forgotten. */
+    private Duration planCacheExpiry = Duration.ofMinutes(30);
+
+    /**
+     * Pickup pincode of each organization, by organization id. Estimates for an organization
+     * without one are rejected.
+     */
+    private Map<String, Integer> sourcePincodes = new HashMap<>(Map.of(
+            "org_ae1e6ea1-0de2-4b6a-bc86-9d8d043fd75b", 600029));
+
+    /** Courier quotes requested in parallel, across all estimates on this instance. */
+    private int quoteThreads = 8;
+
+    /** Longest wait for the quotes of all parcels of one estimate. */
+    private Duration quoteTimeout = Duration.ofSeconds(10);
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CartonSpec {
+        private String name;
+        private double lengthCm;
+        private double widthCm;
+        private double heightCm;
+        private double maxWeightKg;
+    }
+}
@@ -0,0 +1,60 @@
+package com.lemicare.shoppingcart.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.lemicare.shoppingcart.filter.RequestLedgerFilter;
+import com.lemicare.shoppingcart.profiling.SlowRequestLog;
+import com.lemicare.shoppingcart.profiling.SlowRequestsEndpoint;
+import com.lemicare.shoppingcart.profiling.TimedJacksonHttpMessageConverter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Keeps a timing ledger per cart and wishlist request and exposes the slow ones through
+ * {@code /actuator/slowrequests}, unless {@code app.slow-requests.enabled} is false. Access to the
+ * endpoint is restricted in {@link SecurityConfig}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.slow-requests", name = "enabled", havingValue = "true", matchIfMissing = true)
+@EnableConfigurationProperties(SlowRequestProperties.class)
+public class SlowRequestConfig {
+
+    @Bean
+    public SlowRequestLog slowRequestLog(SlowRequestProperties properties) {
+        return new SlowRequestLog(properties.getCapacity());
+    }
+
+    @Bean
+    public SlowRequestsEndpoint slowRequestsEndpoint(SlowRequestLog slowRequestLog) {
+        return new SlowRequestsEndpoint(slowRequestLog);
+    }
+
+    /**
+     * Replaces Boot's default Jackson converter, so the time spent writing response bodies is
+     * added to the ledger.
+     */
+    @Bean
+    public TimedJacksonHttpMessageConverter timedJacksonHttpMessageConverter(ObjectMapper objectMapper,
+                                                                             SlowRequestProperties properties) {
+        return new TimedJacksonHttpMessageConverter(objectMapper, properties.isServerTiming());
+    }
+
+    /**
+     * Runs inside log sampling but outside compression, so the ledger's total matches the time
+     * the slow-request log line reports.
+     *
+     * @return The filter registration.
+     */
+    @Bean
+    public FilterRegistrationBean<RequestLedgerFilter> requestLedgerFilter(SlowRequestProperties properties,
+                                                                           SlowRequestLog slowRequestLog) {
+        FilterRegistrationBean<RequestLedgerFilter> registration =
+                new FilterRegistrationBean<>(new RequestLedgerFilter(properties, slowRequestLog));
+        registration.setUrlPatterns(properties.getUrlPatterns());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 6);
+        return registration;
+    }
+}
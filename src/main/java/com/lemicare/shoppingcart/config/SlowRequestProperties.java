@@ -0,0 +1,32 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Settings for the per-request timing ledger and slow-request capture, bound from
+ * {@code app.slow-requests.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.slow-requests")
+public class SlowRequestProperties {
+
+    /** Whether requests keep a timing ledger at all. */
+    private boolean enabled = true;
+
+    /** Requests taking at least this long are kept for {@code /actuator/slowrequests}. */
+    private Duration threshold = Duration.ofMillis(500);
+
+    /** How many slow requests are kept; the oldest are overwritten. */
+    private int capacity = 100;
+
+    /** Whether every response carries its ledger in a {@code Server-Timing} header. */
+    private boolean serverTiming = false;
+
+    /** Servlet URL patterns that keep a ledger. */
+    private List<String> urlPatterns = new ArrayList<>(List.of("/api/public/cart/*", "/api/wishlists/*"));
+}
@@ -0,0 +1,136 @@
+package com.lemicare.shoppingcart.config;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.lemicare.shoppingcart.metrics.CompressionMetrics;
+import feign.FeignException;
+import feign.Response;
+import feign.codec.DecodeException;
+import feign.codec.Decoder;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.lang.reflect.Type;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Feign decoder that parses response bodies straight from the byte stream with Jackson.
+ * <p>
+ * Unlike the default Spring decoder it never buffers the body into a String, and it keeps
+ * one pre-built {@link ObjectReader} per target type. Unknown properties are skipped by the
+ * parser, so lean read models such as {@code CartProductView} only pay for the fields they declare.
+ * <p>
+ * Compressed bodies arrive already inflated by the Feign client as a stream; when the response
+ * carries a Content-Length, the decoded size is compared with it to record the bytes saved.
+ * Error statuses, 404 included, never get here: the clients do not set {@code dismiss404}, so
+ * they go to the error decoder.
+ */
+public class StreamingJacksonDecoder implements Decoder {
+
+    private final ObjectMapper mapper;
+    private final CompressionMetrics compressionMetrics;
+    private final Map<Type, ObjectReader> readers = new ConcurrentHashMap<>();
+
+    public StreamingJacksonDecoder(ObjectMapper objectMapper) {
+        this(objectMapper, null);
+    }
+
+    public StreamingJacksonDecoder(ObjectMapper objectMapper, CompressionMetrics compressionMetrics) {
+        this.mapper = objectMapper.copy()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.compressionMetrics = compressionMetrics;
+    }
+
+    @Override
+    public Object decode(Response response, Type type) throws IOException, FeignException {
+        if (response.body() == null) {
+            return null;
+        }
+
+        long encodedLength = compressedLength(response);
+        CountingInputStream counting = encodedLength > 0 ? new CountingInputStream(response.body().asInputStream()) : null;
+        InputStream source = counting != null ? counting : response.body().asInputStream();
+
+        try (PushbackInputStream in = new PushbackInputStream(source, 1)) {
+            // An empty body decodes to null rather than failing inside the parser.
+            int first = in.read();
+            if (first == -1) {
+                return null;
+            }
+            in.unread(first);
+            Object value = readerFor(type).readValue((InputStream) in);
+            if (counting != null) {
+                compressionMetrics.recordClientResponse(counting.count, encodedLength);
+            }
+            return value;
+        } catch (JsonProcessingException e) {
+            throw new DecodeException(response.status(),
+                    "Failed to decode response body into " + type.getTypeName() + ": " + e.getMessage(),
+                    response.request(), e);
+        }
+    }
+
+    /**
+     * @return the on-the-wire length of a gzip/deflate encoded body, or -1 when it is not
+     * compressed, its length is unknown, or metrics are not being recorded.
+     */
+    private long compressedLength(Response response) {
+        if (compressionMetrics == null) {
+            return -1;
+        }
+        String encoding = firstHeader(response, "Content-Encoding");
+        if (encoding == null || !(encoding.contains("gzip") || encoding.contains("deflate"))) {
+            return -1;
+        }
+        String length = firstHeader(response, "Content-Length");
+        try {
+            return length != null ? Long.parseLong(length.trim()) : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String firstHeader(Response response, String name) {
+        Collection<String> values = response.headers().get(name);
+        if (values == null) {
+            values = response.headers().get(name.toLowerCase());
+        }
+        return values == null || values.isEmpty() ? null : values.iterator().next();
+    }
+
+    private ObjectReader readerFor(Type type) {
+        return readers.computeIfAbsent(type, t -> mapper.readerFor(mapper.getTypeFactory().constructType(t)));
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            super(in);
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                count++;
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int n = super.read(b, off, len);
+            if (n > 0) {
+                count += n;
+            }
+            return n;
+        }
+    }
+}
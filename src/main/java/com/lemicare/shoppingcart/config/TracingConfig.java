@@ -0,0 +1,47 @@
+package com.lemicare.shoppingcart.config;
+
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.contextpropagation.ObservationAwareSpanThreadLocalAccessor;
+import io.opentelemetry.exporter.logging.LoggingSpanExporter;
+import io.opentelemetry.exporter.otlp.http.trace.OtlpHttpSpanExporter;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Registers the span exporter selected by {@code app.tracing.exporter}. Spring Boot's
+ * OpenTelemetry setup batches finished spans into every {@link SpanExporter} bean.
+ */
+@Configuration
+@EnableConfigurationProperties(TracingProperties.class)
+public class TracingConfig {
+
+    /**
+     * Lets {@code ContextPropagation} carry spans opened directly on the tracer, such as store
+     * calls and transaction attempts, onto other threads; by default only observations are carried.
+     */
+    @Bean
+    public SmartInitializingSingleton spanContextPropagation(ObjectProvider<Tracer> tracer) {
+        return () -> tracer.ifAvailable(available -> ContextRegistry.getInstance()
+                .registerThreadLocalAccessor(new ObservationAwareSpanThreadLocalAccessor(available)));
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tracing", name = "exporter", havingValue = "logging")
+    public SpanExporter loggingSpanExporter() {
+        return LoggingSpanExporter.create();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "app.tracing", name = "exporter", havingValue = "otlp")
+    public SpanExporter otlpSpanExporter(TracingProperties properties) {
+        return OtlpHttpSpanExporter.builder()
+                .setEndpoint(properties.getOtlpEndpoint())
+                .build();
+    }
+}
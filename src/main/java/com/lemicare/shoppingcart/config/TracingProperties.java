@@ -0,0 +1,25 @@
+package com.lemicare.shoppingcart.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Where finished spans are sent, bound from {@code app.tracing.*}. Sampling and propagation are
+ * configured under {@code management.tracing.*}.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.tracing")
+public class TracingProperties {
+
+    /** NONE drops spans after sampling, LOGGING writes them to the application log, OTLP sends them to a collector. */
+    private Exporter exporter = Exporter.NONE;
+
+    /** OTLP/HTTP traces endpoint, used when the exporter is OTLP. */
+    private String otlpEndpoint = "http://localhost:4318/v1/traces";
+
+    public enum Exporter {
+        NONE,
+        LOGGING,
+        OTLP
+    }
+}
@@ -0,0 +1,63 @@
+package com.lemicare.shoppingcart.controller;
+
+import com.lemicare.shoppingcart.context.TenantContext;
+import com.lemicare.shoppingcart.exception.ExportCapacityException;
+import com.lemicare.shoppingcart.service.CartExportService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.time.Instant;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+@RequestMapping("/api/admin/carts")
+// Scopes are mapped to authorities without a prefix; see SecurityConfig#jwtAuthenticationConverter
+@PreAuthorize("hasAnyAuthority('admin', 'cart.export')")
+public class AdminCartController {
+
+    private final CartExportService cartExportService;
+
+    /**
+     * Streams all carts of the caller's organization with their items as NDJSON, one cart per line.
+     *
+     * @param status Only carts in this status (e.g. ACTIVE, ABANDONED); all statuses if omitted.
+     * @param modifiedFrom Only carts last modified at or after this instant (ISO-8601).
+     * @param modifiedTo Only carts last modified before this instant (ISO-8601).
+     * @return The export stream.
+     */
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> exportCarts(
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant modifiedFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant modifiedTo) {
+
+        // The body is written on another thread, so the tenant is captured here.
+        String organizationId = TenantContext.getOrganizationId();
+        if (organizationId == null || organizationId.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Organization is required to export carts.");
+        }
+        log.info("Received request to export carts for orgId: {}, status: {}, modifiedFrom: {}, modifiedTo: {}",
+                organizationId, status, modifiedFrom, modifiedTo);
+
+        try {
+            cartExportService.reserveSlot();
+        } catch (ExportCapacityException e) {
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage(), e);
+        }
+        CartExportService.ExportFilter filter = new CartExportService.ExportFilter(status, modifiedFrom, modifiedTo);
+        StreamingResponseBody body = out -> cartExportService.export(organizationId, filter, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header("Content-Disposition", "attachment; filename=\"carts-" + organizationId + ".ndjson\"")
+                .body(body);
+    }
+}
@@ -1,18 +1,25 @@
 package com.lemicare.shoppingcart.controller;
 
 import com.lemicare.shoppingcart.dto.request.*;
+import com.lemicare.shoppingcart.dto.response.CartSummary;
 import com.lemicare.shoppingcart.dto.response.ShippingEstimate;
 import com.lemicare.shoppingcart.exception.CartNotFoundException;
 import com.lemicare.shoppingcart.exception.InsufficientStockException;
+import com.lemicare.shoppingcart.exception.NoCourierAvailableException;
 import com.lemicare.shoppingcart.exception.ProductNotFoundException;
 import com.lemicare.shoppingcart.exception.ServiceCommunicationException;
+import com.lemicare.shoppingcart.exception.TooManySubscriptionsException;
+import com.lemicare.shoppingcart.service.CartEventHub;
 import com.lemicare.shoppingcart.service.CartService;
+import com.lemicare.shoppingcart.service.CartSummaryService;
 import jakarta.validation.Valid;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.concurrent.ExecutionException;
 
@@ -23,9 +30,13 @@ import java.util.concurrent.ExecutionException;
 public class CartController {
 
     private final CartService cartService;
+    private final CartEventHub cartEventHub;
+    private final CartSummaryService cartSummaryService;
 
-    public CartController(CartService cartService) {
+    public CartController(CartService cartService, CartEventHub cartEventHub, CartSummaryService cartSummaryService) {
         this.cartService = cartService;
+        this.cartEventHub = cartEventHub;
+        this.cartSummaryService = cartSummaryService;
     }
 
     /**
@@ -87,13 +98,17 @@ public class CartController {
      * @param orgId The ID of the tenant/organization.
      * @param userId The ID of the logged-in user (from X-User-ID header).
      * @param guestId The ID of the guest user (from _guest_id cookie).
+     * @param pageSize Items per page (at most 200); all items are returned when neither this nor cursor is set.
+     * @param cursor The nextCursor of the previous page.
      * @return The current cart details.
      */
     @GetMapping
     public ResponseEntity<CartDto> getCartDetails(
             @PathVariable String orgId,
             @RequestHeader(value = "X-User-ID", required = false) String userId,
-            @CookieValue(value = "_guest_id", required = false) String guestId) {
+            @CookieValue(value = "_guest_id", required = false) String guestId,
+            @RequestParam(required = false) Integer pageSize,
+            @RequestParam(required = false) String cursor) {
 
         log.info("Received request to get cart details for orgId: {}, userId: {}, guestId: {}", orgId, userId, guestId);
 
@@ -102,7 +117,11 @@ public class CartController {
         }
 
         try {
-            CartDto cart = cartService.getCartDetails(orgId, userId, guestId);
+            // Without paging parameters all items are returned, as before.
+            CartDto cart = pageSize == null && cursor == null
+                    ? cartService.getCartDetails(orgId, userId, guestId)
+                    : cartService.getCartDetails(orgId, userId, guestId,
+                    pageSize != null ? pageSize : CartService.MAX_ITEM_PAGE_SIZE, cursor);
             return ResponseEntity.ok(cart);
         } catch (CartNotFoundException e) {
             log.info("Cart not found for orgId: {}, userId: {}, guestId: {}", orgId, userId, guestId);
@@ -110,6 +129,73 @@ public class CartController {
         } catch (IllegalArgumentException e) {
             log.error("Invalid arguments for get cart details: {}", e.getMessage(), e);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Internal server error during get cart details: {}", e.getMessage(), e);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to retrieve cart due to internal error.", e);
+        }
+    }
+
+    /**
+     * Returns item count, subtotal, status and version of the shopper's active cart for the site
+     * header, without loading any items. Zero totals when there is no active cart.
+     *
+     * @param orgId The ID of the tenant/organization.
+     * @param userId The ID of the logged-in user (from X-User-ID header).
+     * @param guestId The ID of the guest user (from _guest_id cookie).
+     * @return The cart summary.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<CartSummary> getCartSummary(
+            @PathVariable String orgId,
+            @RequestHeader(value = "X-User-ID", required = false) String userId,
+            @CookieValue(value = "_guest_id", required = false) String guestId) {
+
+        log.debug("Received request to get cart summary for orgId: {}, userId: {}, guestId: {}", orgId, userId, guestId);
+
+        if ((userId == null || userId.isBlank()) && (guestId == null || guestId.isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User or Guest ID is required to retrieve cart summary.");
+        }
+
+        try {
+            return ResponseEntity.ok(cartSummaryService.getSummary(orgId, userId, guestId));
+        } catch (ExecutionException | InterruptedException e) {
+            log.error("Internal server error during get cart summary: {}", e.getMessage(), e);
+            Thread.currentThread().interrupt();
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to retrieve cart summary due to internal error.", e);
+        }
+    }
+
+    /**
+     * Streams changes of the shopper's cart as server-sent events, replacing polling of the
+     * cart details. Each "cart" event carries a CartSummary whose version is the event id;
+     * browsers reconnect with Last-Event-ID and only receive the state again if it changed.
+     *
+     * @param orgId The ID of the tenant/organization.
+     * @param userId The ID of the logged-in user (from X-User-ID header).
+     * @param guestId The ID of the guest user (from _guest_id cookie).
+     * @param lastEventId The last version the client received, if reconnecting.
+     * @return The event stream.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCartEvents(
+            @PathVariable String orgId,
+            @RequestHeader(value = "X-User-ID", required = false) String userId,
+            @CookieValue(value = "_guest_id", required = false) String guestId,
+            @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+
+        log.debug("Received request to stream cart events for orgId: {}, userId: {}, guestId: {}", orgId, userId, guestId);
+
+        boolean hasUser = userId != null && !userId.isBlank();
+        if (!hasUser && (guestId == null || guestId.isBlank())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "User or Guest ID is required to stream cart events.");
+        }
+
+        try {
+            return cartEventHub.subscribe(orgId, hasUser ? userId : null, hasUser ? null : guestId, lastEventId);
+        } catch (TooManySubscriptionsException e) {
+            log.warn("Rejected cart event stream for orgId: {}: {}", orgId, e.getMessage());
+            throw new ResponseStatusException(HttpStatus.TOO_MANY_REQUESTS, e.getMessage(), e);
         }
     }
 
@@ -279,6 +365,9 @@ public class CartController {
         } catch (IllegalArgumentException e) {
             log.error("Invalid arguments for shipping estimation: {}", e.getMessage(), e);
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (NoCourierAvailableException e) {
+            log.warn("No courier available for shipping estimation: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.UNPROCESSABLE_ENTITY, e.getMessage(), e);
         } catch (ServiceCommunicationException e) {
             log.error("Service communication error with delivery partner API during shipping estimation: {}", e.getMessage(), e);
             throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Could not get shipping estimates. Please try again later.", e);
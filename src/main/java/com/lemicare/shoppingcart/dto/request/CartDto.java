@@ -17,7 +17,12 @@ public class CartDto {
     private String status;
     private int totalItems;
     private double subtotalAmount;
+    /** subtotalAmount in exact minor units (paise) of {@link #currency}. */
+    private long subtotalMinorUnits;
+    private String currency;
     private Timestamp createdAt;
     private Timestamp lastModifiedAt;
     private List<CartItemDto> items;
+    /** Cursor for the next page of items when they were requested page-wise; null on the last page. */
+    private String nextCursor;
 }
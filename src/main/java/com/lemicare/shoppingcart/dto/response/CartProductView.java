@@ -0,0 +1,55 @@
+package com.lemicare.shoppingcart.dto.response;
+
+import com.fasterxml.jackson.annotation.JsonAlias;
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+/**
+ * Minimal read model of a storefront product, holding only the fields the cart
+ * needs (name, MRP, SKU, weight and dimensions).
+ * <p>
+ * Decoded from the same storefront payload as {@code StorefrontProduct}; every
+ * other property of the product is skipped by the parser instead of being
+ * materialized.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CartProductView {
+    @JsonAlias("id")
+    private String productId;
+    private String productName;
+    private double mrp;
+    private String sku;
+    private WeightView weight;
+    private DimensionsView dimensions;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class WeightView {
+        private BigDecimal value;
+        private String unit;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public static class DimensionsView {
+        private BigDecimal length;
+        private BigDecimal width;
+        private BigDecimal height;
+        private String unit;
+    }
+}
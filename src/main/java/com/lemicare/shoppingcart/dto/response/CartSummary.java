@@ -0,0 +1,22 @@
+package com.lemicare.shoppingcart.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Badge-sized view of an owner's active cart, as returned by the summary endpoint and sent on the
+ * cart event stream. {@code version} grows with every change and doubles as the SSE event id.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class CartSummary {
+    private String cartId; // null when the owner has no active cart
+    private String status;
+    private int totalItems;
+    private double subtotalAmount;
+    private long version;
+}
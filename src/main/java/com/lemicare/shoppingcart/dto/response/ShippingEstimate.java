@@ -16,5 +16,6 @@ public class ShippingEstimate {
     private String cartId;
     private Integer destinationPincode;
     private BigDecimal estimatedTotalShippingCost;
-    private List<DeliveryOption> deliveryOptions; // List of available delivery services/rates
+    private List<DeliveryOption> deliveryOptions; // List of available delivery services/rates, costs summed over parcels
+    private List<ShippingParcel> parcels;
 }
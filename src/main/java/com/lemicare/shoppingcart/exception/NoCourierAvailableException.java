@@ -0,0 +1,15 @@
+package com.lemicare.shoppingcart.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * No courier service can ship the whole cart to the destination, e.g. because no single service
+ * quoted every parcel.
+ */
+@ResponseStatus(HttpStatus.UNPROCESSABLE_ENTITY)
+public class NoCourierAvailableException extends RuntimeException {
+    public NoCourierAvailableException(String message) {
+        super(message);
+    }
+}
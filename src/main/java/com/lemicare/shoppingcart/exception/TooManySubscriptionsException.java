@@ -0,0 +1,11 @@
+package com.lemicare.shoppingcart.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.TOO_MANY_REQUESTS)
+public class TooManySubscriptionsException extends RuntimeException {
+    public TooManySubscriptionsException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,72 @@
+package com.lemicare.shoppingcart.filter;
+
+import com.lemicare.shoppingcart.context.TenantContext;
+import com.lemicare.shoppingcart.ratelimit.TenantRateLimiter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Rejects requests over their organization's or shopper's limits with 429 and a
+ * {@code Retry-After} header.
+ * <p>
+ * Public cart calls name the organization in the path; wishlist calls carry it in the token, so
+ * this filter must run after the security chain has filled {@link TenantContext}.
+ * <p>
+ * Shoppers are told apart by the user in their token and, when there is none, by client
+ * address. The {@code X-User-ID} header and the guest cookie are chosen by the client, which
+ * could rotate them for a fresh bucket on every request, so they are not used. The organization
+ * in a cart path is not verified either: it selects the tier, and a client naming a different
+ * organization on each request also gets a separate shopper bucket for each.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String CART_PATH_PREFIX = "/api/public/cart/";
+
+    private final TenantRateLimiter rateLimiter;
+
+    public RateLimitFilter(TenantRateLimiter rateLimiter) {
+        this.rateLimiter = rateLimiter;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        TenantRateLimiter.Admission admission = rateLimiter.tryAdmit(orgIdOf(request), shopperOf(request));
+        if (!admission.admitted()) {
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(admission.retryAfterSeconds()));
+            response.sendError(HttpStatus.TOO_MANY_REQUESTS.value(), "Too many requests, please retry later.");
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            admission.release();
+        }
+    }
+
+    private static String orgIdOf(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (path.startsWith(CART_PATH_PREFIX)) {
+            int end = path.indexOf('/', CART_PATH_PREFIX.length());
+            String orgId = end < 0 ? path.substring(CART_PATH_PREFIX.length()) : path.substring(CART_PATH_PREFIX.length(), end);
+            return orgId.isEmpty() ? null : orgId;
+        }
+        return TenantContext.getOrganizationId();
+    }
+
+    private static String shopperOf(HttpServletRequest request) {
+        String userId = TenantContext.getUserId();
+        if (userId != null) {
+            return "u:" + userId;
+        }
+        return "a:" + request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,57 @@
+package com.lemicare.shoppingcart.filter;
+
+import com.lemicare.shoppingcart.config.SlowRequestProperties;
+import com.lemicare.shoppingcart.profiling.RequestLedger;
+import com.lemicare.shoppingcart.profiling.SlowRequestLog;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Keeps a {@link RequestLedger} for each request and adds requests slower than the threshold to
+ * the {@link SlowRequestLog}.
+ * <p>
+ * Responses with a JSON body get their {@code Server-Timing} header from the Jackson converter,
+ * just before the body is written; the rest get it here, if nothing has been written yet.
+ * Requests that go asynchronous, such as the event stream, are not captured.
+ */
+public class RequestLedgerFilter extends OncePerRequestFilter {
+
+    private final SlowRequestProperties properties;
+    private final SlowRequestLog slowRequestLog;
+
+    public RequestLedgerFilter(SlowRequestProperties properties, SlowRequestLog slowRequestLog) {
+        this.properties = properties;
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        RequestLedger ledger = RequestLedger.start();
+        int status = 500;
+        try {
+            filterChain.doFilter(request, response);
+            status = response.getStatus();
+            if (properties.isServerTiming() && !response.isCommitted()) {
+                response.setHeader(RequestLedger.SERVER_TIMING_HEADER, ledger.serverTiming());
+            }
+        } finally {
+            RequestLedger.end();
+            long elapsedNanos = ledger.elapsedNanos();
+            if (!request.isAsyncStarted() && elapsedNanos >= properties.getThreshold().toNanos()) {
+                Object route = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                Object orgId = request.getAttribute(TenantFilter.ORG_ID_ATTRIBUTE);
+                slowRequestLog.add(ledger.toSlowRequest(request.getMethod(), request.getRequestURI(),
+                        route != null ? route.toString() : null, status,
+                        orgId != null ? orgId.toString() : null, elapsedNanos));
+            }
+        }
+    }
+}
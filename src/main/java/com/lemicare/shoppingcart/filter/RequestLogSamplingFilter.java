@@ -0,0 +1,57 @@
+package com.lemicare.shoppingcart.filter;
+
+import com.lemicare.shoppingcart.config.LogSamplingProperties;
+import com.lemicare.shoppingcart.logging.RequestLogSampling;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decides per request whether its INFO logs are written. Sampled requests log as usual; the
+ * others are deferred through {@link RequestLogSampling} and their logs are written only when the
+ * request fails with a 5xx or an exception, or takes longer than the slow threshold, in which
+ * case a summary line is logged as well.
+ */
+@Slf4j
+public class RequestLogSamplingFilter extends OncePerRequestFilter {
+
+    private final LogSamplingProperties properties;
+
+    public RequestLogSamplingFilter(LogSamplingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || ThreadLocalRandom.current().nextDouble() < properties.getRate();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        long start = System.nanoTime();
+        RequestLogSampling.defer(properties.getMaxDeferredEvents());
+        boolean failed = true;
+        try {
+            filterChain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            long elapsedNanos = System.nanoTime() - start;
+            boolean slow = elapsedNanos >= properties.getSlowThreshold().toNanos();
+            if (failed || slow) {
+                RequestLogSampling.replay();
+                log.warn("{} request {} {} returned {} after {} ms", failed ? "Failed" : "Slow",
+                        request.getMethod(), request.getRequestURI(), response.getStatus(), elapsedNanos / 1_000_000);
+            } else {
+                RequestLogSampling.discard();
+            }
+        }
+    }
+}
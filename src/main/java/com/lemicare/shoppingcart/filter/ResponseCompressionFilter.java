@@ -0,0 +1,470 @@
+package com.lemicare.shoppingcart.filter;
+
+import com.lemicare.shoppingcart.config.CompressionProperties;
+import com.lemicare.shoppingcart.metrics.CompressionMetrics;
+import jakarta.servlet.AsyncContext;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip-compresses JSON responses of the public cart and wishlist endpoints.
+ * <p>
+ * The body is held back only until it reaches the configured size threshold: from then on, if
+ * its content type is eligible, it is streamed through gzip to the client; a response that ends
+ * below the threshold, or that is not eligible, is sent unchanged. So at most
+ * {@code min-response-size} bytes of a response are buffered. Streaming responses (server-sent
+ * events, NDJSON) are recognized by their content type when first written, whatever the request
+ * accepted, and everything written after the request went asynchronous passes straight through.
+ * <p>
+ * This is a filter rather than {@code server.compression} because it must be limited to the
+ * public endpoints and record the bytes it saves, neither of which the container's compression
+ * offers.
+ */
+public class ResponseCompressionFilter extends OncePerRequestFilter {
+
+    private static final List<MediaType> STREAMING_TYPES = List.of(
+            MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_NDJSON);
+
+    private final CompressionProperties properties;
+    private final CompressionMetrics metrics;
+    private final List<MediaType> compressibleTypes;
+
+    public ResponseCompressionFilter(CompressionProperties properties, CompressionMetrics metrics) {
+        this.properties = properties;
+        this.metrics = metrics;
+        this.compressibleTypes = MediaType.parseMediaTypes(properties.getMimeTypes());
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !properties.isEnabled() || !acceptsGzip(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+
+        CompressingResponseWrapper wrapper = new CompressingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, wrapper);
+            completed = true;
+        } finally {
+            if (request.isAsyncStarted()) {
+                // The rest of the body is written after this filter has returned.
+                wrapper.continueAsync(request.getAsyncContext());
+            } else if (completed) {
+                wrapper.finish();
+            } else {
+                wrapper.abandon();
+            }
+        }
+    }
+
+    /**
+     * Whether the request's {@code Accept-Encoding} lists gzip, or failing that {@code *}, with a
+     * non-zero quality.
+     */
+    static boolean acceptsGzip(HttpServletRequest request) {
+        Double gzip = null;
+        Double any = null;
+        Enumeration<String> headers = request.getHeaders(HttpHeaders.ACCEPT_ENCODING);
+        while (headers != null && headers.hasMoreElements()) {
+            for (String coding : headers.nextElement().split(",")) {
+                String[] parts = coding.split(";");
+                String name = parts[0].trim().toLowerCase(Locale.ROOT);
+                if (name.equals("gzip") || name.equals("x-gzip")) {
+                    gzip = quality(parts);
+                } else if (name.equals("*")) {
+                    any = quality(parts);
+                }
+            }
+        }
+        if (gzip != null) {
+            return gzip > 0;
+        }
+        return any != null && any > 0;
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                    && parameter.charAt(1) == '=') {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim());
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    /**
+     * Holds the body back until it reaches the threshold or ends, then picks gzip or identity
+     * and writes everything after that straight to the real response. A content length set by
+     * the handler is held back with the body, since it no longer applies once compressed.
+     */
+    private final class CompressingResponseWrapper extends HttpServletResponseWrapper {
+
+        private final ByteArrayOutputStream held = new ByteArrayOutputStream();
+        private final HttpServletResponse response;
+        private long heldContentLength = -1;
+        private boolean chosen;
+        private CountingOutputStream encodedCount;
+        private GZIPOutputStream gzip;
+        private long identityBytes;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CompressingResponseWrapper(HttpServletResponse response) {
+            super(response);
+            this.response = response;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            if (outputStream == null) {
+                outputStream = new DeferringOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (outputStream != null && writer == null) {
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            }
+            if (writer == null) {
+                outputStream = new DeferringOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(int len) {
+            setContentLengthLong(len);
+        }
+
+        @Override
+        public void setContentLengthLong(long len) {
+            if (!chosen) {
+                heldContentLength = len;
+            } else if (gzip == null) {
+                super.setContentLengthLong(len);
+            }
+        }
+
+        @Override
+        public void setHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value != null ? Long.parseLong(value.trim()) : -1);
+            } else {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(String name, String value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setHeader(name, value);
+            } else {
+                super.addHeader(name, value);
+            }
+        }
+
+        @Override
+        public void setIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.setIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addIntHeader(String name, int value) {
+            if (HttpHeaders.CONTENT_LENGTH.equalsIgnoreCase(name)) {
+                setContentLengthLong(value);
+            } else {
+                super.addIntHeader(name, value);
+            }
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            // Before the choice is made a flush is deferred, except for streams, which go out now.
+            if (!chosen && !isStreaming()) {
+                return;
+            }
+            flushWriter();
+            if (!chosen) {
+                startIdentity();
+            }
+            if (gzip != null) {
+                gzip.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void sendError(int sc, String msg) throws IOException {
+            discardHeld();
+            super.sendError(sc, msg);
+        }
+
+        @Override
+        public void sendError(int sc) throws IOException {
+            discardHeld();
+            super.sendError(sc);
+        }
+
+        @Override
+        public void sendRedirect(String location) throws IOException {
+            discardHeld();
+            super.sendRedirect(location);
+        }
+
+        @Override
+        public void resetBuffer() {
+            super.resetBuffer();
+            held.reset();
+        }
+
+        @Override
+        public void reset() {
+            super.reset();
+            held.reset();
+            heldContentLength = -1;
+        }
+
+        /**
+         * Sends what the handler wrote: compressed if it reached the threshold, as-is otherwise.
+         */
+        void finish() throws IOException {
+            flushWriter();
+            if (!chosen) {
+                startIdentity();
+            }
+            if (gzip != null) {
+                gzip.finish();
+                gzip.flush();
+                metrics.recordServerResponse(identityBytes, encodedCount.count);
+            }
+        }
+
+        /**
+         * The handler failed: sends what was held back as-is for whatever handles the error.
+         */
+        void abandon() throws IOException {
+            if (!chosen && !response.isCommitted()) {
+                startIdentity();
+            } else if (gzip != null) {
+                gzip.finish();
+            }
+        }
+
+        /**
+         * Lets the rest of an asynchronous response through: uncompressed if nothing was chosen
+         * yet, otherwise through the gzip stream already started, which is finished when the
+         * request completes.
+         */
+        void continueAsync(AsyncContext asyncContext) throws IOException {
+            if (!chosen) {
+                startIdentity();
+                return;
+            }
+            if (gzip != null) {
+                asyncContext.addListener(new AsyncListener() {
+                    @Override
+                    public void onComplete(AsyncEvent event) throws IOException {
+                        finish();
+                    }
+
+                    @Override
+                    public void onTimeout(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onError(AsyncEvent event) {
+                    }
+
+                    @Override
+                    public void onStartAsync(AsyncEvent event) {
+                    }
+                });
+            }
+        }
+
+        private void write(byte[] bytes, int offset, int length) throws IOException {
+            if (!chosen) {
+                if (isStreaming()) {
+                    startIdentity();
+                } else if (held.size() + length < properties.getMinResponseSize()) {
+                    held.write(bytes, offset, length);
+                    return;
+                } else {
+                    held.write(bytes, offset, length);
+                    if (shouldCompress()) {
+                        startGzip();
+                    } else {
+                        startIdentity();
+                    }
+                    return;
+                }
+            }
+            if (gzip != null) {
+                identityBytes += length;
+                gzip.write(bytes, offset, length);
+            } else {
+                response.getOutputStream().write(bytes, offset, length);
+            }
+        }
+
+        private boolean shouldCompress() {
+            if (response.isCommitted() || getHeader(HttpHeaders.CONTENT_ENCODING) != null) {
+                return false;
+            }
+            String contentType = getContentType();
+            if (contentType == null) {
+                return false;
+            }
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return compressibleTypes.stream().anyMatch(type -> type.includes(mediaType));
+        }
+
+        private boolean isStreaming() {
+            String contentType = getContentType();
+            if (contentType == null) {
+                return false;
+            }
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            return STREAMING_TYPES.stream().anyMatch(type -> type.includes(mediaType));
+        }
+
+        private void startGzip() throws IOException {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+            // The compressed length is unknown up front; the container falls back to chunked encoding.
+            encodedCount = new CountingOutputStream(response.getOutputStream());
+            gzip = new GZIPOutputStream(encodedCount, 8192, true);
+            chosen = true;
+            identityBytes = held.size();
+            held.writeTo(gzip);
+            held.reset();
+        }
+
+        private void startIdentity() throws IOException {
+            chosen = true;
+            if (heldContentLength >= 0) {
+                response.setContentLengthLong(heldContentLength);
+            }
+            // The real stream is only claimed for a body, so an error page may still use the writer.
+            if (held.size() > 0) {
+                held.writeTo(response.getOutputStream());
+                held.reset();
+            }
+        }
+
+        private void discardHeld() {
+            held.reset();
+            heldContentLength = -1;
+        }
+
+        private void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+
+        private final class DeferringOutputStream extends ServletOutputStream {
+
+            @Override
+            public void write(int b) throws IOException {
+                CompressingResponseWrapper.this.write(new byte[] {(byte) b}, 0, 1);
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                CompressingResponseWrapper.this.write(b, off, len);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                if (!chosen && isStreaming()) {
+                    startIdentity();
+                }
+                if (gzip != null) {
+                    gzip.flush();
+                } else if (chosen) {
+                    response.getOutputStream().flush();
+                }
+            }
+
+            @Override
+            public boolean isReady() {
+                return true;
+            }
+
+            @Override
+            public void setWriteListener(WriteListener writeListener) {
+                throw new UnsupportedOperationException("Non-blocking writes are not supported by the compression filter");
+            }
+        }
+    }
+
+    /**
+     * Counts bytes on their way to the servlet stream; closing it flushes but
+     * leaves the container-owned stream open.
+     */
+    private static final class CountingOutputStream extends FilterOutputStream {
+        private long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+    }
+}
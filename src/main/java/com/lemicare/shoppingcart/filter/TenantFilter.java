@@ -1,6 +1,7 @@
 package com.lemicare.shoppingcart.filter;
 
 import com.lemicare.shoppingcart.context.TenantContext;
+import com.lemicare.shoppingcart.metrics.TenantTags;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -17,6 +18,11 @@ import java.io.IOException;
 @RequiredArgsConstructor
 public class TenantFilter extends OncePerRequestFilter {
 
+    /** Request attribute holding the caller's organization, read after the context is cleared. */
+    public static final String ORG_ID_ATTRIBUTE = TenantFilter.class.getName() + ".orgId";
+
+    private final TenantTags tenantTags;
+
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws ServletException, IOException {
@@ -30,6 +36,10 @@ public class TenantFilter extends OncePerRequestFilter {
             String userId = jwt.getSubject();
 
             TenantContext.setContext(orgId, branchId, userId);
+            if (orgId != null) {
+                request.setAttribute(ORG_ID_ATTRIBUTE, orgId);
+                tenantTags.admit(orgId);
+            }
         }
 
         try {
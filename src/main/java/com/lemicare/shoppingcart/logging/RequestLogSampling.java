@@ -0,0 +1,114 @@
+package com.lemicare.shoppingcart.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.slf4j.Marker;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Holds back the INFO and lower logs of requests that were not sampled, so that they can still
+ * be written in full if the request turns out to be slow or to fail.
+ * <p>
+ * While a request is deferred, {@link SampledRequestTurboFilter} hands its log calls here instead
+ * of letting them through; WARN and ERROR are never held back. Each call is captured as the event
+ * it would have been, with its timestamp, thread, formatted message and MDC, since the arguments
+ * and the MDC may have changed by the time the request ends. {@link #replay()} then passes the
+ * events to the appenders in their original order and {@link #discard()} drops them. Only the
+ * thread that handles the request is covered; logs from pool threads are written as usual.
+ */
+public final class RequestLogSampling {
+
+    /** MDC key set on log events written late by {@link #replay()}. */
+    public static final String REPLAYED_MDC_KEY = "logReplayed";
+
+    private static final ThreadLocal<Deferred> DEFERRED = new ThreadLocal<>();
+    private static final org.slf4j.Logger log = LoggerFactory.getLogger(RequestLogSampling.class);
+
+    private RequestLogSampling() {
+    }
+
+    /**
+     * Starts holding back the current thread's logs, keeping at most {@code maxEvents} of them.
+     */
+    public static void defer(int maxEvents) {
+        DEFERRED.set(new Deferred(maxEvents));
+    }
+
+    /**
+     * Writes the held-back logs and stops deferring.
+     */
+    public static void replay() {
+        Deferred deferred = DEFERRED.get();
+        if (deferred == null) {
+            return;
+        }
+        DEFERRED.remove();
+        for (HeldEvent held : deferred.events) {
+            held.mdc().put(REPLAYED_MDC_KEY, "true");
+            held.logger().callAppenders(held.event());
+        }
+        if (deferred.dropped > 0) {
+            log.warn("{} further log events of this request were not kept.", deferred.dropped);
+        }
+    }
+
+    /**
+     * Drops the held-back logs and stops deferring.
+     */
+    public static void discard() {
+        DEFERRED.remove();
+    }
+
+    /**
+     * Holds back the call when the current thread is deferring.
+     *
+     * @return whether the call was taken.
+     */
+    static boolean hold(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        Deferred deferred = DEFERRED.get();
+        if (deferred == null) {
+            return false;
+        }
+        if (deferred.events.size() < deferred.maxEvents) {
+            deferred.events.add(capture(marker, logger, level, format, params, t));
+        } else {
+            deferred.dropped++;
+        }
+        return true;
+    }
+
+    private static HeldEvent capture(Marker marker, Logger logger, Level level, String format,
+                                     Object[] params, Throwable t) {
+        LoggingEvent event = new LoggingEvent(Logger.FQCN, logger, level, format, t, params);
+        if (marker != null) {
+            event.addMarker(marker);
+        }
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+        mdc = mdc != null ? new HashMap<>(mdc) : new HashMap<>();
+        event.setMDCPropertyMap(mdc);
+        // Fixes the thread name and the formatted message now, while they are still current.
+        event.prepareForDeferredProcessing();
+        return new HeldEvent(logger, event, mdc);
+    }
+
+    private record HeldEvent(Logger logger, LoggingEvent event, Map<String, String> mdc) {
+    }
+
+    private static final class Deferred {
+
+        private final int maxEvents;
+        private final List<HeldEvent> events = new ArrayList<>();
+        private int dropped;
+
+        private Deferred(int maxEvents) {
+            this.maxEvents = maxEvents;
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package com.lemicare.shoppingcart.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.turbo.TurboFilter;
+import ch.qos.logback.core.spi.FilterReply;
+import org.slf4j.Marker;
+
+/**
+ * Logback turbo filter that passes the enabled INFO and lower log calls of unsampled requests to
+ * {@link RequestLogSampling} instead of logging them. A held-back call is formatted when it is
+ * made, but only encoded and written if it is replayed.
+ * <p>
+ * Registered in {@code logback-spring.xml}.
+ */
+public class SampledRequestTurboFilter extends TurboFilter {
+
+    @Override
+    public FilterReply decide(Marker marker, Logger logger, Level level, String format, Object[] params, Throwable t) {
+        // isInfoEnabled() and friends call turbo filters without a message; they must stay true
+        // so that the guarded log call happens and can be held back.
+        if (format == null || level.isGreaterOrEqual(Level.WARN) || !level.isGreaterOrEqual(logger.getEffectiveLevel())) {
+            return FilterReply.NEUTRAL;
+        }
+        return RequestLogSampling.hold(marker, logger, level, format, params, t) ? FilterReply.DENY : FilterReply.NEUTRAL;
+    }
+}
@@ -4,6 +4,7 @@ import com.cosmicdoc.common.model.Cart;
 import com.cosmicdoc.common.model.CartItem;
 import com.lemicare.shoppingcart.dto.request.CartDto;
 import com.lemicare.shoppingcart.dto.request.CartItemDto;
+import com.lemicare.shoppingcart.pricing.MinorUnits;
 import org.springframework.stereotype.Component;
 
 import java.util.List;
@@ -34,6 +35,8 @@ public class CartMapper {
                 .status(cart.getStatus())
                 .totalItems(cart.getTotalItems())
                 .subtotalAmount(cart.getSubtotalAmount())
+                .subtotalMinorUnits(MinorUnits.fromMajor(cart.getSubtotalAmount()))
+                .currency(MinorUnits.CURRENCY)
                 .createdAt(cart.getCreatedAt())
                 .lastModifiedAt(cart.getLastModifiedAt())
                 .items(itemDtos)
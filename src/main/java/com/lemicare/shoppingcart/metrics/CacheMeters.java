@@ -0,0 +1,64 @@
+package com.lemicare.shoppingcart.metrics;
+
+import com.google.common.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.GuavaCacheMetrics;
+
+/**
+ * Publishes cache statistics under Micrometer's common {@code cache.*} names, tagged with the
+ * cache name, so every cache in the service appears on the same dashboards.
+ * <p>
+ * Guava caches are bound with {@link #monitor}; they must be built with
+ * {@code recordStats()}. Caches without their own statistics count lookups through a
+ * {@link Recorder}.
+ */
+public final class CacheMeters {
+
+    private CacheMeters() {
+    }
+
+    public static <C extends Cache<?, ?>> C monitor(MeterRegistry registry, C cache, String cacheName) {
+        return GuavaCacheMetrics.monitor(registry, cache, cacheName);
+    }
+
+    public static Recorder recorder(MeterRegistry registry, String cacheName) {
+        return new Recorder(
+                gets(registry, cacheName, "hit", "The number of times cache lookup methods have returned a cached value."),
+                gets(registry, cacheName, "miss", "The number of times cache lookup methods have returned an uncached value."));
+    }
+
+    private static Counter gets(MeterRegistry registry, String cacheName, String result, String description) {
+        return Counter.builder("cache.gets")
+                .tag("cache", cacheName)
+                .tag("result", result)
+                .description(description)
+                .register(registry);
+    }
+
+    /**
+     * Hit and miss counters for one cache.
+     */
+    public static final class Recorder {
+
+        private final Counter hits;
+        private final Counter misses;
+
+        private Recorder(Counter hits, Counter misses) {
+            this.hits = hits;
+            this.misses = misses;
+        }
+
+        public void hit() {
+            hits.increment();
+        }
+
+        public void miss() {
+            misses.increment();
+        }
+
+        public void record(boolean hit) {
+            (hit ? hits : misses).increment();
+        }
+    }
+}
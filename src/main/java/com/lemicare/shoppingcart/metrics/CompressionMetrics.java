@@ -0,0 +1,49 @@
+package com.lemicare.shoppingcart.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how many bytes compression saves, for responses we send ("server")
+ * and responses we receive from downstream services ("client").
+ */
+@Component
+public class CompressionMetrics {
+
+    private final Counter serverIdentityBytes;
+    private final Counter serverEncodedBytes;
+    private final Counter serverSavedBytes;
+    private final Counter clientIdentityBytes;
+    private final Counter clientEncodedBytes;
+    private final Counter clientSavedBytes;
+
+    public CompressionMetrics(MeterRegistry registry) {
+        this.serverIdentityBytes = bytes(registry, "cart.compression.identity.bytes", "server", "Uncompressed size of compressed responses");
+        this.serverEncodedBytes = bytes(registry, "cart.compression.encoded.bytes", "server", "Bytes sent on the wire for compressed responses");
+        this.serverSavedBytes = bytes(registry, "cart.compression.saved.bytes", "server", "Bytes saved by compressing responses");
+        this.clientIdentityBytes = bytes(registry, "cart.compression.identity.bytes", "client", "Decompressed size of downstream responses");
+        this.clientEncodedBytes = bytes(registry, "cart.compression.encoded.bytes", "client", "Bytes received on the wire for compressed downstream responses");
+        this.clientSavedBytes = bytes(registry, "cart.compression.saved.bytes", "client", "Bytes saved by compressed downstream responses");
+    }
+
+    public void recordServerResponse(long identityBytes, long encodedBytes) {
+        serverIdentityBytes.increment(identityBytes);
+        serverEncodedBytes.increment(encodedBytes);
+        serverSavedBytes.increment(Math.max(0, identityBytes - encodedBytes));
+    }
+
+    public void recordClientResponse(long identityBytes, long encodedBytes) {
+        clientIdentityBytes.increment(identityBytes);
+        clientEncodedBytes.increment(encodedBytes);
+        clientSavedBytes.increment(Math.max(0, identityBytes - encodedBytes));
+    }
+
+    private static Counter bytes(MeterRegistry registry, String name, String side, String description) {
+        return Counter.builder(name)
+                .baseUnit("bytes")
+                .tag("side", side)
+                .description(description)
+                .register(registry);
+    }
+}
@@ -0,0 +1,135 @@
+package com.lemicare.shoppingcart.metrics;
+
+import com.lemicare.shoppingcart.profiling.OperationTimings;
+import com.lemicare.shoppingcart.profiling.RequestLedger;
+import feign.Capability;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.RetryableException;
+import feign.Retryer;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Feign capability that times every attempt of every client method.
+ * <p>
+ * Attempts are recorded as {@code cart.client.requests}, tagged with the client, the method, the
+ * HTTP status (or {@code IO_ERROR}), the outcome and whether the attempt was a retry. Retries
+ * granted by the {@link Retryer} are counted in {@code cart.client.retries}, and
+ * {@code cart.client.inflight} tracks the attempts running per client.
+ * <p>
+ * Retries are detected per calling thread: Feign clones the retryer at the start of each
+ * invocation and runs every attempt of a synchronous call on the thread that made it.
+ */
+public class FeignClientMetrics implements Capability {
+
+    private static final ThreadLocal<int[]> RETRIES = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final MeterRegistry registry;
+    private final Map<String, InFlightGauge> inFlight = new ConcurrentHashMap<>();
+
+    public FeignClientMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Client enrich(Client client) {
+        return (request, options) -> execute(client, request, options);
+    }
+
+    @Override
+    public Retryer enrich(Retryer retryer) {
+        return new CountingRetryer(retryer);
+    }
+
+    private Response execute(Client client, Request request, Request.Options options) throws IOException {
+        String clientName = clientName(request.requestTemplate());
+        String method = methodName(request.requestTemplate());
+        boolean retry = RETRIES.get()[0] > 0;
+        InFlightGauge gauge = inFlight.computeIfAbsent(clientName,
+                key -> InFlightGauge.register(registry, "cart.client.inflight", Tags.of("client", key)));
+
+        String status = "IO_ERROR";
+        String outcome = "UNKNOWN";
+        long start = System.nanoTime();
+        try (InFlightGauge.Scope ignored = gauge.enter()) {
+            Response response = client.execute(request, options);
+            status = Integer.toString(response.status());
+            outcome = outcome(response.status());
+            return response;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            OperationTimings.recordDownstream(elapsed);
+            RequestLedger.recordDownstream(clientName, elapsed);
+            Timer.builder("cart.client.requests")
+                    .description("Feign client attempts")
+                    .tag("client", clientName)
+                    .tag("method", method)
+                    .tag("status", status)
+                    .tag("outcome", outcome)
+                    .tag("retry", Boolean.toString(retry))
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static String clientName(RequestTemplate template) {
+        return template.feignTarget() != null ? template.feignTarget().name() : "unknown";
+    }
+
+    private static String methodName(RequestTemplate template) {
+        return template.methodMetadata() != null ? template.methodMetadata().method().getName() : "unknown";
+    }
+
+    private static String outcome(int status) {
+        if (status >= 500) {
+            return "SERVER_ERROR";
+        }
+        if (status >= 400) {
+            return "CLIENT_ERROR";
+        }
+        if (status >= 300) {
+            return "REDIRECTION";
+        }
+        return status >= 200 ? "SUCCESS" : "INFORMATIONAL";
+    }
+
+    private final class CountingRetryer implements Retryer {
+
+        private final Retryer delegate;
+
+        private CountingRetryer(Retryer delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public void continueOrPropagate(RetryableException e) {
+            // Throws when the attempts are used up; only granted retries are counted.
+            delegate.continueOrPropagate(e);
+            RETRIES.get()[0]++;
+            RequestTemplate template = e.request() != null ? e.request().requestTemplate() : null;
+            Counter.builder("cart.client.retries")
+                    .description("Feign client retries")
+                    .tag("client", template != null ? clientName(template) : "unknown")
+                    .tag("method", template != null ? methodName(template) : "unknown")
+                    .register(registry)
+                    .increment();
+        }
+
+        @Override
+        public Retryer clone() {
+            // Called once at the start of every invocation.
+            RETRIES.get()[0] = 0;
+            return new CountingRetryer(delegate.clone());
+        }
+    }
+}
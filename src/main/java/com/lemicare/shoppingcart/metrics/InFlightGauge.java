@@ -0,0 +1,52 @@
+package com.lemicare.shoppingcart.metrics;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Gauge of the calls currently running through a code path. Each call is bracketed with
+ * {@link #enter()} and closing the returned scope:
+ * <pre>{@code
+ * try (InFlightGauge.Scope ignored = inFlight.enter()) {
+ *     ...
+ * }
+ * }</pre>
+ */
+public final class InFlightGauge {
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Scope scope = inFlight::decrementAndGet;
+
+    private InFlightGauge() {
+    }
+
+    public static InFlightGauge register(MeterRegistry registry, String name, Tags tags) {
+        InFlightGauge gauge = new InFlightGauge();
+        Gauge.builder(name, gauge.inFlight, AtomicInteger::get)
+                .tags(tags)
+                .description("Calls currently in flight")
+                .register(registry);
+        return gauge;
+    }
+
+    public Scope enter() {
+        inFlight.incrementAndGet();
+        return scope;
+    }
+
+    public int current() {
+        return inFlight.get();
+    }
+
+    /**
+     * Leaves the gauge when closed. Close it exactly once per {@link #enter()}.
+     */
+    @FunctionalInterface
+    public interface Scope extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,87 @@
+package com.lemicare.shoppingcart.metrics;
+
+import com.lemicare.shoppingcart.profiling.OperationTimings;
+import com.lemicare.shoppingcart.profiling.RequestLedger;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every public method of the Firestore stores as {@code cart.store.operations}, tagged with
+ * the store, the method and the outcome, and keeps a {@code cart.store.inflight} gauge per store.
+ * <p>
+ * Calls a store makes to itself are not proxied and so not timed separately. Transactions are
+ * timed as a whole, including their retries and the callback, but their Firestore time is booked
+ * by the store: the callback runs on the Firestore client's executor and may call other
+ * services, so only the transaction's own reads, begin and commit count as Firestore time, and
+ * queries the callback makes are counted once, by this aspect, on the executor thread. Each
+ * query also adds the documents it returned to the request's ledger; reads through a transaction
+ * are counted by the transaction runner instead.
+ */
+@Aspect
+@Component
+public class StoreMetricsAspect {
+
+    private final MeterRegistry registry;
+    private final Map<String, InFlightGauge> inFlight = new ConcurrentHashMap<>();
+
+    public StoreMetricsAspect(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Around("execution(public * com.lemicare.shoppingcart.storage.FirestoreCartStore.*(..))"
+            + " || execution(public * com.lemicare.shoppingcart.storage.FirestoreWishlistStore.*(..))")
+    public Object time(ProceedingJoinPoint joinPoint) throws Throwable {
+        String store = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        InFlightGauge gauge = inFlight.computeIfAbsent(store,
+                key -> InFlightGauge.register(registry, "cart.store.inflight", Tags.of("store", key)));
+
+        boolean transaction = "runInTransaction".equals(method);
+        String exception = "none";
+        long start = System.nanoTime();
+        try (InFlightGauge.Scope ignored = gauge.enter()) {
+            Object result = joinPoint.proceed();
+            if (!transaction) {
+                RequestLedger.recordDocumentsRead(documentsIn(result));
+            }
+            return result;
+        } catch (Throwable e) {
+            Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+            exception = cause.getClass().getSimpleName();
+            throw e;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            if (!transaction) {
+                OperationTimings.recordFirestore(elapsed);
+                RequestLedger.recordFirestore(elapsed);
+            }
+            Timer.builder("cart.store.operations")
+                    .description("Firestore store calls")
+                    .tag("store", store)
+                    .tag("method", method)
+                    .tag("outcome", "none".equals(exception) ? "success" : "error")
+                    .tag("exception", exception)
+                    .register(registry)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static int documentsIn(Object result) {
+        if (result instanceof Optional<?> optional) {
+            return optional.isPresent() ? 1 : 0;
+        }
+        return result instanceof Collection<?> collection ? collection.size() : 0;
+    }
+}
@@ -0,0 +1,39 @@
+package com.lemicare.shoppingcart.metrics;
+
+import com.lemicare.shoppingcart.filter.TenantFilter;
+import io.micrometer.common.KeyValue;
+import io.micrometer.common.KeyValues;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.observation.DefaultServerRequestObservationConvention;
+import org.springframework.http.server.observation.ServerRequestObservationContext;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Adds an {@code org} tag to the {@code http.server.requests} timers. The organization comes from
+ * the {@code orgId} path variable of the public cart endpoints, otherwise from the caller's token,
+ * and is bounded by {@link TenantTags}.
+ */
+public class TenantServerRequestObservationConvention extends DefaultServerRequestObservationConvention {
+
+    private final TenantTags tenantTags;
+
+    public TenantServerRequestObservationConvention(TenantTags tenantTags) {
+        this.tenantTags = tenantTags;
+    }
+
+    @Override
+    public KeyValues getLowCardinalityKeyValues(ServerRequestObservationContext context) {
+        return super.getLowCardinalityKeyValues(context)
+                .and(KeyValue.of("org", tenantTags.orgTag(orgId(context.getCarrier()))));
+    }
+
+    private static String orgId(HttpServletRequest request) {
+        Object variables = request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (variables instanceof Map<?, ?> map && map.get("orgId") instanceof String orgId) {
+            return orgId;
+        }
+        return (String) request.getAttribute(TenantFilter.ORG_ID_ATTRIBUTE);
+    }
+}
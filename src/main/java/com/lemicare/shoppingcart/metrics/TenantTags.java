@@ -0,0 +1,59 @@
+package com.lemicare.shoppingcart.metrics;
+
+import com.lemicare.shoppingcart.config.RateLimitProperties;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Turns organization ids into metric tag values without letting the number of time series grow
+ * with the number of tenants.
+ * <p>
+ * Only organizations known to be real get their own tag value: those listed in
+ * {@code app.metrics.tagged-orgs} or in the rate-limit tiers, and those seen in an authenticated
+ * token (see {@link #admit}). Ids that merely appear in a public URL are not trusted, so junk or
+ * scraped ids cannot take the slots. At most {@code app.metrics.max-org-tags} organizations are
+ * admitted; every other one is reported as {@value #OVERFLOW}.
+ */
+@Component
+public class TenantTags {
+
+    public static final String OVERFLOW = "other";
+    private static final String UNKNOWN = "unknown";
+
+    private final int maxOrgTags;
+    private final Set<String> taggedOrgs = ConcurrentHashMap.newKeySet();
+
+    public TenantTags(@Value("${app.metrics.max-org-tags:100}") int maxOrgTags,
+                      @Value("${app.metrics.tagged-orgs:}") List<String> configuredOrgs,
+                      ObjectProvider<RateLimitProperties> rateLimitProperties) {
+        this.maxOrgTags = maxOrgTags;
+        configuredOrgs.forEach(this::admit);
+        rateLimitProperties.ifAvailable(properties -> properties.getOrgTiers().keySet().forEach(this::admit));
+    }
+
+    /**
+     * Gives the organization its own tag value, if slots are left. Called for organizations taken
+     * from a verified token.
+     */
+    public void admit(String orgId) {
+        if (orgId == null || orgId.isBlank() || taggedOrgs.contains(orgId)) {
+            return;
+        }
+        // Racing threads may overshoot the limit by a few entries, which is harmless.
+        if (taggedOrgs.size() < maxOrgTags) {
+            taggedOrgs.add(orgId);
+        }
+    }
+
+    public String orgTag(String orgId) {
+        if (orgId == null || orgId.isBlank()) {
+            return UNKNOWN;
+        }
+        return taggedOrgs.contains(orgId) ? orgId : OVERFLOW;
+    }
+}
@@ -0,0 +1,46 @@
+package com.lemicare.shoppingcart.pricing;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+
+import java.util.List;
+
+/**
+ * Item count and subtotal of a cart, with the subtotal in minor units.
+ */
+public record CartTotals(int totalItems, long subtotalMinor) {
+
+    public static final CartTotals EMPTY = new CartTotals(0, 0);
+
+    /**
+     * Sums quantities and line totals in a single indexed pass over primitives; nothing is
+     * allocated besides the result.
+     */
+    public static CartTotals of(List<CartItem> items) {
+        int totalItems = 0;
+        long subtotal = 0;
+        for (int i = 0, n = items.size(); i < n; i++) {
+            CartItem item = items.get(i);
+            totalItems += item.getQuantity();
+            subtotal = Math.addExact(subtotal, MinorUnits.fromMajor(item.getItemTotalPrice()));
+        }
+        return new CartTotals(totalItems, subtotal);
+    }
+
+    /** Reads the denormalized totals stored on a cart. */
+    public static CartTotals of(Cart cart) {
+        return new CartTotals(cart.getTotalItems(), MinorUnits.fromMajor(cart.getSubtotalAmount()));
+    }
+
+    /** These totals with one line removed. */
+    public CartTotals minus(CartItem item) {
+        return new CartTotals(totalItems - item.getQuantity(),
+                subtotalMinor - MinorUnits.fromMajor(item.getItemTotalPrice()));
+    }
+
+    /** Writes the totals to the cart's stored fields. */
+    public void applyTo(Cart cart) {
+        cart.setTotalItems(totalItems);
+        cart.setSubtotalAmount(MinorUnits.toMajor(subtotalMinor));
+    }
+}
@@ -0,0 +1,23 @@
+package com.lemicare.shoppingcart.pricing;
+
+import com.cosmicdoc.common.model.CartItem;
+
+/**
+ * Prices cart lines in minor units.
+ */
+public final class LinePricing {
+
+    private LinePricing() {
+    }
+
+    /**
+     * Sets the line total from unit price and quantity, computed in minor units. The unit price
+     * is rounded to a whole minor unit first, so lines stored with a drifted price are corrected
+     * the next time they are written.
+     */
+    public static void price(CartItem item) {
+        long unitMinor = MinorUnits.fromMajor(item.getPriceAtAddToCart());
+        item.setPriceAtAddToCart(MinorUnits.toMajor(unitMinor));
+        item.setItemTotalPrice(MinorUnits.toMajor(MinorUnits.times(unitMinor, item.getQuantity())));
+    }
+}
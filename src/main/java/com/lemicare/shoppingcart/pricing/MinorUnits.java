@@ -0,0 +1,48 @@
+package com.lemicare.shoppingcart.pricing;
+
+/**
+ * Conversions between amounts in major units (rupees, as {@code double}) and long minor units
+ * (paise). Only used where amounts enter or leave the service: product prices from the
+ * storefront, the {@code double} fields of stored carts and items, and API responses.
+ * Everything in between is computed on exact {@code long} minor units.
+ */
+public final class MinorUnits {
+
+    /**
+     * Currency of every amount the service stores and returns. Carts, items and products carry
+     * no currency of their own, so this is the single place it is defined.
+     */
+    public static final String CURRENCY = "INR";
+
+    /** Minor units per major unit for the two-decimal currencies carts are priced in. */
+    static final long SCALE = 100;
+
+    private MinorUnits() {
+    }
+
+    /**
+     * Rounds a major-unit amount to the nearest minor unit. Amounts that were written with at
+     * most two decimals come back exactly, as do sums that drifted through {@code double}
+     * arithmetic (e.g. 0.1 + 0.2); this is how previously stored totals are migrated on read.
+     *
+     * @throws ArithmeticException if the amount is not finite or does not fit in a long.
+     */
+    public static long fromMajor(double amount) {
+        if (!Double.isFinite(amount) || Math.abs(amount) > Long.MAX_VALUE / (double) SCALE) {
+            throw new ArithmeticException("Amount out of range: " + amount);
+        }
+        return Math.round(amount * SCALE);
+    }
+
+    /** The {@code double} nearest to the exact decimal value of {@code minor} minor units. */
+    public static double toMajor(long minor) {
+        return minor / (double) SCALE;
+    }
+
+    /**
+     * @throws ArithmeticException on overflow rather than silently wrapping.
+     */
+    public static long times(long unitMinor, int quantity) {
+        return Math.multiplyExact(unitMinor, quantity);
+    }
+}
@@ -0,0 +1,45 @@
+package com.lemicare.shoppingcart.profiling;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records every public {@code CartService} call as a {@link CartOperationEvent}, with the
+ * Firestore time, downstream time and transaction attempts collected in its
+ * {@link OperationTimings}. Events are only committed while a recording has them enabled.
+ */
+@Aspect
+@Component
+public class CartOperationAspect {
+
+    @Around("execution(public * com.lemicare.shoppingcart.service.CartService.*(..))")
+    public Object record(ProceedingJoinPoint joinPoint) throws Throwable {
+        OperationTimings timings = OperationTimings.start();
+        if (timings == null) {
+            return joinPoint.proceed();
+        }
+        CartOperationEvent event = new CartOperationEvent();
+        event.begin();
+        String outcome = "error";
+        try {
+            Object result = joinPoint.proceed();
+            outcome = "success";
+            return result;
+        } finally {
+            OperationTimings.end();
+            event.end();
+            if (event.shouldCommit()) {
+                Object[] args = joinPoint.getArgs();
+                event.operation = joinPoint.getSignature().getName();
+                event.orgId = args.length > 0 && args[0] instanceof String orgId ? orgId : null;
+                event.outcome = outcome;
+                event.firestoreTime = timings.firestoreNanos();
+                event.downstreamTime = timings.downstreamNanos();
+                event.transactionAttempts = timings.transactionAttempts();
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.lemicare.shoppingcart.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one {@code CartService} operation. Its duration is the whole call;
+ * the Firestore and downstream times are the parts of it spent waiting on those services.
+ */
+@Name("com.lemicare.cart.Operation")
+@Label("Cart Operation")
+@Category({"Lemicare", "Cart"})
+@Description("A cart service operation with the time it spent in Firestore and downstream services")
+@StackTrace(false)
+class CartOperationEvent extends Event {
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Organization")
+    String orgId;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("Firestore Time")
+    @Timespan
+    long firestoreTime;
+
+    @Label("Downstream Time")
+    @Description("Time in Feign calls, summed over concurrent calls")
+    @Timespan
+    long downstreamTime;
+
+    @Label("Transaction Attempts")
+    int transactionAttempts;
+}
@@ -0,0 +1,65 @@
+package com.lemicare.shoppingcart.profiling;
+
+import com.lemicare.shoppingcart.config.FlightRecorderProperties;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Runs a continuous Flight Recorder session from start-up, bounded by age and size, and writes
+ * its most recent events to a file on demand.
+ */
+@Slf4j
+public class FlightRecorderService {
+
+    private final Recording recording;
+    private final Duration maxAge;
+
+    public FlightRecorderService(FlightRecorderProperties properties) throws IOException, ParseException {
+        this.maxAge = properties.getMaxAge();
+        this.recording = new Recording(Configuration.getConfiguration(properties.getSettings()));
+        recording.setName("cart-continuous");
+        recording.setToDisk(true);
+        recording.setMaxAge(properties.getMaxAge());
+        recording.setMaxSize(properties.getMaxSizeBytes());
+        recording.enable(CartOperationEvent.class).withThreshold(properties.getOperationThreshold());
+        recording.start();
+        log.info("Started continuous flight recording with '{}' settings, keeping {}.",
+                properties.getSettings(), properties.getMaxAge());
+    }
+
+    /**
+     * Writes the events of the last {@code window} (at most the recording's maximum age) to a new
+     * temporary file. The caller owns the file and must delete it.
+     */
+    public synchronized Path dump(Duration window) throws IOException {
+        Duration span = window.compareTo(maxAge) > 0 ? maxAge : window;
+        Instant cutoff = Instant.now().minus(span);
+        Path full = Files.createTempFile("cart-jfr-", ".jfr");
+        Path recent = Files.createTempFile("cart-jfr-recent-", ".jfr");
+        try {
+            recording.dump(full);
+            try (RecordingFile file = new RecordingFile(full)) {
+                file.write(recent, event -> !event.getEndTime().isBefore(cutoff));
+            }
+            return recent;
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(recent);
+            throw e;
+        } finally {
+            Files.deleteIfExists(full);
+        }
+    }
+
+    public void shutdown() {
+        recording.close();
+    }
+}
@@ -0,0 +1,72 @@
+package com.lemicare.shoppingcart.profiling;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.lang.Nullable;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * {@code GET /actuator/jfr?minutes=N} downloads the last N minutes of the continuous flight
+ * recording, ready to open in JDK Mission Control. Without {@code minutes} the configured default
+ * window is used; longer windows are cut to what the recording keeps.
+ */
+@Slf4j
+@WebEndpoint(id = "jfr")
+public class FlightRecordingEndpoint {
+
+    private final FlightRecorderService flightRecorderService;
+    private final Duration defaultWindow;
+
+    public FlightRecordingEndpoint(FlightRecorderService flightRecorderService, Duration defaultWindow) {
+        this.flightRecorderService = flightRecorderService;
+        this.defaultWindow = defaultWindow;
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> dump(@Nullable Integer minutes) {
+        if (minutes != null && minutes <= 0) {
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_BAD_REQUEST);
+        }
+        Duration window = minutes != null ? Duration.ofMinutes(minutes) : defaultWindow;
+        try {
+            return new WebEndpointResponse<>(new TemporaryFileResource(flightRecorderService.dump(window)));
+        } catch (IOException e) {
+            log.error("Failed to dump the flight recording: {}", e.getMessage(), e);
+            return new WebEndpointResponse<>(WebEndpointResponse.STATUS_INTERNAL_SERVER_ERROR);
+        }
+    }
+
+    /**
+     * Deletes the dump once the response has been streamed.
+     */
+    private static final class TemporaryFileResource extends FileSystemResource {
+
+        private TemporaryFileResource(Path file) {
+            super(file);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            return new FilterInputStream(super.getInputStream()) {
+                @Override
+                public void close() throws IOException {
+                    try {
+                        super.close();
+                    } finally {
+                        Files.deleteIfExists(getFile().toPath());
+                    }
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.lemicare.shoppingcart.profiling;
+
+import io.micrometer.context.ContextRegistry;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Time one cart operation spends in Firestore and in downstream services, and how many
+ * transaction attempts it made.
+ * <p>
+ * The operation's timings are bound to the thread running it and registered with the context
+ * registry, so tasks submitted through {@code ContextPropagation} add to the same instance from
+ * pool threads. The static {@code record*} methods do nothing outside an operation.
+ */
+public final class OperationTimings {
+
+    private static final ThreadLocal<OperationTimings> CURRENT = new ThreadLocal<>();
+
+    static {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(
+                OperationTimings.class.getName(), CURRENT::get, CURRENT::set, CURRENT::remove);
+    }
+
+    private final LongAdder firestoreNanos = new LongAdder();
+    private final LongAdder downstreamNanos = new LongAdder();
+    private final AtomicInteger transactionAttempts = new AtomicInteger();
+
+    private OperationTimings() {
+    }
+
+    /**
+     * Binds new timings to the current thread, or returns null when an operation is already
+     * running on it.
+     */
+    static OperationTimings start() {
+        if (CURRENT.get() != null) {
+            return null;
+        }
+        OperationTimings timings = new OperationTimings();
+        CURRENT.set(timings);
+        return timings;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    public static void recordFirestore(long nanos) {
+        OperationTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.firestoreNanos.add(nanos);
+        }
+    }
+
+    public static void recordDownstream(long nanos) {
+        OperationTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.downstreamNanos.add(nanos);
+        }
+    }
+
+    public static void recordTransactionAttempt() {
+        OperationTimings timings = CURRENT.get();
+        if (timings != null) {
+            timings.transactionAttempts.incrementAndGet();
+        }
+    }
+
+    long firestoreNanos() {
+        return firestoreNanos.sum();
+    }
+
+    long downstreamNanos() {
+        return downstreamNanos.sum();
+    }
+
+    int transactionAttempts() {
+        return transactionAttempts.get();
+    }
+}
@@ -0,0 +1,149 @@
+package com.lemicare.shoppingcart.profiling;
+
+import io.micrometer.context.ContextRegistry;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Where one HTTP request spent its time: Firestore, each downstream Feign client, transaction
+ * attempts, documents read and writing the response body.
+ * <p>
+ * Like {@link OperationTimings}, the ledger is bound to the request thread and registered with the
+ * context registry, so work fanned out through {@code ContextPropagation} adds to it as well; times
+ * recorded from several threads at once are summed and can exceed the request's own duration.
+ * The static {@code record*} methods do nothing outside a request.
+ */
+public final class RequestLedger {
+
+    public static final String SERVER_TIMING_HEADER = "Server-Timing";
+
+    private static final ThreadLocal<RequestLedger> CURRENT = new ThreadLocal<>();
+
+    static {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(
+                RequestLedger.class.getName(), CURRENT::get, CURRENT::set, CURRENT::remove);
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final LongAdder firestoreNanos = new LongAdder();
+    private final Map<String, LongAdder> downstreamNanos = new ConcurrentHashMap<>();
+    private final AtomicInteger transactionAttempts = new AtomicInteger();
+    private final LongAdder documentsRead = new LongAdder();
+    private final LongAdder serializationNanos = new LongAdder();
+
+    private RequestLedger() {
+    }
+
+    /**
+     * Binds a new ledger to the current thread.
+     */
+    public static RequestLedger start() {
+        RequestLedger ledger = new RequestLedger();
+        CURRENT.set(ledger);
+        return ledger;
+    }
+
+    public static void end() {
+        CURRENT.remove();
+    }
+
+    /**
+     * The ledger of the request running on this thread, or null.
+     */
+    public static RequestLedger current() {
+        return CURRENT.get();
+    }
+
+    public static void recordFirestore(long nanos) {
+        RequestLedger ledger = CURRENT.get();
+        if (ledger != null) {
+            ledger.firestoreNanos.add(nanos);
+        }
+    }
+
+    public static void recordDownstream(String client, long nanos) {
+        RequestLedger ledger = CURRENT.get();
+        if (ledger != null) {
+            ledger.downstreamNanos.computeIfAbsent(client, key -> new LongAdder()).add(nanos);
+        }
+    }
+
+    public static void recordTransactionAttempt() {
+        RequestLedger ledger = CURRENT.get();
+        if (ledger != null) {
+            ledger.transactionAttempts.incrementAndGet();
+        }
+    }
+
+    public static void recordDocumentsRead(int documents) {
+        RequestLedger ledger = CURRENT.get();
+        if (ledger != null && documents > 0) {
+            ledger.documentsRead.add(documents);
+        }
+    }
+
+    public static void recordSerialization(long nanos) {
+        RequestLedger ledger = CURRENT.get();
+        if (ledger != null) {
+            ledger.serializationNanos.add(nanos);
+        }
+    }
+
+    public long elapsedNanos() {
+        return System.nanoTime() - startNanos;
+    }
+
+    /**
+     * Formats the ledger as a {@code Server-Timing} header value, with durations in milliseconds.
+     */
+    public String serverTiming() {
+        StringBuilder header = new StringBuilder();
+        appendDuration(header, "firestore", firestoreNanos.sum());
+        downstreamNanos().forEach((client, nanos) -> appendDuration(header, "feign." + token(client), nanos));
+        appendDuration(header, "serialize", serializationNanos.sum());
+        header.append(", tx;desc=\"").append(transactionAttempts.get()).append(" attempts\"");
+        header.append(", docs;desc=\"").append(documentsRead.sum()).append(" read\"");
+        appendDuration(header, "total", elapsedNanos());
+        return header.toString();
+    }
+
+    /**
+     * Takes a snapshot of the ledger for a finished request.
+     */
+    public SlowRequest toSlowRequest(String method, String uri, String route, int status, String orgId, long durationNanos) {
+        Map<String, Double> downstream = new TreeMap<>();
+        downstreamNanos().forEach((client, nanos) -> downstream.put(client, millis(nanos)));
+        return new SlowRequest(Instant.now(), method, uri, route, status, orgId, millis(durationNanos),
+                millis(firestoreNanos.sum()), downstream, transactionAttempts.get(), documentsRead.sum(),
+                millis(serializationNanos.sum()));
+    }
+
+    private Map<String, Long> downstreamNanos() {
+        Map<String, Long> sums = new TreeMap<>();
+        downstreamNanos.forEach((client, nanos) -> sums.put(client, nanos.sum()));
+        return sums;
+    }
+
+    private static void appendDuration(StringBuilder header, String name, long nanos) {
+        if (!header.isEmpty()) {
+            header.append(", ");
+        }
+        header.append(name).append(";dur=").append(millis(nanos));
+    }
+
+    private static double millis(long nanos) {
+        return Math.round(nanos / 10_000.0) / 100.0;
+    }
+
+    /**
+     * Keeps only characters allowed in a header token.
+     */
+    private static String token(String name) {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+}
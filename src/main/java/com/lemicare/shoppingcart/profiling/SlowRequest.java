@@ -0,0 +1,17 @@
+package com.lemicare.shoppingcart.profiling;
+
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * A request that took longer than the slow-request threshold, with the breakdown from its
+ * {@link RequestLedger}. Times are in milliseconds.
+ *
+ * @param route      The matched handler pattern, or null when no handler matched.
+ * @param orgId      The caller's organization, when the request carried a token.
+ * @param downstream Time spent in each Feign client, by client name.
+ */
+public record SlowRequest(Instant finishedAt, String method, String uri, String route, int status, String orgId,
+                          double durationMillis, double firestoreMillis, Map<String, Double> downstream,
+                          int transactionAttempts, long documentsRead, double serializationMillis) {
+}
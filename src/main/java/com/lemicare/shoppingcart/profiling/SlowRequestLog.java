@@ -0,0 +1,51 @@
+package com.lemicare.shoppingcart.profiling;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-size ring of the most recent slow requests. Adding never blocks; once full, each new
+ * request overwrites the oldest.
+ */
+public class SlowRequestLog {
+
+    private final AtomicReferenceArray<SlowRequest> slots;
+    private final AtomicLong next = new AtomicLong();
+
+    public SlowRequestLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive: " + capacity);
+        }
+        this.slots = new AtomicReferenceArray<>(capacity);
+    }
+
+    public void add(SlowRequest request) {
+        slots.set((int) (next.getAndIncrement() % slots.length()), request);
+    }
+
+    /**
+     * The retained requests, slowest first.
+     *
+     * @param limit At most this many are returned.
+     */
+    public List<SlowRequest> slowest(int limit) {
+        List<SlowRequest> requests = new ArrayList<>(slots.length());
+        for (int i = 0; i < slots.length(); i++) {
+            SlowRequest request = slots.get(i);
+            if (request != null) {
+                requests.add(request);
+            }
+        }
+        requests.sort(Comparator.comparingDouble(SlowRequest::durationMillis).reversed());
+        return requests.size() > limit ? List.copyOf(requests.subList(0, limit)) : requests;
+    }
+
+    public void clear() {
+        for (int i = 0; i < slots.length(); i++) {
+            slots.set(i, null);
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.lemicare.shoppingcart.profiling;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+
+import java.util.List;
+
+/**
+ * {@code GET /actuator/slowrequests?limit=N} lists the retained slow requests, slowest first, with
+ * where each spent its time. {@code DELETE} empties the list.
+ */
+@Endpoint(id = "slowrequests")
+public class SlowRequestsEndpoint {
+
+    private final SlowRequestLog slowRequestLog;
+
+    public SlowRequestsEndpoint(SlowRequestLog slowRequestLog) {
+        this.slowRequestLog = slowRequestLog;
+    }
+
+    @ReadOperation
+    public List<SlowRequest> slowest(@Nullable Integer limit) {
+        return slowRequestLog.slowest(limit != null && limit > 0 ? limit : Integer.MAX_VALUE);
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowRequestLog.clear();
+    }
+}
@@ -0,0 +1,45 @@
+package com.lemicare.shoppingcart.profiling;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+
+/**
+ * Jackson converter that adds the time spent writing JSON bodies to the {@link RequestLedger}.
+ * <p>
+ * The time covers serialization and handing the bytes to the response stream, including any
+ * compression in front of it. When {@code serverTiming} is set, the ledger so far is sent as a
+ * {@code Server-Timing} header, since the headers go out with the first body bytes.
+ */
+public class TimedJacksonHttpMessageConverter extends MappingJackson2HttpMessageConverter {
+
+    private final boolean serverTiming;
+
+    public TimedJacksonHttpMessageConverter(ObjectMapper objectMapper, boolean serverTiming) {
+        super(objectMapper);
+        this.serverTiming = serverTiming;
+    }
+
+    @Override
+    protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+            throws IOException, HttpMessageNotWritableException {
+        RequestLedger ledger = RequestLedger.current();
+        if (ledger == null) {
+            super.writeInternal(object, type, outputMessage);
+            return;
+        }
+        if (serverTiming) {
+            outputMessage.getHeaders().set(RequestLedger.SERVER_TIMING_HEADER, ledger.serverTiming());
+        }
+        long start = System.nanoTime();
+        try {
+            super.writeInternal(object, type, outputMessage);
+        } finally {
+            RequestLedger.recordSerialization(System.nanoTime() - start);
+        }
+    }
+}
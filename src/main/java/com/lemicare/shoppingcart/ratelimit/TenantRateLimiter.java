@@ -0,0 +1,187 @@
+package com.lemicare.shoppingcart.ratelimit;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.lemicare.shoppingcart.config.RateLimitProperties;
+import com.lemicare.shoppingcart.metrics.TenantTags;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Admits or rejects requests against per-organization and per-shopper limits.
+ * <p>
+ * Buckets and in-progress counters are created on first use and dropped when idle; all checks
+ * are lock-free. Rejections are counted in {@code cart.ratelimit.rejected}, tagged with the
+ * organization (bounded by {@link TenantTags}), its tier and the limit that was hit.
+ */
+public class TenantRateLimiter {
+
+    private final RateLimitProperties properties;
+    private final Cache<String, Tenant> tenants;
+    private final Cache<String, TokenBucket> shoppers;
+    private final MeterRegistry registry;
+    private final TenantTags tenantTags;
+
+    public TenantRateLimiter(RateLimitProperties properties, MeterRegistry registry, TenantTags tenantTags) {
+        this.properties = properties;
+        this.registry = registry;
+        this.tenantTags = tenantTags;
+        this.tenants = CacheBuilder.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+        this.shoppers = CacheBuilder.newBuilder()
+                .maximumSize(properties.getMaxTrackedKeys())
+                .expireAfterAccess(properties.getIdleExpiry())
+                .build();
+        registry.gauge("cart.ratelimit.tracked", shoppers, Cache::size);
+    }
+
+    /**
+     * Checks the shopper's and then the organization's limits. When admitted, the caller must
+     * call {@link Admission#release()} once the request is done.
+     *
+     * @param orgId   the organization, or null when the request names none.
+     * @param shopper the guest id, user id or client address.
+     */
+    public Admission tryAdmit(String orgId, String shopper) {
+        long now = System.nanoTime();
+        String tenantKey = orgId != null ? orgId : "";
+        long wait = bucket(tenantKey + '\u0000' + shopper).tryAcquire(now);
+        if (wait > 0) {
+            return reject(orgId, tierOf(orgId), "shopper", wait);
+        }
+        if (orgId == null) {
+            return Admission.ADMITTED;
+        }
+
+        Tenant tenant = tenant(orgId);
+        wait = tenant.bucket.tryAcquire(now);
+        if (wait > 0) {
+            return reject(orgId, tenant.tier, "org", wait);
+        }
+        if (!tenant.tryEnter()) {
+            // Nothing predicts when a slot frees up; ask the client to come back shortly.
+            return reject(orgId, tenant.tier, "concurrency", TimeUnit.SECONDS.toNanos(1));
+        }
+        return new Admission(true, 0, tenant);
+    }
+
+    private TokenBucket bucket(String key) {
+        try {
+            return shoppers.get(key, () -> {
+                RateLimitProperties.Limits limits = properties.getShopper();
+                return new TokenBucket(limits.getRequestsPerSecond(), limits.getBurst(), System.nanoTime());
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private Tenant tenant(String orgId) {
+        try {
+            return tenants.get(orgId, () -> {
+                String tier = tierOf(orgId);
+                RateLimitProperties.Limits limits = properties.getTiers().get(tier);
+                if (limits == null) {
+                    throw new IllegalStateException("No limits configured for rate-limit tier '" + tier + "'.");
+                }
+                return new Tenant(tier, limits);
+            });
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private String tierOf(String orgId) {
+        return orgId != null ? properties.getOrgTiers().getOrDefault(orgId, properties.getDefaultTier()) : "none";
+    }
+
+    private Admission reject(String orgId, String tier, String limit, long waitNanos) {
+        Counter.builder("cart.ratelimit.rejected")
+                .description("Requests rejected by rate limiting")
+                .tag("org", tenantTags.orgTag(orgId))
+                .tag("tier", tier)
+                .tag("limit", limit)
+                .register(registry)
+                .increment();
+        return new Admission(false, waitNanos, null);
+    }
+
+    /**
+     * Outcome of {@link #tryAdmit}.
+     */
+    public static final class Admission {
+
+        static final Admission ADMITTED = new Admission(true, 0, null);
+
+        private final boolean admitted;
+        private final long retryAfterNanos;
+        private final Tenant tenant;
+
+        private Admission(boolean admitted, long retryAfterNanos, Tenant tenant) {
+            this.admitted = admitted;
+            this.retryAfterNanos = retryAfterNanos;
+            this.tenant = tenant;
+        }
+
+        public boolean admitted() {
+            return admitted;
+        }
+
+        /**
+         * Whole seconds to put in {@code Retry-After}, at least one.
+         */
+        public long retryAfterSeconds() {
+            return Math.max(1, (retryAfterNanos + 999_999_999L) / 1_000_000_000L);
+        }
+
+        /**
+         * Frees the organization's in-progress slot taken by this admission.
+         */
+        public void release() {
+            if (tenant != null) {
+                tenant.exit();
+            }
+        }
+    }
+
+    private static final class Tenant {
+
+        private final String tier;
+        private final TokenBucket bucket;
+        private final int maxConcurrent;
+        private final AtomicInteger inProgress = new AtomicInteger();
+
+        private Tenant(String tier, RateLimitProperties.Limits limits) {
+            this.tier = tier;
+            this.bucket = new TokenBucket(limits.getRequestsPerSecond(), limits.getBurst(), System.nanoTime());
+            this.maxConcurrent = limits.getMaxConcurrent();
+        }
+
+        private boolean tryEnter() {
+            if (maxConcurrent <= 0) {
+                return true;
+            }
+            while (true) {
+                int current = inProgress.get();
+                if (current >= maxConcurrent) {
+                    return false;
+                }
+                if (inProgress.compareAndSet(current, current + 1)) {
+                    return true;
+                }
+            }
+        }
+
+        private void exit() {
+            if (maxConcurrent > 0) {
+                inProgress.decrementAndGet();
+            }
+        }
+    }
+}
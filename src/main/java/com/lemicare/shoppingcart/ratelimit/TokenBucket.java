@@ -0,0 +1,46 @@
+package com.lemicare.shoppingcart.ratelimit;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket: {@code permitsPerSecond} refill rate and room for {@code burst} permits.
+ * <p>
+ * Implemented as the equivalent generic cell rate algorithm, so the whole state is one
+ * {@link AtomicLong}, the theoretical arrival time of the next permit, advanced by compare-and-set.
+ * A request is admitted while that time is no further ahead of now than the burst allows.
+ * Times are {@link System#nanoTime()} values.
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalNanos;
+
+    public TokenBucket(double permitsPerSecond, int burst, long nowNanos) {
+        if (permitsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate and burst must be positive: " + permitsPerSecond + ", " + burst);
+        }
+        this.emissionIntervalNanos = Math.max(1, (long) (1_000_000_000L / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (burst - 1);
+        this.theoreticalArrivalNanos = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Takes one permit if available.
+     *
+     * @return 0 when a permit was taken, otherwise how many nanoseconds until one is available.
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long arrival = theoreticalArrivalNanos.get();
+            long base = arrival - nowNanos > 0 ? arrival : nowNanos;
+            long ahead = base - nowNanos;
+            if (ahead > burstToleranceNanos) {
+                return ahead - burstToleranceNanos;
+            }
+            if (theoreticalArrivalNanos.compareAndSet(arrival, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.lemicare.shoppingcart.service;
+
+import com.cosmicdoc.common.model.Cart;
+import com.lemicare.shoppingcart.config.CartEventProperties;
+import com.lemicare.shoppingcart.dto.response.CartSummary;
+import com.lemicare.shoppingcart.exception.TooManySubscriptionsException;
+import com.lemicare.shoppingcart.storage.CartChangeListener;
+import com.lemicare.shoppingcart.storage.CartStore;
+import com.lemicare.shoppingcart.storage.CartWatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArraySet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams cart changes to storefront pages as server-sent events.
+ * <p>
+ * All streams of one owner (user or guest of an organization) share a single store watch on the
+ * owner's active cart; each change is turned into a {@link CartSummary} once and fanned out to
+ * every subscriber on a small executor. The summary version is derived from the cart's
+ * last-modified time and sent as the event id, so a reconnecting EventSource that presents
+ * {@code Last-Event-ID} only receives the current state if it changed meanwhile. Idle streams get
+ * a heartbeat comment, and the number of streams is capped per owner and per instance.
+ */
+@Slf4j
+public class CartEventHub {
+
+    static final String EVENT_NAME = "cart";
+
+    private final CartStore cartStore;
+    private final CartEventProperties properties;
+    private final ExecutorService fanOut;
+    private final Map<String, OwnerChannel> channels = new ConcurrentHashMap<>();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter eventsSent;
+    private final Counter rejected;
+
+    public CartEventHub(CartStore cartStore, CartEventProperties properties, MeterRegistry registry) {
+        this.cartStore = cartStore;
+        this.properties = properties;
+        this.fanOut = Executors.newFixedThreadPool(properties.getFanOutThreads(), new CustomizableThreadFactory("cart-events-"));
+        this.eventsSent = Counter.builder("cart.events.sent").register(registry);
+        this.rejected = Counter.builder("cart.events.rejected").register(registry);
+        Gauge.builder("cart.events.connections", connections, AtomicInteger::get).register(registry);
+        Gauge.builder("cart.events.watches", channels, Map::size).register(registry);
+    }
+
+    /**
+     * Opens a stream for the owner's cart.
+     *
+     * @param lastEventId Version the client already has (from {@code Last-Event-ID}), or null.
+     * @throws TooManySubscriptionsException when the owner or the instance is at its stream limit.
+     */
+    public SseEmitter subscribe(String orgId, String userId, String guestId, String lastEventId) {
+        if (connections.incrementAndGet() > properties.getMaxConnections()) {
+            connections.decrementAndGet();
+            rejected.increment();
+            throw new TooManySubscriptionsException("Too many open cart streams on this instance.");
+        }
+        Subscriber subscriber = new Subscriber(new SseEmitter(properties.getStreamTimeout().toMillis()), parseVersion(lastEventId));
+        String key = ownerKey(orgId, userId, guestId);
+
+        OwnerChannel[] joined = new OwnerChannel[1];
+        boolean[] full = new boolean[1];
+        channels.compute(key, (k, channel) -> {
+            if (channel == null) {
+                channel = new OwnerChannel(k);
+            } else if (channel.subscribers.size() >= properties.getMaxConnectionsPerOwner()) {
+                full[0] = true;
+                return channel;
+            }
+            channel.subscribers.add(subscriber);
+            joined[0] = channel;
+            return channel;
+        });
+        if (full[0]) {
+            connections.decrementAndGet();
+            rejected.increment();
+            throw new TooManySubscriptionsException("Too many open cart streams for this shopper.");
+        }
+
+        OwnerChannel channel = joined[0];
+        Runnable leave = () -> leave(channel, subscriber);
+        subscriber.emitter.onCompletion(leave);
+        subscriber.emitter.onTimeout(leave);
+        subscriber.emitter.onError(error -> leave.run());
+
+        if (channel.watch == null) {
+            channel.startWatch(orgId, userId, guestId);
+        } else {
+            CartSummary latest = channel.latest;
+            if (latest != null) {
+                fanOut.execute(() -> send(channel, subscriber, latest));
+            }
+        }
+        return subscriber.emitter;
+    }
+
+    /**
+     * Sends a comment line to every open stream so proxies and load balancers keep it open.
+     */
+    @Scheduled(fixedRateString = "${app.cart-events.heartbeat-interval:PT15S}")
+    public void heartbeat() {
+        for (OwnerChannel channel : channels.values()) {
+            for (Subscriber subscriber : channel.subscribers) {
+                fanOut.execute(() -> {
+                    try {
+                        subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+                    } catch (IOException | IllegalStateException e) {
+                        subscriber.emitter.completeWithError(e);
+                    }
+                });
+            }
+        }
+    }
+
+    public void shutdown() throws InterruptedException {
+        channels.values().forEach(channel -> channel.subscribers.forEach(subscriber -> subscriber.emitter.complete()));
+        fanOut.shutdown();
+        fanOut.awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    private void leave(OwnerChannel channel, Subscriber subscriber) {
+        if (!channel.subscribers.remove(subscriber)) {
+            return;
+        }
+        connections.decrementAndGet();
+        channels.computeIfPresent(channel.key, (k, current) -> {
+            if (current == channel && current.subscribers.isEmpty()) {
+                current.stopWatch();
+                return null;
+            }
+            return current;
+        });
+    }
+
+    private void send(OwnerChannel channel, Subscriber subscriber, CartSummary summary) {
+        synchronized (subscriber) {
+            if (summary.getVersion() <= subscriber.lastVersion) {
+                return;
+            }
+            try {
+                subscriber.emitter.send(SseEmitter.event()
+                        .id(Long.toString(summary.getVersion()))
+                        .name(EVENT_NAME)
+                        .data(summary, MediaType.APPLICATION_JSON));
+                subscriber.lastVersion = summary.getVersion();
+                eventsSent.increment();
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping cart event subscriber of {}: {}", channel.key, e.getMessage());
+                subscriber.emitter.completeWithError(e);
+            }
+        }
+    }
+
+    private static CartSummary toSummary(Optional<Cart> cart, CartSummary previous) {
+        if (cart.isEmpty()) {
+            // No active cart (cleared or merged): one step past the last version seen.
+            long version = previous != null ? previous.getVersion() + 1 : 0;
+            return CartSummary.builder().totalItems(0).subtotalAmount(0.0).version(version).build();
+        }
+        CartSummary summary = CartSummaryService.toSummary(cart.get());
+        if (previous != null && summary.getVersion() <= previous.getVersion()) {
+            summary.setVersion(previous.getVersion() + 1);
+        }
+        return summary;
+    }
+
+    private static long parseVersion(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static String ownerKey(String orgId, String userId, String guestId) {
+        return userId != null ? orgId + "|u|" + userId : orgId + "|g|" + guestId;
+    }
+
+    private static final class Subscriber {
+        private final SseEmitter emitter;
+        private long lastVersion;
+
+        private Subscriber(SseEmitter emitter, long lastVersion) {
+            this.emitter = emitter;
+            this.lastVersion = lastVersion;
+        }
+    }
+
+    /**
+     * Subscribers of one owner and the single watch feeding them.
+     */
+    private final class OwnerChannel implements CartChangeListener {
+        private final String key;
+        private final Set<Subscriber> subscribers = new CopyOnWriteArraySet<>();
+        private volatile CartWatch watch;
+        private volatile CartSummary latest;
+        private volatile boolean stopped;
+
+        private OwnerChannel(String key) {
+            this.key = key;
+        }
+
+        private synchronized void startWatch(String orgId, String userId, String guestId) {
+            if (watch == null && !stopped) {
+                watch = cartStore.watchActiveCart(orgId, userId, guestId, this);
+            }
+        }
+
+        private synchronized void stopWatch() {
+            stopped = true;
+            if (watch != null) {
+                watch.cancel();
+            }
+        }
+
+        @Override
+        public void onChange(Optional<Cart> activeCart) {
+            CartSummary summary = toSummary(activeCart, latest);
+            latest = summary;
+            for (Subscriber subscriber : subscribers) {
+                fanOut.execute(() -> send(this, subscriber, summary));
+            }
+        }
+
+        @Override
+        public void onError(Throwable error) {
+            log.warn("Cart watch for {} failed: {}", key, error.getMessage());
+            // Closing the streams makes the browsers reconnect, which starts a fresh watch.
+            subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.lemicare.shoppingcart.service;
+
+import com.cosmicdoc.common.model.Cart;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.google.cloud.Timestamp;
+import com.lemicare.shoppingcart.config.CartExportProperties;
+import com.lemicare.shoppingcart.exception.ExportCapacityException;
+import com.lemicare.shoppingcart.mapper.CartMapper;
+import com.lemicare.shoppingcart.storage.CartRange;
+import com.lemicare.shoppingcart.storage.CartSnapshot;
+import com.lemicare.shoppingcart.storage.CartStore;
+import com.lemicare.shoppingcart.tracing.ContextPropagation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams all carts of an organization, with their items, as NDJSON (one cart per line).
+ * <p>
+ * Cart ids are random UUIDs, so the id space is split into equal hex-prefix ranges that are read
+ * in parallel, each with its own id cursor. Readers hand pages to the response writer through a
+ * bounded queue and block while it is full, so a slow client slows the reads down instead of
+ * letting pages pile up on the heap. The status filter runs in the query; the time filter on
+ * {@code lastModifiedAt} is applied while writing, which avoids a composite index per filter
+ * combination.
+ */
+@Slf4j
+public class CartExportService {
+
+    private static final String HEX = "0123456789abcdef";
+
+    private final CartStore cartStore;
+    private final CartMapper cartMapper;
+    private final CartExportProperties properties;
+    private final ObjectWriter lineWriter;
+    private final ExecutorService readers;
+    private final Semaphore exportSlots;
+    private final Counter cartsExported;
+    private final Timer exportTimer;
+
+    public CartExportService(CartStore cartStore, CartMapper cartMapper, ObjectMapper objectMapper,
+                             CartExportProperties properties, MeterRegistry registry) {
+        this.cartStore = cartStore;
+        this.cartMapper = cartMapper;
+        this.properties = properties;
+        this.lineWriter = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.readers = ContextPropagation.wrap(Executors.newFixedThreadPool(
+                properties.getPartitions() * properties.getMaxConcurrentExports(),
+                new CustomizableThreadFactory("cart-export-")));
+        this.exportSlots = new Semaphore(properties.getMaxConcurrentExports());
+        this.cartsExported = Counter.builder("cart.export.carts").register(registry);
+        this.exportTimer = Timer.builder("cart.export.duration").register(registry);
+    }
+
+    /**
+     * Filter of an export; null fields do not filter.
+     */
+    public record ExportFilter(String status, Instant modifiedFrom, Instant modifiedTo) {
+    }
+
+    /**
+     * Reserves an export slot; call before committing the response so a busy instance can
+     * still answer with an error status.
+     *
+     * @throws ExportCapacityException when the instance is already running its maximum of exports.
+     */
+    public void reserveSlot() {
+        if (!exportSlots.tryAcquire()) {
+            throw new ExportCapacityException("Too many cart exports in progress; try again later.");
+        }
+    }
+
+    /**
+     * Writes the export to {@code out} and releases the slot taken with {@link #reserveSlot()}.
+     *
+     * @return the number of carts written.
+     */
+    public long export(String orgId, ExportFilter filter, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        BlockingQueue<Page> queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+        List<Future<?>> tasks = new ArrayList<>();
+        long written = 0;
+        try {
+            List<CartRange> ranges = ranges(properties.getPartitions());
+            for (CartRange range : ranges) {
+                tasks.add(readers.submit(() -> readRange(orgId, filter.status(), range, queue)));
+            }
+
+            int finished = 0;
+            while (finished < ranges.size()) {
+                Page page = queue.take();
+                if (page.error != null) {
+                    throw new IOException("Cart export failed while reading", page.error);
+                }
+                if (page.carts == null) {
+                    finished++;
+                    continue;
+                }
+                int pageWritten = 0;
+                for (CartSnapshot snapshot : page.carts) {
+                    if (matches(snapshot.cart(), filter)) {
+                        lineWriter.writeValue(out, cartMapper.toDto(snapshot.cart(), snapshot.items()));
+                        out.write('\n');
+                        pageWritten++;
+                    }
+                }
+                out.flush();
+                // Counted once the page reached the stream, so failed exports do not inflate it.
+                written += pageWritten;
+                cartsExported.increment(pageWritten);
+            }
+            log.info("Exported {} carts of orgId {} in {} ms.", written, orgId,
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+            return written;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Cart export interrupted");
+        } finally {
+            // Stops readers that are still running, e.g. after the client went away.
+            tasks.forEach(task -> task.cancel(true));
+            exportSlots.release();
+            exportTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void shutdown() {
+        readers.shutdownNow();
+    }
+
+    private void readRange(String orgId, String status, CartRange range, BlockingQueue<Page> queue) {
+        try {
+            String after = null;
+            while (true) {
+                List<CartSnapshot> carts = cartStore.scanCarts(orgId, status, range, after, properties.getPageSize());
+                if (!carts.isEmpty()) {
+                    queue.put(new Page(carts, null));
+                    after = carts.get(carts.size() - 1).cart().getCartId();
+                }
+                if (carts.size() < properties.getPageSize()) {
+                    queue.put(new Page(null, null));
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // The writer stops at the first error; offer() so a cancelled export cannot block here.
+            queue.offer(new Page(null, e));
+        }
+    }
+
+    private static boolean matches(Cart cart, ExportFilter filter) {
+        Timestamp modified = cart.getLastModifiedAt();
+        if (filter.modifiedFrom() == null && filter.modifiedTo() == null) {
+            return true;
+        }
+        if (modified == null) {
+            return false;
+        }
+        Instant at = Instant.ofEpochSecond(modified.getSeconds(), modified.getNanos());
+        return (filter.modifiedFrom() == null || !at.isBefore(filter.modifiedFrom()))
+                && (filter.modifiedTo() == null || at.isBefore(filter.modifiedTo()));
+    }
+
+    /**
+     * Equal hex-prefix ranges covering the whole id space; the first and last are open-ended so
+     * ids of any shape are still exported exactly once.
+     */
+    static List<CartRange> ranges(int partitions) {
+        int count = Integer.highestOneBit(Math.max(1, Math.min(partitions, HEX.length())));
+        int step = HEX.length() / count;
+        List<CartRange> ranges = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String from = i == 0 ? null : String.valueOf(HEX.charAt(i * step));
+            String to = i == count - 1 ? null : String.valueOf(HEX.charAt((i + 1) * step));
+            ranges.add(new CartRange(from, to));
+        }
+        return ranges;
+    }
+
+    /** A page of carts, the end of one range (carts == null), or a read failure. */
+    private record Page(List<CartSnapshot> carts, Exception error) {
+    }
+}
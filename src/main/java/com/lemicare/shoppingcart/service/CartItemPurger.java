@@ -0,0 +1,130 @@
+package com.lemicare.shoppingcart.service;
+
+import com.lemicare.shoppingcart.config.CartClearProperties;
+import com.lemicare.shoppingcart.storage.CartStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Deletes the items of cleared carts in the background.
+ * <p>
+ * Clearing only flips the cart to CLEARED in a small transaction; the items, which may be far
+ * more than one transaction can write, are handed to this purger and deleted by the store's
+ * throttled bulk delete. Progress of in-flight purges can be inspected with {@link #progress}.
+ * A cart whose purge fails or cannot be queued keeps its items until the cart reaper deletes
+ * the cleared cart, so nothing is leaked permanently.
+ */
+@Slf4j
+public class CartItemPurger {
+
+    private final CartStore cartStore;
+    private final CartClearProperties properties;
+    private final ThreadPoolExecutor executor;
+    private final Map<String, Purge> inFlight = new ConcurrentHashMap<>();
+    private final Counter itemsDeleted;
+    private final Counter failures;
+    private final Timer purgeTimer;
+
+    public CartItemPurger(CartStore cartStore, CartClearProperties properties, MeterRegistry registry) {
+        this.cartStore = cartStore;
+        this.properties = properties;
+        this.executor = new ThreadPoolExecutor(properties.getPurgeThreads(), properties.getPurgeThreads(),
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(properties.getQueueCapacity()),
+                new CustomizableThreadFactory("cart-purge-"));
+        this.itemsDeleted = Counter.builder("cart.clear.items.deleted").register(registry);
+        this.failures = Counter.builder("cart.clear.purge.failures").register(registry);
+        this.purgeTimer = Timer.builder("cart.clear.purge.duration").register(registry);
+        Gauge.builder("cart.clear.purges.pending", inFlight, Map::size).register(registry);
+    }
+
+    /**
+     * Progress of a cart's purge; a purge that already finished is not tracked any more.
+     */
+    public record PurgeProgress(String cartId, Instant queuedAt, Instant startedAt, long itemsDeleted) {
+    }
+
+    /**
+     * Queues the deletion of all items of an already cleared cart and returns immediately.
+     */
+    public void submit(String cartId) {
+        Purge purge = new Purge(cartId);
+        if (inFlight.putIfAbsent(cartId, purge) != null) {
+            return;
+        }
+        try {
+            executor.execute(() -> run(purge));
+        } catch (RejectedExecutionException e) {
+            inFlight.remove(cartId);
+            failures.increment();
+            log.warn("Purge queue full; items of cleared cart {} are left for the cart reaper.", cartId);
+        }
+    }
+
+    public Optional<PurgeProgress> progress(String cartId) {
+        Purge purge = inFlight.get(cartId);
+        return purge == null ? Optional.empty()
+                : Optional.of(new PurgeProgress(cartId, purge.queuedAt, purge.startedAt, purge.deleted.get()));
+    }
+
+    private void run(Purge purge) {
+        purge.startedAt = Instant.now();
+        long startNanos = System.nanoTime();
+        try {
+            long deleted = cartStore.purgeItems(purge.cartId, properties.getMaxDeletesPerSecond(), count -> {
+                purge.deleted.set(count);
+                itemsDeleted.increment();
+            });
+            log.info("Purged {} items of cleared cart {} in {} ms.", deleted, purge.cartId,
+                    Duration.ofNanos(System.nanoTime() - startNanos).toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            failures.increment();
+            log.warn("Purge of cleared cart {} interrupted after {} items.", purge.cartId, purge.deleted.get());
+        } catch (ExecutionException | RuntimeException e) {
+            failures.increment();
+            log.error("Purge of cleared cart {} failed after {} items; the rest is left for the cart reaper.",
+                    purge.cartId, purge.deleted.get(), e);
+        } finally {
+            purgeTimer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+            inFlight.remove(purge.cartId);
+        }
+    }
+
+    /**
+     * Stops accepting purges and lets queued ones finish for a short while on shutdown.
+     */
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("{} cart purges still pending at shutdown; left for the cart reaper.", inFlight.size());
+            executor.shutdownNow();
+        }
+    }
+
+    private static final class Purge {
+        private final String cartId;
+        private final Instant queuedAt = Instant.now();
+        private volatile Instant startedAt;
+        private final AtomicLong deleted = new AtomicLong();
+
+        private Purge(String cartId) {
+            this.cartId = cartId;
+        }
+    }
+}
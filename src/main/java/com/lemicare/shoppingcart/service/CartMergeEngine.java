@@ -0,0 +1,76 @@
+package com.lemicare.shoppingcart.service;
+
+import com.cosmicdoc.common.model.CartItem;
+import com.google.cloud.Timestamp;
+import com.lemicare.shoppingcart.pricing.CartTotals;
+import com.lemicare.shoppingcart.pricing.LinePricing;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Merges the lines of a guest cart into a user cart in memory.
+ * <p>
+ * User lines are indexed by productId once, so each guest line is matched with a single hash
+ * lookup and the merge is linear in the size of both carts. Totals are computed from the merged
+ * lines, not re-queried, so they include every write the caller is about to commit.
+ */
+@Component
+public class CartMergeEngine {
+
+    /**
+     * Outcome of a merge.
+     *
+     * @param lines       every line of the user cart after the merge.
+     * @param upserts     lines that were changed or added and must be written.
+     * @param totals      quantities and line totals summed over {@code lines}.
+     */
+    public record MergeResult(List<CartItem> lines, List<CartItem> upserts, CartTotals totals) {
+    }
+
+    public MergeResult merge(String orgId, String userCartId, List<CartItem> guestItems, List<CartItem> userItems) {
+        List<CartItem> lines = new ArrayList<>(userItems.size() + guestItems.size());
+        Map<String, CartItem> lineByProductId = new HashMap<>(Math.max(16, (userItems.size() + guestItems.size()) * 2));
+        for (CartItem item : userItems) {
+            lines.add(item);
+            lineByProductId.putIfAbsent(item.getProductId(), item);
+        }
+
+        // Keyed by cartItemId: a line hit by several guest lines is written once.
+        Map<String, CartItem> upserts = new LinkedHashMap<>();
+        Timestamp now = Timestamp.now();
+        for (CartItem guestItem : guestItems) {
+            CartItem line = lineByProductId.get(guestItem.getProductId());
+            if (line != null) {
+                line.setQuantity(line.getQuantity() + guestItem.getQuantity());
+                LinePricing.price(line);
+                line.setLastModifiedAt(now);
+            } else {
+                line = CartItem.builder()
+                        .cartItemId(UUID.randomUUID().toString()) // New ID for new item in user's cart
+                        .orgId(orgId)
+                        .cartId(userCartId)
+                        .productId(guestItem.getProductId())
+                        .productName(guestItem.getProductName())
+                        .priceAtAddToCart(guestItem.getPriceAtAddToCart())
+                        .quantity(guestItem.getQuantity())
+                        .itemTotalPrice(guestItem.getItemTotalPrice())
+                        .addedAt(now)
+                        .lastModifiedAt(now)
+                        .sku(guestItem.getSku())
+                        .build();
+                LinePricing.price(line);
+                lines.add(line);
+                lineByProductId.put(line.getProductId(), line);
+            }
+            upserts.put(line.getCartItemId(), line);
+        }
+
+        return new MergeResult(lines, new ArrayList<>(upserts.values()), CartTotals.of(lines));
+    }
+}
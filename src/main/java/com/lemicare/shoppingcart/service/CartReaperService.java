@@ -0,0 +1,155 @@
+package com.lemicare.shoppingcart.service;
+
+import com.cosmicdoc.common.model.Cart;
+import com.google.cloud.Timestamp;
+import com.google.common.util.concurrent.RateLimiter;
+import com.lemicare.shoppingcart.config.CartReaperProperties;
+import com.lemicare.shoppingcart.storage.CartCursor;
+import com.lemicare.shoppingcart.storage.CartStore;
+import com.lemicare.shoppingcart.storage.DeletedCarts;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Periodically deletes carts in a terminal status (abandoned, cleared, merged) once their
+ * retention has passed, together with stale active guest carts.
+ * <p>
+ * Carts are paged with a cursor on {@code lastModifiedAt} and deleted one page at a time with
+ * their items, throttled to {@link CartReaperProperties#getMaxDeletesPerSecond()} so the job never
+ * competes with shoppers for write capacity. Each run first finishes carts left
+ * {@link CartStore#REAPING} by a deletion that failed part-way. Each run reads at most
+ * {@link CartReaperProperties#getMaxCartReadsPerRun()} carts. Every cart is re-checked when it is
+ * deleted and kept if it changed after the query, so a guest who comes back mid-run keeps their
+ * cart. Deletes are idempotent, so overlapping runs on several instances only waste reads.
+ */
+@Slf4j
+public class CartReaperService {
+
+    private static final String ACTIVE = "ACTIVE";
+    private static final String STALE_GUEST = "STALE_GUEST";
+
+    private final CartStore cartStore;
+    private final CartReaperProperties properties;
+    private final MeterRegistry registry;
+    private final RateLimiter deleteLimiter;
+    private final int maxItemDeletesPerSecond;
+    private final Counter itemsDeleted;
+    private final Timer runTimer;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    public CartReaperService(CartStore cartStore, CartReaperProperties properties, MeterRegistry registry) {
+        this.cartStore = cartStore;
+        this.properties = properties;
+        this.registry = registry;
+        this.deleteLimiter = RateLimiter.create(properties.getMaxDeletesPerSecond());
+        this.maxItemDeletesPerSecond = (int) Math.max(1, Math.round(properties.getMaxDeletesPerSecond()));
+        this.itemsDeleted = Counter.builder("cart.reaper.items.deleted").register(registry);
+        this.runTimer = Timer.builder("cart.reaper.run").register(registry);
+    }
+
+    @Scheduled(cron = "${app.cart-reaper.cron:0 15 * * * *}")
+    public void reap() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Cart reaper run skipped: previous run still in progress");
+            return;
+        }
+        Timer.Sample sample = Timer.start(registry);
+        try {
+            Budget budget = new Budget(properties.getMaxCartsPerRun(), properties.getMaxCartReadsPerRun());
+            // Finishes carts whose deletion an earlier run started but could not complete.
+            reapStatus(CartStore.REAPING, Duration.ZERO, false, budget);
+            for (Map.Entry<String, Duration> entry : properties.getRetention().entrySet()) {
+                if (budget.exhausted()) {
+                    break;
+                }
+                reapStatus(entry.getKey(), entry.getValue(), false, budget);
+            }
+            if (!budget.exhausted() && properties.getGuestRetention() != null) {
+                reapStatus(ACTIVE, properties.getGuestRetention(), true, budget);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Cart reaper run interrupted");
+        } catch (ExecutionException | RuntimeException e) {
+            log.error("Cart reaper run failed; remaining carts are picked up by the next run", e);
+        } finally {
+            sample.stop(runTimer);
+            running.set(false);
+        }
+    }
+
+    /**
+     * Reaps one status, charging the carts it reads and deletes to the run's budget.
+     */
+    private void reapStatus(String status, Duration retention, boolean guestsOnly, Budget budget)
+            throws ExecutionException, InterruptedException {
+        String reason = guestsOnly ? STALE_GUEST : status;
+        Counter cartsDeleted = Counter.builder("cart.reaper.carts.deleted").tag("reason", reason).register(registry);
+        Instant cutoffInstant = Instant.now().minus(retention);
+        Timestamp cutoff = Timestamp.ofTimeSecondsAndNanos(cutoffInstant.getEpochSecond(), cutoffInstant.getNano());
+
+        int deleted = 0;
+        long items = 0;
+        CartCursor cursor = null;
+        while (!budget.exhausted()) {
+            List<Cart> page = cartStore.findCartsByStatusModifiedBefore(
+                    status, guestsOnly, cutoff, cursor, Math.min(properties.getPageSize(), budget.nextPageSize()));
+            budget.reads -= page.size();
+            if (page.isEmpty()) {
+                break;
+            }
+            Cart last = page.get(page.size() - 1);
+            cursor = new CartCursor(last.getLastModifiedAt(), last.getCartId());
+
+            List<Cart> stale = page.stream()
+                    .filter(cart -> !guestsOnly || cart.getGuestId() != null)
+                    .toList();
+            if (stale.isEmpty()) {
+                continue;
+            }
+            deleteLimiter.acquire(stale.size());
+            // Items are deleted by the store's bulk delete, which applies the same rate itself.
+            DeletedCarts pageDeleted = cartStore.deleteCartsIfUnchanged(stale, maxItemDeletesPerSecond);
+            deleted += pageDeleted.carts();
+            items += pageDeleted.items();
+            budget.deletes -= pageDeleted.carts();
+            cartsDeleted.increment(pageDeleted.carts());
+            itemsDeleted.increment(pageDeleted.items());
+        }
+        if (deleted > 0) {
+            log.info("Cart reaper deleted {} {} carts and {} items older than {}", deleted, reason, items, cutoffInstant);
+        }
+    }
+
+    /**
+     * Carts a run may still delete and read.
+     */
+    private static final class Budget {
+
+        private int deletes;
+        private int reads;
+
+        private Budget(int deletes, int reads) {
+            this.deletes = deletes;
+            this.reads = reads;
+        }
+
+        private boolean exhausted() {
+            return deletes <= 0 || reads <= 0;
+        }
+
+        private int nextPageSize() {
+            return Math.min(deletes, reads);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.lemicare.shoppingcart.service;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.google.cloud.Timestamp;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.lemicare.shoppingcart.client.StorefrontServiceClient;
+import com.lemicare.shoppingcart.config.CartRepricingProperties;
+import com.lemicare.shoppingcart.dto.response.CartProductView;
+import com.lemicare.shoppingcart.pricing.CartTotals;
+import com.lemicare.shoppingcart.pricing.LinePricing;
+import com.lemicare.shoppingcart.pricing.MinorUnits;
+import com.lemicare.shoppingcart.storage.CartReadSet;
+import com.lemicare.shoppingcart.storage.CartSnapshot;
+import com.lemicare.shoppingcart.storage.CartStore;
+import com.lemicare.shoppingcart.storage.CartTransactionRunner;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Brings the prices of a cart's lines up to date with the catalogue when the whole cart is read.
+ * Paged reads are not re-priced, since that would load every line the page is meant to spare;
+ * their totals come from the cart document as last priced.
+ * <p>
+ * All products of the cart are fetched in one {@code getProductViewsByIds} call. Lines whose
+ * unit price changed are re-priced, and those lines plus the cart totals are written in a single
+ * transaction; unchanged lines are not written. A cart is checked at most once per
+ * {@link CartRepricingProperties#getFreshnessWindow()} on each instance. Re-pricing never fails
+ * a read: if the catalogue or the store is unavailable, the cart is returned as stored and
+ * {@code cart.reprice.failures} counts the failure by stage and exception.
+ */
+@Slf4j
+public class CartRepricer {
+
+    private final CartStore cartStore;
+    private final StorefrontServiceClient storefrontServiceClient;
+    private final CartTransactionRunner transactionRunner;
+    private final CartSummaryService cartSummaryService;
+    private final CartRepricingProperties properties;
+    // cartId -> marker; an entry means the cart was checked within the freshness window
+    private final Cache<String, Boolean> recentlyChecked;
+    private final MeterRegistry registry;
+    private final Counter linesRepriced;
+
+    public CartRepricer(CartStore cartStore, StorefrontServiceClient storefrontServiceClient,
+                        CartTransactionRunner transactionRunner, CartSummaryService cartSummaryService,
+                        CartRepricingProperties properties, MeterRegistry registry) {
+        this.cartStore = cartStore;
+        this.storefrontServiceClient = storefrontServiceClient;
+        this.transactionRunner = transactionRunner;
+        this.cartSummaryService = cartSummaryService;
+        this.properties = properties;
+        this.recentlyChecked = CacheBuilder.newBuilder()
+                .expireAfterWrite(properties.getFreshnessWindow())
+                .maximumSize(properties.getMaxTrackedCarts())
+                .build();
+        this.registry = registry;
+        this.linesRepriced = Counter.builder("cart.reprice.lines").register(registry);
+    }
+
+    /**
+     * Re-prices the cart if it is due.
+     *
+     * @param items all items of the cart.
+     * @return the cart and items as they are now stored; the arguments if nothing changed.
+     */
+    public CartSnapshot reprice(String orgId, Cart cart, List<CartItem> items) {
+        if (!claim(cart)) {
+            return new CartSnapshot(cart, items);
+        }
+        return repriceClaimed(orgId, cart, items);
+    }
+
+    private boolean claim(Cart cart) {
+        if (!properties.isEnabled() || !"ACTIVE".equals(cart.getStatus())) {
+            return false;
+        }
+        // Only the first read in a window wins; concurrent reads of the same cart skip.
+        return recentlyChecked.asMap().putIfAbsent(cart.getCartId(), Boolean.TRUE) == null;
+    }
+
+    private CartSnapshot repriceClaimed(String orgId, Cart cart, List<CartItem> items) {
+        if (items.isEmpty()) {
+            return new CartSnapshot(cart, items);
+        }
+        Map<String, Long> catalogPrices;
+        try {
+            catalogPrices = catalogPrices(orgId, items);
+        } catch (RuntimeException e) {
+            log.warn("Could not fetch catalogue prices for cart {}: {}", cart.getCartId(), e.getMessage());
+            fail("catalogue", e);
+            return new CartSnapshot(cart, items);
+        }
+
+        Map<String, Long> newPrices = new HashMap<>();
+        for (CartItem item : items) {
+            Long price = catalogPrices.get(item.getProductId());
+            if (price != null && price != MinorUnits.fromMajor(item.getPriceAtAddToCart())) {
+                newPrices.put(item.getCartItemId(), price);
+            }
+        }
+        if (newPrices.isEmpty()) {
+            count("unchanged");
+            return new CartSnapshot(cart, items);
+        }
+
+        try {
+            CartSnapshot updated = transactionRunner.run("reprice-cart", orgId, transaction -> {
+                // Read the cart and all of its current lines in one round trip, so totals cover
+                // lines added since this read started and conflicting writes retry the callback.
+                List<String> itemIds = new ArrayList<>();
+                cartStore.findItemsByCartId(cart.getCartId()).forEach(item -> itemIds.add(item.getCartItemId()));
+                CartReadSet readSet = transaction.getAll(List.of(cart.getCartId()), itemIds);
+                Cart current = readSet.carts().get(cart.getCartId());
+                if (current == null || !"ACTIVE".equals(current.getStatus())) {
+                    return null;
+                }
+                List<CartItem> currentItems = readSet.itemsOf(current.getCartId());
+                Timestamp now = Timestamp.now();
+                for (CartItem item : currentItems) {
+                    Long price = newPrices.get(item.getCartItemId());
+                    if (price != null) {
+                        item.setPriceAtAddToCart(MinorUnits.toMajor(price));
+                        LinePricing.price(item);
+                        item.setLastModifiedAt(now);
+                        transaction.putItem(item);
+                    }
+                }
+                CartTotals.of(currentItems).applyTo(current);
+                current.setLastModifiedAt(now);
+                transaction.putCart(current);
+                return new CartSnapshot(current, currentItems);
+            });
+            if (updated == null) {
+                count("skipped");
+                return new CartSnapshot(cart, items);
+            }
+            linesRepriced.increment(newPrices.size());
+            count("updated");
+            log.info("Re-priced {} lines of cart {} to current catalogue prices.", newPrices.size(), cart.getCartId());
+            cartSummaryService.evict(orgId, updated.cart().getUserId(), updated.cart().getGuestId());
+            return updated;
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            if (e instanceof InterruptedException) {
+                Thread.currentThread().interrupt();
+            }
+            log.warn("Could not write re-priced lines of cart {}: {}", cart.getCartId(), e.getMessage());
+            fail("write", e);
+            return new CartSnapshot(cart, items);
+        }
+    }
+
+    /** Current unit prices in minor units by productId, from one catalogue call. */
+    private Map<String, Long> catalogPrices(String orgId, List<CartItem> items) {
+        Set<String> productIds = new LinkedHashSet<>();
+        items.forEach(item -> productIds.add(item.getProductId()));
+        List<CartProductView> products = storefrontServiceClient.getProductViewsByIds(orgId, new ArrayList<>(productIds));
+        Map<String, Long> prices = new HashMap<>();
+        if (products != null) {
+            for (CartProductView product : products) {
+                if (product != null && product.getProductId() != null && product.getMrp() > 0) {
+                    prices.put(product.getProductId(), MinorUnits.fromMajor(product.getMrp()));
+                }
+            }
+        }
+        return prices;
+    }
+
+    private void count(String outcome) {
+        registry.counter("cart.reprice.runs", "outcome", outcome).increment();
+    }
+
+    private void fail(String stage, Exception e) {
+        count("failed");
+        Throwable cause = e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e;
+        Counter.builder("cart.reprice.failures")
+                .description("Re-pricing attempts that left the cart at its stored prices")
+                .tag("stage", stage)
+                .tag("exception", cause.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+}
@@ -2,23 +2,35 @@ package com.lemicare.shoppingcart.service;
 
 
 import com.cosmicdoc.common.model.*;
-import com.cosmicdoc.common.repository.CartItemRepository;
-import com.cosmicdoc.common.repository.CartRepository;
 import com.google.cloud.Timestamp;
-import com.google.cloud.firestore.Firestore;
-import com.google.cloud.firestore.Transaction;
 import com.lemicare.shoppingcart.client.DeliveryServiceClient;
 import com.lemicare.shoppingcart.client.InventoryServiceClient;
 import com.lemicare.shoppingcart.client.StorefrontServiceClient;
+import com.lemicare.shoppingcart.config.ShippingProperties;
 import com.lemicare.shoppingcart.dto.request.*;
-import com.lemicare.shoppingcart.dto.response.CourierServiceabilityResponse;
+import com.lemicare.shoppingcart.dto.response.CartProductView;
 import com.lemicare.shoppingcart.dto.response.DeliveryOption;
 import com.lemicare.shoppingcart.dto.response.ShippingEstimate;
+import com.lemicare.shoppingcart.dto.response.ShippingParcel;
 import com.lemicare.shoppingcart.exception.CartNotFoundException;
 import com.lemicare.shoppingcart.exception.InsufficientStockException;
+import com.lemicare.shoppingcart.exception.NoCourierAvailableException;
 import com.lemicare.shoppingcart.exception.ProductNotFoundException;
 import com.lemicare.shoppingcart.exception.ServiceCommunicationException;
 import com.lemicare.shoppingcart.mapper.CartMapper;
+import com.lemicare.shoppingcart.pricing.CartTotals;
+import com.lemicare.shoppingcart.pricing.LinePricing;
+import com.lemicare.shoppingcart.shipping.CartonPacker;
+import com.lemicare.shoppingcart.shipping.PackingPlan;
+import com.lemicare.shoppingcart.shipping.ParcelAggregator;
+import com.lemicare.shoppingcart.shipping.ParcelMetrics;
+import com.lemicare.shoppingcart.storage.CartItemCursor;
+import com.lemicare.shoppingcart.storage.CartReadSet;
+import com.lemicare.shoppingcart.storage.CartSnapshot;
+import com.lemicare.shoppingcart.storage.CartStore;
+import com.lemicare.shoppingcart.storage.CartTransaction;
+import com.lemicare.shoppingcart.storage.CartTransactionRunner;
+import com.lemicare.shoppingcart.tracing.ContextPropagation;
 import feign.FeignException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
@@ -27,8 +39,6 @@ import org.springframework.stereotype.Service;
 
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
-import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
@@ -40,22 +50,31 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class CartService {
 
-    private final CartRepository cartRepository;
-    private final CartItemRepository cartItemRepository;
+    /** Largest page of items returned by {@link #getCartDetails(String, String, String, int, String)}. */
+    public static final int MAX_ITEM_PAGE_SIZE = 200;
+
+    private final CartStore cartStore;
     private final StorefrontServiceClient storefrontServiceClient;
     private final InventoryServiceClient inventoryServiceClient;
-    private final Firestore firestore;
     private final CartMapper cartMapper;
     private final DeliveryServiceClient deliveryServiceClient;
+    private final CartItemPurger cartItemPurger;
+    private final CartMergeEngine cartMergeEngine;
+    private final CartTransactionRunner transactionRunner;
+    private final CartSummaryService cartSummaryService;
+    private final CartonPacker cartonPacker;
+    private final ShippingQuoteService shippingQuoteService;
+    private final CartRepricer cartRepricer;
+    private final ShippingProperties shippingProperties;
 
     public CartDto addItemToCart(String orgId, AddItemRequest request)
             throws ExecutionException, InterruptedException {
 
         var ref = new Object() {
-            StorefrontProduct productDetails = null;
+            CartProductView productDetails = null;
         };
         try {
-            ref.productDetails = storefrontServiceClient.getProductDetails(orgId, request.getProductId());
+            ref.productDetails = storefrontServiceClient.getProductView(orgId, request.getProductId());
             if (ref.productDetails == null) {
                 log.warn("Product details not found for productId: {} in orgId: {}", request.getProductId(), orgId);
                 throw new ProductNotFoundException("Product not found: " + request.getProductId());
@@ -86,28 +105,35 @@ public class CartService {
         }*/
         // --- End External Service Calls ---
 
-        // Use Firestore Transaction for atomicity of Cart and CartItem updates
-        return firestore.runTransaction((Transaction.Function<CartDto>) transaction -> {
+        // Use a store transaction for atomicity of Cart and CartItem updates
+        CartDto updated = transactionRunner.run("add-item", orgId, transaction -> {
             Cart cart;
             Optional<Cart> existingCartOptional;
 
             if (request.getUserId() != null && !request.getUserId().isBlank()) {
-                existingCartOptional = cartRepository.findByOrgIdAndUserId(orgId, request.getUserId());
+                existingCartOptional = cartStore.findCartByUser(orgId, request.getUserId());
             } else if (request.getGuestId() != null && !request.getGuestId().isBlank()) {
-                existingCartOptional = cartRepository.findByOrgIdAndGuestId(orgId, request.getGuestId());
+                existingCartOptional = cartStore.findCartByGuest(orgId, request.getGuestId());
             } else {
                 log.error("Attempted to add item without userId or guestId for orgId: {}", orgId);
                 throw new IllegalArgumentException("Either userId or guestId must be provided.");
             }
 
+            cart = null;
             if (existingCartOptional.isPresent()) {
                 // If cart exists, re-read it within the transaction to ensure we're working with the latest state
-                cart = transaction.get(firestore.collection("carts").document(existingCartOptional.get().getCartId())).get().toObject(Cart.class);
+                cart = transaction.getCart(existingCartOptional.get().getCartId()).orElse(null);
                 if (cart == null) { // Should not happen if present, but good defensive check
                     log.error("Cart found by query but not in transaction read. CartId: {}", existingCartOptional.get().getCartId());
                     throw new CartNotFoundException("Internal error: Cart not found during transaction.");
                 }
-            } else {
+                if (!"ACTIVE".equals(cart.getStatus())) {
+                    // Cleared or merged since the lookup; such carts are terminal, so start a new one.
+                    log.debug("Cart {} is {} now, creating a new cart instead.", cart.getCartId(), cart.getStatus());
+                    cart = null;
+                }
+            }
+            if (cart == null) {
                 // Create a new cart
                 cart = Cart.builder()
                         .cartId(UUID.randomUUID().toString())
@@ -119,27 +145,27 @@ public class CartService {
                         .totalItems(0)
                         .subtotalAmount(0.0)
                         .build();
-                log.info("Created new cart with cartId: {} for orgId: {} (userId: {}, guestId: {})",
+                log.debug("Created new cart with cartId: {} for orgId: {} (userId: {}, guestId: {})",
                         cart.getCartId(), orgId, request.getUserId(), request.getGuestId());
             }
 
             // Find existing cart item or create new one
-            Optional<CartItem> existingCartItemOptional = cartItemRepository.findByCartIdAndProductId(cart.getCartId(), request.getProductId());
+            Optional<CartItem> existingCartItemOptional = cartStore.findItemByCartIdAndProductId(cart.getCartId(), request.getProductId());
             CartItem cartItem;
 
             if (existingCartItemOptional.isPresent()) {
                 // Re-read existing cart item within the transaction
-                cartItem = transaction.get(firestore.collection("cartItems").document(existingCartItemOptional.get().getCartItemId())).get().toObject(CartItem.class);
+                cartItem = transaction.getItem(existingCartItemOptional.get().getCartItemId()).orElse(null);
                 if (cartItem == null) { // Defensive check
                     log.error("Cart item found by query but not in transaction read. CartItemId: {}", existingCartItemOptional.get().getCartItemId());
                     throw new CartNotFoundException("Internal error: Cart item not found during transaction.");
                 }
-                log.info("Updating existing cart item {} in cart {}. Old quantity: {}, new quantity: {}",
+                log.debug("Updating existing cart item {} in cart {}. Old quantity: {}, new quantity: {}",
                         cartItem.getCartItemId(), cart.getCartId(), cartItem.getQuantity(), cartItem.getQuantity() + request.getQuantity());
 
                 // Update quantity and recalculate
                 cartItem.setQuantity(cartItem.getQuantity() + request.getQuantity());
-                cartItem.setItemTotalPrice(cartItem.getPriceAtAddToCart() * cartItem.getQuantity());
+                LinePricing.price(cartItem);
                 cartItem.setLastModifiedAt(Timestamp.now());
             } else {
                 // Create a new cart item
@@ -152,49 +178,47 @@ public class CartService {
                        // .productImageUrl(productDetails.imageUrl())
                         .priceAtAddToCart(ref.productDetails.getMrp()) // Store price at the time of adding
                         .quantity(request.getQuantity())
-                        .itemTotalPrice(ref.productDetails.getMrp() * request.getQuantity())
                         .addedAt(Timestamp.now())
                         .lastModifiedAt(Timestamp.now())
-                        .sku("N/A") // Placeholder, should come from productDetails if available
+                        .sku(ref.productDetails.getSku() != null ? ref.productDetails.getSku() : "N/A")
                         .build();
-                log.info("Added new cart item {} for product {} to cart {}",
+                LinePricing.price(cartItem);
+                log.debug("Added new cart item {} for product {} to cart {}",
                         cartItem.getCartItemId(), cartItem.getProductId(), cart.getCartId());
             }
 
             // Update denormalized fields in Cart
             // Fetch all items (including the one just updated/added) to recalculate totals
-            List<CartItem> itemsInCart = cartItemRepository.findByCartId(cart.getCartId()); // Fetch all items
+            List<CartItem> itemsInCart = cartStore.findItemsByCartId(cart.getCartId()); // Fetch all items
             // Replace the updated item or add the new item for correct calculation
             List<CartItem> itemsForRecalculation = itemsInCart.stream()
                     .filter(item -> !item.getProductId().equals(cartItem.getProductId()))
                     .collect(Collectors.toCollection(ArrayList::new));
             itemsForRecalculation.add(cartItem); // Add the newly created/updated item
 
-            int newTotalItems = itemsForRecalculation.stream().mapToInt(CartItem::getQuantity).sum();
-            double newSubtotalAmount = itemsForRecalculation.stream().mapToDouble(CartItem::getItemTotalPrice).sum();
-
-            cart.setTotalItems(newTotalItems);
-            cart.setSubtotalAmount(newSubtotalAmount);
+            CartTotals.of(itemsForRecalculation).applyTo(cart);
             cart.setLastModifiedAt(Timestamp.now());
 
             // Persist changes within the transaction
-            transaction.set(firestore.collection("carts").document(cart.getCartId()), cart);
-            transaction.set(firestore.collection("cartItems").document(cartItem.getCartItemId()), cartItem);
+            transaction.putCart(cart);
+            transaction.putItem(cartItem);
             log.debug("Cart {} and CartItem {} updated/created within transaction.", cart.getCartId(), cartItem.getCartItemId());
 
             // Re-fetch all cart items to return a complete DTO (optional, but ensures consistency after transaction)
-            List<CartItem> finalCartItems = cartItemRepository.findByCartId(cart.getCartId());
+            List<CartItem> finalCartItems = cartStore.findItemsByCartId(cart.getCartId());
             return cartMapper.toDto(cart, finalCartItems);
-        }).get(); // Execute and wait for transaction to complete
+        }); // Execute and wait for transaction to complete
+        cartSummaryService.evict(orgId, updated.getUserId(), updated.getGuestId());
+        return updated;
     }
 
     /*public CartDto getCartDetails(String orgId, String userId, String guestId)
             throws ExecutionException, InterruptedException {
         Optional<Cart> cartOptional;
         if (userId != null && !userId.isBlank()) {
-            cartOptional = cartRepository.findByOrgIdAndUserId(orgId, userId);
+            cartOptional = cartStore.findCartByUser(orgId, userId);
         } else if (guestId != null && !guestId.isBlank()) {
-            cartOptional = cartRepository.findByOrgIdAndGuestId(orgId, guestId);
+            cartOptional = cartStore.findCartByGuest(orgId, guestId);
         } else {
             log.error("Attempted to get cart without userId or guestId for orgId: {}", orgId);
             throw new IllegalArgumentException("Either userId or guestId must be provided.");
@@ -206,7 +230,7 @@ public class CartService {
             throw new CartNotFoundException("Cart not found or does not belong to the organization.");
         }
 
-        List<CartItem> items = cartItemRepository.findByCartId(cart.getCartId());
+        List<CartItem> items = cartStore.findItemsByCartId(cart.getCartId());
         log.debug("Fetched cart details for cartId: {} with {} items.", cart.getCartId(), items.size());
         return cartMapper.toDto(cart, items);
     }*/
@@ -215,17 +239,18 @@ public class CartService {
     public CartDto updateItemQuantity(String orgId, String cartItemId, @Valid UpdateItemQuantityRequest request)
             throws ExecutionException, InterruptedException {
 
-        return firestore.runTransaction((Transaction.Function<CartDto>) transaction -> {
+        CartDto updated = transactionRunner.run("update-item-quantity", orgId, transaction -> {
             // Read cart item within the transaction
-            CartItem cartItem = transaction.get(firestore.collection("cartItems").document(cartItemId)).get().toObject(CartItem.class);
+            CartItem cartItem = transaction.getItem(cartItemId).orElse(null);
             if (cartItem == null || !cartItem.getOrgId().equals(orgId)) {
                 log.warn("Cart item {} not found or does not belong to orgId {}.", cartItemId, orgId);
                 throw new CartNotFoundException("Cart item not found or does not belong to the organization.");
             }
 
             // Read parent cart within the transaction
-            Cart cart = transaction.get(firestore.collection("carts").document(cartItem.getCartId())).get().toObject(Cart.class);
-            if (cart == null || !cart.getOrgId().equals(orgId)) {
+            Cart cart = transaction.getCart(cartItem.getCartId()).orElse(null);
+            // Items of a cleared cart linger until purged and must not be touched any more.
+            if (cart == null || !cart.getOrgId().equals(orgId) || "CLEARED".equals(cart.getStatus())) {
                 log.warn("Parent cart for item {} not found or does not belong to orgId {}.", cartItemId, orgId);
                 throw new CartNotFoundException("Parent cart not found or does not belong to the organization.");
             }
@@ -244,153 +269,174 @@ public class CartService {
                 throw new ServiceCommunicationException("Failed to retrieve product stock for update.", e);
             }
 
-            log.info("Updating quantity for cart item {} in cart {}. Old quantity: {}, new quantity: {}",
+            log.debug("Updating quantity for cart item {} in cart {}. Old quantity: {}, new quantity: {}",
                     cartItemId, cart.getCartId(), cartItem.getQuantity(), request.getQuantity());
 
             cartItem.setQuantity(request.getQuantity());
-            cartItem.setItemTotalPrice(cartItem.getPriceAtAddToCart() * cartItem.getQuantity());
+            LinePricing.price(cartItem);
             cartItem.setLastModifiedAt(Timestamp.now());
 
             // Update denormalized fields in Cart
-            List<CartItem> currentCartItems = cartItemRepository.findByCartId(cart.getCartId());
+            List<CartItem> currentCartItems = cartStore.findItemsByCartId(cart.getCartId());
             List<CartItem> itemsForRecalculation = currentCartItems.stream()
                     .filter(item -> !item.getCartItemId().equals(cartItem.getCartItemId()))
                     .collect(Collectors.toCollection(ArrayList::new));
             itemsForRecalculation.add(cartItem); // Add the updated item
 
-            int newTotalItems = itemsForRecalculation.stream().mapToInt(CartItem::getQuantity).sum();
-            double newSubtotalAmount = itemsForRecalculation.stream().mapToDouble(CartItem::getItemTotalPrice).sum();
-
-            cart.setTotalItems(newTotalItems);
-            cart.setSubtotalAmount(newSubtotalAmount);
+            CartTotals.of(itemsForRecalculation).applyTo(cart);
             cart.setLastModifiedAt(Timestamp.now());
 
-            transaction.set(firestore.collection("cartItems").document(cartItem.getCartItemId()), cartItem);
-            transaction.set(firestore.collection("carts").document(cart.getCartId()), cart);
+            transaction.putItem(cartItem);
+            transaction.putCart(cart);
             log.debug("Cart {} and CartItem {} quantity updated within transaction.", cart.getCartId(), cartItem.getCartItemId());
 
-            List<CartItem> updatedItems = cartItemRepository.findByCartId(cart.getCartId());
+            List<CartItem> updatedItems = cartStore.findItemsByCartId(cart.getCartId());
             return cartMapper.toDto(cart, updatedItems);
-        }).get();
+        });
+        cartSummaryService.evict(orgId, updated.getUserId(), updated.getGuestId());
+        return updated;
     }
 
     // @Transactional
     public void removeItemFromCart(String orgId, String cartItemId)
             throws ExecutionException, InterruptedException {
 
-        firestore.runTransaction((Transaction.Function<Void>) transaction -> {
-            CartItem cartItem = transaction.get(firestore.collection("cartItems").document(cartItemId)).get().toObject(CartItem.class);
+        Cart updatedCart = transactionRunner.run("remove-item", orgId, transaction -> {
+            CartItem cartItem = transaction.getItem(cartItemId).orElse(null);
             if (cartItem == null || !cartItem.getOrgId().equals(orgId)) {
                 log.warn("Cart item {} not found or does not belong to orgId {}.", cartItemId, orgId);
                 throw new CartNotFoundException("Cart item not found or does not belong to the organization.");
             }
 
-            Cart cart = transaction.get(firestore.collection("carts").document(cartItem.getCartId())).get().toObject(Cart.class);
-            if (cart == null || !cart.getOrgId().equals(orgId)) {
+            Cart cart = transaction.getCart(cartItem.getCartId()).orElse(null);
+            // Items of a cleared cart linger until purged and must not be touched any more.
+            if (cart == null || !cart.getOrgId().equals(orgId) || "CLEARED".equals(cart.getStatus())) {
                 log.warn("Parent cart for item {} not found or does not belong to orgId {}.", cartItemId, orgId);
                 throw new CartNotFoundException("Parent cart not found or does not belong to the organization.");
             }
 
-            log.info("Removing cart item {} from cart {}.", cartItemId, cart.getCartId());
+            log.debug("Removing cart item {} from cart {}.", cartItemId, cart.getCartId());
 
             // Update denormalized fields in Cart
-            cart.setTotalItems(cart.getTotalItems() - cartItem.getQuantity());
-            cart.setSubtotalAmount(cart.getSubtotalAmount() - cartItem.getItemTotalPrice());
+            CartTotals.of(cart).minus(cartItem).applyTo(cart);
             cart.setLastModifiedAt(Timestamp.now());
 
-            transaction.delete(firestore.collection("cartItems").document(cartItemId));
-            transaction.set(firestore.collection("carts").document(cart.getCartId()), cart);
+            transaction.deleteItem(cartItemId);
+            transaction.putCart(cart);
 
             // If cart becomes empty, consider marking it as ABANDONED or deleting it
             if (cart.getTotalItems() <= 0) { // Use <= 0 in case of negative quantities due to bugs
                 cart.setStatus("ABANDONED");
-                log.info("Cart {} is now empty, setting status to ABANDONED.", cart.getCartId());
-                transaction.set(firestore.collection("carts").document(cart.getCartId()), cart);
+                log.debug("Cart {} is now empty, setting status to ABANDONED.", cart.getCartId());
+                transaction.putCart(cart);
             }
-            return null;
-        }).get();
+            return cart;
+        });
+        cartSummaryService.evict(orgId, updatedCart.getUserId(), updatedCart.getGuestId());
     }
 
-    // @Transactional
+    /**
+     * Clears the owner's active cart in constant time: a small transaction marks the cart CLEARED,
+     * zeroes its totals and advances its generation, and the items are deleted afterwards by
+     * {@link CartItemPurger}. CLEARED is terminal; the next add creates a fresh cart.
+     */
     public void clearCart(String orgId, String userId, String guestId)
             throws ExecutionException, InterruptedException {
 
-        firestore.runTransaction((Transaction.Function<Void>) transaction -> {
+        String clearedCartId = transactionRunner.run("clear-cart", orgId, transaction -> {
             Optional<Cart> cartOptional;
             if (userId != null && !userId.isBlank()) {
-                cartOptional = cartRepository.findByOrgIdAndUserId(orgId, userId);
+                cartOptional = cartStore.findCartByUser(orgId, userId);
             } else if (guestId != null && !guestId.isBlank()) {
-                cartOptional = cartRepository.findByOrgIdAndGuestId(orgId, guestId);
+                cartOptional = cartStore.findCartByGuest(orgId, guestId);
             } else {
                 log.error("Attempted to clear cart without userId or guestId for orgId: {}", orgId);
                 throw new IllegalArgumentException("Either userId or guestId must be provided.");
             }
 
-            Cart cart = cartOptional.orElseThrow(() -> new CartNotFoundException("Cart not found for the given user/guest ID."));
+            String cartId = cartOptional
+                    .orElseThrow(() -> new CartNotFoundException("Cart not found for the given user/guest ID."))
+                    .getCartId();
+            // Re-read within the transaction so a concurrent add to this cart conflicts with the clear
+            Cart cart = transaction.getCart(cartId).orElse(null);
+            if (cart == null || !"ACTIVE".equals(cart.getStatus())) {
+                throw new CartNotFoundException("Cart not found for the given user/guest ID.");
+            }
             if (!cart.getOrgId().equals(orgId)) {
                 log.warn("Cart {} found but does not belong to orgId {}. Potential data access issue.", cart.getCartId(), orgId);
                 throw new CartNotFoundException("Cart not found or does not belong to the organization.");
             }
 
-            log.info("Clearing cart {} for orgId: {} (userId: {}, guestId: {})", cart.getCartId(), orgId, userId, guestId);
-
-            // Fetch items to delete them
-            List<CartItem> itemsToDelete = cartItemRepository.findByCartId(cart.getCartId());
-            for (CartItem item : itemsToDelete) {
-                transaction.delete(firestore.collection("cartItems").document(item.getCartItemId()));
-            }
+            log.debug("Clearing cart {} for orgId: {} (userId: {}, guestId: {})", cart.getCartId(), orgId, userId, guestId);
 
-            // Mark cart as cleared
+            // Mark cart as cleared; its items are purged once this commits
             cart.setStatus("CLEARED");
-            cart.setTotalItems(0);
-            cart.setSubtotalAmount(0.0);
+            CartTotals.EMPTY.applyTo(cart);
             cart.setLastModifiedAt(Timestamp.now());
-            transaction.set(firestore.collection("carts").document(cart.getCartId()), cart);
-            log.debug("Cart {} items deleted and cart status set to CLEARED.", cart.getCartId());
+            transaction.putCart(cart);
+            transaction.advanceGeneration(cart.getCartId());
+            log.debug("Cart {} status set to CLEARED.", cart.getCartId());
 
-            return null;
-        }).get();
+            return cart.getCartId();
+        });
+
+        cartSummaryService.evict(orgId, userId, guestId);
+        cartItemPurger.submit(clearedCartId);
     }
 
     //  @Transactional
     public CartDto mergeGuestCart(String orgId, @Valid MergeCartRequest request)
             throws ExecutionException, InterruptedException {
 
-        return firestore.runTransaction((Transaction.Function<CartDto>) transaction -> {
-            // 1. Get the guest cart
-            Optional<Cart> guestCartOptional = cartRepository.findByOrgIdAndGuestId(orgId, request.getGuestId());
+        CartDto mergedCart = transactionRunner.run("merge-guest-cart", orgId, transaction -> {
+            // 1. Locate both carts and their line ids
+            Optional<Cart> guestCartOptional = cartStore.findCartByGuest(orgId, request.getGuestId());
             if (guestCartOptional.isEmpty() || !guestCartOptional.get().getOrgId().equals(orgId)) {
-                log.info("No active guest cart found for guestId: {} in orgId: {}. No merge needed.", request.getGuestId(), orgId);
+                log.debug("No active guest cart found for guestId: {} in orgId: {}. No merge needed.", request.getGuestId(), orgId);
                 // If no guest cart, just return the user's cart or create a new one
                 return getOrCreateUserCart(orgId, request.getUserId(), transaction);
             }
-            Cart guestCart = transaction.get(firestore.collection("carts").document(guestCartOptional.get().getCartId())).get().toObject(Cart.class);
-            if (guestCart == null) { // Defensive check
-                log.error("Guest cart found by query but not in transaction read. GuestCartId: {}", guestCartOptional.get().getCartId());
-                throw new CartNotFoundException("Internal error: Guest cart not found during transaction.");
+            String guestCartId = guestCartOptional.get().getCartId();
+            String userCartId = cartStore.findCartByUser(orgId, request.getUserId()).map(Cart::getCartId).orElse(null);
+
+            List<String> cartIds = new ArrayList<>(2);
+            List<String> itemIds = new ArrayList<>();
+            cartIds.add(guestCartId);
+            cartStore.findItemsByCartId(guestCartId).forEach(item -> itemIds.add(item.getCartItemId()));
+            if (userCartId != null) {
+                cartIds.add(userCartId);
+                cartStore.findItemsByCartId(userCartId).forEach(item -> itemIds.add(item.getCartItemId()));
             }
-            List<CartItem> guestCartItems = cartItemRepository.findByCartId(guestCart.getCartId());
+
+            // 2. Read both carts and all their lines in one batched transactional read. Every line
+            // write also rewrites its cart, so a concurrent change to either cart aborts this
+            // transaction at commit and the merge re-runs with fresh line ids.
+            CartReadSet readSet = transaction.getAll(cartIds, itemIds);
+            Cart guestCart = readSet.carts().get(guestCartId);
+            if (guestCart == null || !"ACTIVE".equals(guestCart.getStatus())) {
+                log.debug("Guest cart {} is no longer active. No merge needed.", guestCartId);
+                return getOrCreateUserCart(orgId, request.getUserId(), transaction);
+            }
+            List<CartItem> guestCartItems = readSet.itemsOf(guestCartId);
 
             if (guestCartItems.isEmpty()) {
                 // If guest cart is empty, simply delete it and return the user's cart (or a new one)
-                log.info("Guest cart {} is empty, deleting it and returning user's cart.", guestCart.getCartId());
-                transaction.delete(firestore.collection("carts").document(guestCart.getCartId()));
-                return getOrCreateUserCart(orgId, request.getUserId(), transaction);
+                log.debug("Guest cart {} is empty, deleting it and returning user's cart.", guestCart.getCartId());
+                CartDto userCartDto = getOrCreateUserCart(orgId, request.getUserId(), transaction);
+                transaction.deleteCart(guestCart.getCartId());
+                return userCartDto;
             }
 
-            // 2. Get the user's existing cart or create a new one
-            Optional<Cart> userCartOptional = cartRepository.findByOrgIdAndUserId(orgId, request.getUserId());
             Cart userCart;
-            List<CartItem> userCartItems = new ArrayList<>();
-
-            if (userCartOptional.isPresent()) {
-                userCart = transaction.get(firestore.collection("carts").document(userCartOptional.get().getCartId())).get().toObject(Cart.class);
+            List<CartItem> userCartItems;
+            if (userCartId != null) {
+                userCart = readSet.carts().get(userCartId);
                 if (userCart == null) { // Defensive check
-                    log.error("User cart found by query but not in transaction read. UserCartId: {}", userCartOptional.get().getCartId());
+                    log.error("User cart found by query but not in transaction read. UserCartId: {}", userCartId);
                     throw new CartNotFoundException("Internal error: User cart not found during transaction.");
                 }
-                userCartItems.addAll(cartItemRepository.findByCartId(userCart.getCartId()));
-                log.info("User {} has an existing cart {}. Merging guest cart {} into it.", request.getUserId(), userCart.getCartId(), guestCart.getCartId());
+                userCartItems = readSet.itemsOf(userCartId);
+                log.debug("User {} has an existing cart {}. Merging guest cart {} into it.", request.getUserId(), userCart.getCartId(), guestCart.getCartId());
             } else {
                 userCart = Cart.builder()
                         .cartId(UUID.randomUUID().toString())
@@ -401,76 +447,49 @@ public class CartService {
                         .totalItems(0)
                         .subtotalAmount(0.0)
                         .build();
-                log.info("Created new user cart {} for userId: {} in orgId: {}", userCart.getCartId(), request.getUserId(), orgId);
+                userCartItems = new ArrayList<>();
+                log.debug("Created new user cart {} for userId: {} in orgId: {}", userCart.getCartId(), request.getUserId(), orgId);
             }
 
-            // 3. Merge items from guest cart into user cart
+            // 3. Join guest lines into user lines by productId and write the changed lines
+            CartMergeEngine.MergeResult merged = cartMergeEngine.merge(orgId, userCart.getCartId(), guestCartItems, userCartItems);
+            for (CartItem item : merged.upserts()) {
+                transaction.putItem(item);
+            }
             for (CartItem guestItem : guestCartItems) {
-                Optional<CartItem> existingUserItemOptional = userCartItems.stream()
-                        .filter(item -> item.getProductId().equals(guestItem.getProductId()))
-                        .findFirst();
-
-                if (existingUserItemOptional.isPresent()) {
-                    // Update quantity of existing user cart item
-                    CartItem existingUserItem = transaction.get(firestore.collection("cartItems").document(existingUserItemOptional.get().getCartItemId())).get().toObject(CartItem.class);
-                    existingUserItem.setQuantity(existingUserItem.getQuantity() + guestItem.getQuantity());
-                    existingUserItem.setItemTotalPrice(existingUserItem.getPriceAtAddToCart() * existingUserItem.getQuantity());
-                    existingUserItem.setLastModifiedAt(Timestamp.now());
-                    transaction.set(firestore.collection("cartItems").document(existingUserItem.getCartItemId()), existingUserItem);
-                    log.debug("Merged guest item {} (qty {}) into existing user item {} (new qty {})",
-                            guestItem.getCartItemId(), guestItem.getQuantity(), existingUserItem.getCartItemId(), existingUserItem.getQuantity());
-                } else {
-                    // Add new item to user cart
-                    CartItem newUserItem = CartItem.builder()
-                            .cartItemId(UUID.randomUUID().toString()) // New ID for new item in user's cart
-                            .orgId(orgId)
-                            .cartId(userCart.getCartId()) // Link to user's cart
-                            .productId(guestItem.getProductId())
-                            .productName(guestItem.getProductName())
-                           // .productImageUrl(guestItem.getProductImageUrl())
-                            .priceAtAddToCart(guestItem.getPriceAtAddToCart())
-                            .quantity(guestItem.getQuantity())
-                            .itemTotalPrice(guestItem.getItemTotalPrice())
-                            .addedAt(Timestamp.now())
-                            .lastModifiedAt(Timestamp.now())
-                            .sku(guestItem.getSku())
-                            .build();
-                    transaction.set(firestore.collection("cartItems").document(newUserItem.getCartItemId()), newUserItem);
-                    log.debug("Added new item {} from guest cart to user cart {}.", newUserItem.getCartItemId(), userCart.getCartId());
-                }
-                // Delete the guest cart item
-                transaction.delete(firestore.collection("cartItems").document(guestItem.getCartItemId()));
+                transaction.deleteItem(guestItem.getCartItemId());
             }
+            log.debug("Merged {} guest lines into user cart {} ({} lines written).",
+                    guestCartItems.size(), userCart.getCartId(), merged.upserts().size());
 
-            // 4. Update user cart totals and save
-            List<CartItem> finalUserCartItems = cartItemRepository.findByCartId(userCart.getCartId()); // Re-fetch for accurate totals
-            userCart.setTotalItems(finalUserCartItems.stream().mapToInt(CartItem::getQuantity).sum());
-            userCart.setSubtotalAmount(finalUserCartItems.stream().mapToDouble(CartItem::getItemTotalPrice).sum());
+            // 4. Update user cart totals from the merged lines and save
+            merged.totals().applyTo(userCart);
             userCart.setLastModifiedAt(Timestamp.now());
             userCart.setGuestId(null); // Clear guest ID from user's cart once merged
-            transaction.set(firestore.collection("carts").document(userCart.getCartId()), userCart);
-            log.info("User cart {} totals updated after merge. Total items: {}, Subtotal: {}",
+            transaction.putCart(userCart);
+            log.debug("User cart {} totals updated after merge. Total items: {}, Subtotal: {}",
                     userCart.getCartId(), userCart.getTotalItems(), userCart.getSubtotalAmount());
 
-            // 5. Mark guest cart as merged and delete or set status
+            // 5. Mark guest cart as merged
             guestCart.setStatus("MERGED_TO_USER_CART");
             guestCart.setLastModifiedAt(Timestamp.now());
-            transaction.set(firestore.collection("carts").document(guestCart.getCartId()), guestCart);
-            // Alternatively, transaction.delete(firestore.collection("carts").document(guestCart.getCartId())); if you want to remove it completely
+            transaction.putCart(guestCart);
 
-            return cartMapper.toDto(userCart, finalUserCartItems);
-        }).get();
+            return cartMapper.toDto(userCart, merged.lines());
+        });
+        cartSummaryService.evict(orgId, request.getUserId(), request.getGuestId());
+        return mergedCart;
     }
 
     // Helper method to get or create a user cart, used during merge if no guest cart or empty guest cart
-    private CartDto getOrCreateUserCart(String orgId, String userId, Transaction transaction) throws ExecutionException, InterruptedException {
-        Optional<Cart> userCartOptional = cartRepository.findByOrgIdAndUserId(orgId, userId);
+    private CartDto getOrCreateUserCart(String orgId, String userId, CartTransaction transaction) throws ExecutionException, InterruptedException {
+        Optional<Cart> userCartOptional = cartStore.findCartByUser(orgId, userId);
         Cart userCart;
         if (userCartOptional.isPresent()) {
-            userCart = transaction.get(firestore.collection("carts").document(userCartOptional.get().getCartId())).get().toObject(Cart.class);
+            userCart = transaction.getCart(userCartOptional.get().getCartId()).orElse(null);
             if (userCart == null)
                 throw new CartNotFoundException("Internal error: User cart not found during transaction.");
-            log.info("Found existing user cart {} for userId: {} in orgId: {}", userCart.getCartId(), userId, orgId);
+            log.debug("Found existing user cart {} for userId: {} in orgId: {}", userCart.getCartId(), userId, orgId);
         } else {
             userCart = Cart.builder()
                     .cartId(UUID.randomUUID().toString())
@@ -481,10 +500,10 @@ public class CartService {
                     .totalItems(0)
                     .subtotalAmount(0.0)
                     .build();
-            transaction.set(firestore.collection("carts").document(userCart.getCartId()), userCart);
-            log.info("Created new user cart {} for userId: {} in orgId: {}", userCart.getCartId(), userId, orgId);
+            transaction.putCart(userCart);
+            log.debug("Created new user cart {} for userId: {} in orgId: {}", userCart.getCartId(), userId, orgId);
         }
-        List<CartItem> items = cartItemRepository.findByCartId(userCart.getCartId());
+        List<CartItem> items = cartStore.findItemsByCartId(userCart.getCartId());
         return cartMapper.toDto(userCart, items);
     }
 
@@ -640,16 +659,18 @@ public class CartService {
                 .distinct()
                 .collect(Collectors.toList());
 
-        Map<String, StorefrontProduct> productDetailsMap = new ConcurrentHashMap<>();
+        Map<String, CartProductView> productDetailsMap = new ConcurrentHashMap<>();
         List<CompletableFuture<Void>> futures = new ArrayList<>();
 
         for (String productId : productIds) {
             // Using CompletableFuture.runAsync or CompletableFuture.supplyAsync to run blocking calls concurrently
             // It's good practice to provide an Executor if you have a custom thread pool for blocking I/O
             // Otherwise, it uses ForkJoinPool.commonPool(), which might not be ideal for I/O bound tasks.
-            CompletableFuture<Void> future = CompletableFuture.runAsync(() -> {
+            // The task carries the request's trace context, so the storefront call's span stays
+            // under this request instead of starting a new trace on the pool thread.
+            CompletableFuture<Void> future = CompletableFuture.runAsync(ContextPropagation.wrap(() -> {
                 try {
-                    StorefrontProduct product = storefrontServiceClient.getProductDetails(orgId, productId);
+                    CartProductView product = storefrontServiceClient.getProductView(orgId, productId);
                     if (product != null) {
                         productDetailsMap.put(productId, product);
                     } else {
@@ -663,7 +684,7 @@ public class CartService {
                 } catch (Exception e) {
                     log.error("Unexpected error fetching product {} from Storefront Service: {}", productId, e.getMessage(), e);
                 }
-            } /* , taskExecutor */ ); // Optionally pass taskExecutor here
+            }) /* , taskExecutor */ ); // Optionally pass taskExecutor here
 
             futures.add(future);
         }
@@ -689,56 +710,36 @@ public class CartService {
         }
 
 
-        // 3. Aggregate total weight and volume
-        BigDecimal totalWeightKg = BigDecimal.ZERO;
-        BigDecimal maxItemLengthCm = BigDecimal.ZERO;
-        BigDecimal maxItemWidthCm = BigDecimal.ZERO;
-        BigDecimal maxItemHeightCm = BigDecimal.ZERO;
-        BigDecimal cumulativeVolumeCubicCm = BigDecimal.ZERO;
+        // 3. Aggregate total weight and volume; units are normalized once per product
+        Map<String, ParcelMetrics> metricsByProductId = new HashMap<>(productDetailsMap.size() * 2);
+        productDetailsMap.forEach((productId, product) -> metricsByProductId.put(productId, ParcelMetrics.of(product)));
+        ParcelAggregator parcel = new ParcelAggregator();
+        List<CartonPacker.Line> packingLines = new ArrayList<>(cart.getItems().size());
 
         for (CartItemDto item : cart.getItems()) {
-            StorefrontProduct productDetails = productDetailsMap.get(item.getProductId());
+            ParcelMetrics metrics = metricsByProductId.get(item.getProductId());
             // This check is now robust because we verified productDetailsMap earlier
-            if (productDetails == null) {
+            if (metrics == null) {
                 // This condition should ideally not be met if the above productDetailsMap check is thorough
                 throw new ProductNotFoundException("Product details missing for cart item: " + item.getProductId() + " after initial fetch check.");
             }
-
-            // Accumulate weight, converting to KG
-            if (productDetails.getWeight() != null && productDetails.getWeight().getValue() != null && productDetails.getWeight().getUnit() != null) {
-                BigDecimal itemWeight = convertWeightToKg(productDetails.getWeight());
-                totalWeightKg = totalWeightKg.add(itemWeight.multiply(BigDecimal.valueOf(item.getQuantity())));
-            } else {
+            if (!metrics.hasWeight()) {
                 log.warn("Product {} missing weight details, assuming 0 for shipping calculation.", item.getProductId());
                 // Depending on business rules, you might throw an error here if weight is mandatory
             }
-
-            // Accumulate dimensions/volume
-            if (productDetails.getDimensions() != null ) {
-                PhysicalDimensions dims = productDetails.getDimensions();
-                // Ensure values are not null before converting
-                BigDecimal heightCm = convertDimensionToCm(dims.getHeight(), dims.getUnit());
-                BigDecimal widthCm = convertDimensionToCm(dims.getWidth(), dims.getUnit());
-                BigDecimal lengthCm = convertDimensionToCm(dims.getLength(), dims.getUnit());
-
-                // Take the maximum dimensions among all items for a simplified "outer package"
-                maxItemLengthCm = maxItemLengthCm.max(lengthCm);
-                maxItemWidthCm = maxItemWidthCm.max(widthCm);
-                maxItemHeightCm = maxItemHeightCm.max(heightCm);
-
-                BigDecimal itemVolume = heightCm.multiply(widthCm).multiply(lengthCm);
-                cumulativeVolumeCubicCm = cumulativeVolumeCubicCm.add(itemVolume.multiply(BigDecimal.valueOf(item.getQuantity())));
-            } else {
+            if (!metrics.hasDimensions()) {
                 log.warn("Product {} missing valid dimension details, assuming 0 for shipping calculation.", item.getProductId());
                 // You might throw an error here if dimensions are mandatory for ALL products
             }
+            parcel.add(metrics, item.getQuantity());
+            packingLines.add(new CartonPacker.Line(metrics, item.getQuantity()));
         }
 
-        log.debug("Aggregated cart for shipping: Total Weight={}kg, Cumulative Volume={}cm³, Max Item Dims L:{}cm W:{}cm H:{}cm",
-                totalWeightKg, cumulativeVolumeCubicCm, maxItemLengthCm, maxItemWidthCm, maxItemHeightCm);
+        log.debug("Aggregated cart for shipping: Total Weight={}g, Cumulative Volume={}(0.1mm)³, Max Item Dims L:{} W:{} H:{} (0.1mm)",
+                parcel.weightGrams(), parcel.volumeTenthMm3(), parcel.maxLengthTenthMm(), parcel.maxWidthTenthMm(), parcel.maxHeightTenthMm());
 
         // Handle cases where total weight or dimensions might be zero (e.g., all products missing data)
-        if (totalWeightKg.compareTo(BigDecimal.ZERO) <= 0 && cumulativeVolumeCubicCm.compareTo(BigDecimal.ZERO) <= 0) {
+        if (parcel.weightGrams() <= 0 && parcel.volumeTenthMm3() <= 0) {
             throw new IllegalArgumentException("Cannot estimate shipping: Total weight and volume could not be determined for the cart items.");
         }
 
@@ -746,37 +747,17 @@ public class CartService {
         // 4. Determine Source Pincode (Implement this method)
         Integer sourcePincode = getOrganizationSourcePincode(orgId);
 
-        // 5. Call Delivery Partner Service to get quotes
-        BigDecimal finalLength = maxItemLengthCm.compareTo(BigDecimal.ZERO) > 0 ? maxItemLengthCm : new BigDecimal("10.0"); // Default 10cm
-        BigDecimal finalWidth = maxItemWidthCm.compareTo(BigDecimal.ZERO) > 0 ? maxItemWidthCm : new BigDecimal("10.0");   // Default 10cm
-        BigDecimal finalHeight = maxItemHeightCm.compareTo(BigDecimal.ZERO) > 0 ? maxItemHeightCm : new BigDecimal("10.0"); // Default 10cm
-
-        CourierServiceabilityRequest request = CourierServiceabilityRequest.builder()
-                .pickup_postcode(sourcePincode)
-                .delivery_postcode(destinationPincode)
-                .weight(totalWeightKg.max(new BigDecimal("0.5")))
-                .cod(0) // 0 for Prepaid, 1 for COD. Crucial!
-                // .order_id("DEL_order123") // Only provide if checking an EXISTING Shiprocket order
-                .length(finalLength)
-                .width(finalWidth)
-                .height(finalHeight)// Example dimension
-                .declared_value(BigDecimal.valueOf(100.00)) // Example declared value. Crucial!
-                .items_count(1) // Example item count. Crucial!
-                // .is_international(0) // 0 for domestic, 1 for international
-                // .currency("INR") // If required, otherwise Shiprocket often defaults
-                // .mode("SURFACE") // "AIR" or "SURFACE"
-                .build();
-
-        List<DeliveryOption> deliveryOptions = deliveryServiceClient.getAvailableCourierService(request);
-        if (deliveryOptions == null) {
-            deliveryOptions = Collections.emptyList();
-        }
+        // 5. Pack the cart into cartons and quote every parcel concurrently
+        PackingPlan plan = cartonPacker.plan(packingLines);
+        log.debug("Packed cart {} into {} parcels.", cart.getCartId(), plan.parcels().size());
+        List<DeliveryOption> deliveryOptions = shippingQuoteService.quote(sourcePincode, destinationPincode, plan);
 
 
         // 6. Select the "best" option (cheapest) and mark it
         DeliveryOption bestOption = deliveryOptions.stream()
+                .filter(option -> option.getCost() != null)
                 .min(Comparator.comparing(DeliveryOption::getCost))
-                .orElseThrow(() -> new IllegalStateException("No options found after filtering. This should not happen."));
+                .orElseThrow(() -> new NoCourierAvailableException("No courier service can deliver this cart to pincode " + destinationPincode + "."));
 
         List<DeliveryOption> finalDeliveryOptions = deliveryOptions.stream()
                 .map(option -> option.equals(bestOption) ? option.toBuilder().withBestOption(true).build() : option)
@@ -788,47 +769,23 @@ public class CartService {
                 .destinationPincode(destinationPincode)
                 .estimatedTotalShippingCost(bestOption.getCost())
                 .deliveryOptions(finalDeliveryOptions)
+                .parcels(plan.parcels().stream()
+                        .map(p -> ShippingParcel.builder()
+                                .carton(p.carton())
+                                .lengthCm(ParcelAggregator.toCm(p.lengthTenthMm()))
+                                .widthCm(ParcelAggregator.toCm(p.widthTenthMm()))
+                                .heightCm(ParcelAggregator.toCm(p.heightTenthMm()))
+                                .weightKg(ParcelAggregator.toKg(p.weightGrams()))
+                                .units(p.units())
+                                .build())
+                        .collect(Collectors.toList()))
                 .build();
     }
 
-    // --- Helper for Unit Conversion ---
-    private BigDecimal convertWeightToKg(Weight weight) {
-        if (weight == null || weight.getValue() == null || weight.getUnit() == null) {
-            return BigDecimal.ZERO;
-        }
-        switch (weight.getUnit().toLowerCase()) {
-            case "kg":
-                return weight.getValue();
-            case "g":
-                return weight.getValue().divide(new BigDecimal("1000"), 3, RoundingMode.HALF_UP);
-            case "lb":
-                return weight.getValue().multiply(new BigDecimal("0.453592")).setScale(3, RoundingMode.HALF_UP);
-            default:
-                log.warn("Unknown weight unit: {}. Assuming KG.", weight.getUnit());
-                return weight.getValue();
-        }
-    }
-
-    private BigDecimal convertDimensionToCm(BigDecimal value, String unit) {
-        if (value == null || unit == null) {
-            return BigDecimal.ZERO;
-        }
-        switch (unit.toLowerCase()) {
-            case "cm":
-                return value;
-            case "mm":
-                return value.divide(new BigDecimal("10"), 2, RoundingMode.HALF_UP);
-            case "inch":
-                return value.multiply(new BigDecimal("2.54")).setScale(2, RoundingMode.HALF_UP);
-            default:
-                log.warn("Unknown dimension unit: {}. Assuming CM.", unit);
-                return value;
-        }
-    }
-
     private Integer getOrganizationSourcePincode(String orgId) {
-        if ("org_ae1e6ea1-0de2-4b6a-bc86-9d8d043fd75b".equals(orgId)) {
-            return 600029;
+        Integer pincode = shippingProperties.getSourcePincodes().get(orgId);
+        if (pincode != null) {
+            return pincode;
         }
         log.error("Source pincode not configured for organization: {}", orgId);
         throw new IllegalArgumentException("Source pincode not configured for organization: " + orgId);
@@ -839,7 +796,7 @@ public class CartService {
         Optional<Cart> cartOptional;
         if (userId != null && !userId.isBlank()) {
             try {
-                cartOptional = cartRepository.findByOrgIdAndUserId(orgId, userId);
+                cartOptional = cartStore.findCartByUser(orgId, userId);
             } catch (ExecutionException e) {
                 throw new RuntimeException(e);
             } catch (InterruptedException e) {
@@ -847,7 +804,7 @@ public class CartService {
             }
         } else if (guestId != null && !guestId.isBlank()) {
             try {
-                cartOptional = cartRepository.findByOrgIdAndGuestId(orgId, guestId);
+                cartOptional = cartStore.findCartByGuest(orgId, guestId);
             } catch (ExecutionException e) {
                 throw new RuntimeException(e);
             } catch (InterruptedException e) {
@@ -866,14 +823,58 @@ public class CartService {
 
         List<CartItem> items = null;
         try {
-            items = cartItemRepository.findByCartId(cart.getCartId());
+            items = cartStore.findItemsByCartId(cart.getCartId());
         } catch (ExecutionException e) {
             throw new RuntimeException(e);
         } catch (InterruptedException e) {
             throw new RuntimeException(e);
         }
+        CartSnapshot priced = cartRepricer.reprice(orgId, cart, items);
         log.debug("Fetched cart details for cartId: {} with {} items.", cart.getCartId(), items.size());
-        return cartMapper.toDto(cart, items);
+        return cartMapper.toDto(priced.cart(), priced.items());
+    }
+
+    /**
+     * Returns the cart with one page of its items, ordered by when they were added. Totals come
+     * from the cart document and cover all items, not just the page. Unlike a full read, this
+     * does not re-price the cart, which would read every item.
+     *
+     * @param pageSize Items per page, between 1 and {@value #MAX_ITEM_PAGE_SIZE}.
+     * @param cursor   {@link CartDto#getNextCursor()} of the previous page, or null for the first page.
+     */
+    public CartDto getCartDetails(String orgId, String userId, String guestId, int pageSize, String cursor)
+            throws ExecutionException, InterruptedException {
+        if (pageSize < 1 || pageSize > MAX_ITEM_PAGE_SIZE) {
+            throw new IllegalArgumentException("pageSize must be between 1 and " + MAX_ITEM_PAGE_SIZE + ".");
+        }
+        CartItemCursor after = cursor == null || cursor.isBlank() ? null : CartItemCursor.decode(cursor);
+
+        Optional<Cart> cartOptional;
+        if (userId != null && !userId.isBlank()) {
+            cartOptional = cartStore.findCartByUser(orgId, userId);
+        } else if (guestId != null && !guestId.isBlank()) {
+            cartOptional = cartStore.findCartByGuest(orgId, guestId);
+        } else {
+            log.error("Attempted to get cart without userId or guestId for orgId: {}", orgId);
+            throw new IllegalArgumentException("Either userId or guestId must be provided.");
+        }
+
+        Cart cart = cartOptional.orElseThrow(() -> new CartNotFoundException("Cart not found for the given user/guest ID."));
+        if (!cart.getOrgId().equals(orgId)) {
+            log.warn("Cart {} found but does not belong to orgId {}. Potential data access issue.", cart.getCartId(), orgId);
+            throw new CartNotFoundException("Cart not found or does not belong to the organization.");
+        }
+
+        // One extra item tells whether another page follows without a separate count.
+        List<CartItem> items = cartStore.findItemsPage(cart.getCartId(), after, pageSize + 1);
+        boolean hasMore = items.size() > pageSize;
+        if (hasMore) {
+            items = items.subList(0, pageSize);
+        }
+        CartDto dto = cartMapper.toDto(cart, items);
+        dto.setNextCursor(hasMore ? CartItemCursor.after(items.get(items.size() - 1)).encode() : null);
+        log.debug("Fetched page of {} items for cartId: {}, more: {}.", items.size(), cart.getCartId(), hasMore);
+        return dto;
     }
 
 
@@ -0,0 +1,95 @@
+package com.lemicare.shoppingcart.service;
+
+import com.cosmicdoc.common.model.Cart;
+import com.google.cloud.Timestamp;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.lemicare.shoppingcart.config.CartSummaryProperties;
+import com.lemicare.shoppingcart.dto.response.CartSummary;
+import com.lemicare.shoppingcart.storage.CartStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Serves the header badge ({@link CartSummary}) from the cart document alone.
+ * <p>
+ * Summaries are read with a field mask and kept in a per-instance micro-cache for
+ * {@link CartSummaryProperties#getCacheTtl()}, so the call made on every page load is a cache hit
+ * or a single small read. Owners without an active cart are cached too. {@link CartService}
+ * evicts an owner's entry after each write, so a shopper sees their own changes immediately.
+ */
+public class CartSummaryService {
+
+    private final CartStore cartStore;
+    private final Cache<String, CartSummary> cache;
+    private final Counter hits;
+    private final Counter misses;
+
+    public CartSummaryService(CartStore cartStore, CartSummaryProperties properties, MeterRegistry registry) {
+        this.cartStore = cartStore;
+        this.cache = CacheBuilder.newBuilder()
+                .expireAfterWrite(properties.getCacheTtl())
+                .maximumSize(properties.getCacheMaxEntries())
+                .build();
+        this.hits = Counter.builder("cart.summary.cache").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("cart.summary.cache").tag("result", "miss").register(registry);
+        registry.gauge("cart.summary.cache.size", cache, Cache::size);
+    }
+
+    /**
+     * Returns the summary of the active cart of a user or, when {@code userId} is blank, of a
+     * guest. Without an active cart the summary has no cart id and zero totals.
+     */
+    public CartSummary getSummary(String orgId, String userId, String guestId)
+            throws ExecutionException, InterruptedException {
+        boolean hasUser = userId != null && !userId.isBlank();
+        if (!hasUser && (guestId == null || guestId.isBlank())) {
+            throw new IllegalArgumentException("Either userId or guestId must be provided.");
+        }
+        String key = ownerKey(orgId, hasUser ? userId : null, guestId);
+        CartSummary cached = cache.getIfPresent(key);
+        if (cached != null) {
+            hits.increment();
+            return cached;
+        }
+        misses.increment();
+        Optional<Cart> cart = cartStore.findActiveCartHeader(orgId, hasUser ? userId : null, hasUser ? null : guestId);
+        CartSummary summary = cart.map(CartSummaryService::toSummary)
+                .orElseGet(() -> CartSummary.builder().totalItems(0).subtotalAmount(0.0).version(0).build());
+        cache.put(key, summary);
+        return summary;
+    }
+
+    /** Drops the cached summaries of the given owners; blank ids are ignored. */
+    public void evict(String orgId, String userId, String guestId) {
+        if (userId != null && !userId.isBlank()) {
+            cache.invalidate(ownerKey(orgId, userId, null));
+        }
+        if (guestId != null && !guestId.isBlank()) {
+            cache.invalidate(ownerKey(orgId, null, guestId));
+        }
+    }
+
+    static CartSummary toSummary(Cart cart) {
+        return CartSummary.builder()
+                .cartId(cart.getCartId())
+                .status(cart.getStatus())
+                .totalItems(cart.getTotalItems())
+                .subtotalAmount(cart.getSubtotalAmount())
+                .version(versionOf(cart))
+                .build();
+    }
+
+    /** Last modification in microseconds since the epoch; grows with every write to the cart. */
+    static long versionOf(Cart cart) {
+        Timestamp timestamp = cart.getLastModifiedAt() != null ? cart.getLastModifiedAt() : cart.getCreatedAt();
+        return timestamp == null ? 0 : timestamp.getSeconds() * 1_000_000L + timestamp.getNanos() / 1_000;
+    }
+
+    private static String ownerKey(String orgId, String userId, String guestId) {
+        return userId != null ? orgId + "|u|" + userId : orgId + "|g|" + guestId;
+    }
+}
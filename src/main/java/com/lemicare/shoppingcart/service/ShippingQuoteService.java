@@ -0,0 +1,150 @@
+package com.lemicare.shoppingcart.service;
+
+import com.lemicare.shoppingcart.client.DeliveryServiceClient;
+import com.lemicare.shoppingcart.config.ShippingProperties;
+import com.lemicare.shoppingcart.dto.request.CourierServiceabilityRequest;
+import com.lemicare.shoppingcart.dto.response.DeliveryOption;
+import com.lemicare.shoppingcart.exception.NoCourierAvailableException;
+import com.lemicare.shoppingcart.exception.ServiceCommunicationException;
+import com.lemicare.shoppingcart.shipping.PackedParcel;
+import com.lemicare.shoppingcart.shipping.PackingPlan;
+import com.lemicare.shoppingcart.shipping.ParcelAggregator;
+import com.lemicare.shoppingcart.tracing.ContextPropagation;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Requests courier quotes for every parcel of a {@link PackingPlan} concurrently and combines
+ * them into one option per courier service.
+ * <p>
+ * A courier service is offered only if it quoted every parcel; its cost is the sum over the
+ * parcels and its delivery time that of the slowest parcel. A single-parcel plan returns the
+ * courier's options unchanged.
+ */
+@Slf4j
+public class ShippingQuoteService {
+
+    // Couriers bill at least half a kilogram per parcel.
+    private static final long MIN_PARCEL_WEIGHT_GRAMS = 500;
+
+    private final DeliveryServiceClient deliveryServiceClient;
+    private final ShippingProperties properties;
+    private final ExecutorService executor;
+    private final DistributionSummary parcelsPerEstimate;
+
+    public ShippingQuoteService(DeliveryServiceClient deliveryServiceClient, ShippingProperties properties,
+                                MeterRegistry registry) {
+        this.deliveryServiceClient = deliveryServiceClient;
+        this.properties = properties;
+        this.executor = ContextPropagation.wrap(Executors.newFixedThreadPool(properties.getQuoteThreads(),
+                new CustomizableThreadFactory("shipping-quote-")));
+        this.parcelsPerEstimate = DistributionSummary.builder("cart.shipping.parcels").register(registry);
+    }
+
+    /**
+     * @throws ServiceCommunicationException if a parcel could not be quoted in time.
+     * @throws NoCourierAvailableException   if no courier service quoted every parcel.
+     */
+    public List<DeliveryOption> quote(int pickupPincode, int deliveryPincode, PackingPlan plan)
+            throws InterruptedException {
+        List<PackedParcel> parcels = plan.parcels();
+        parcelsPerEstimate.record(parcels.size());
+
+        List<CompletableFuture<List<DeliveryOption>>> futures = new ArrayList<>(parcels.size());
+        for (PackedParcel parcel : parcels) {
+            CourierServiceabilityRequest request = toRequest(pickupPincode, deliveryPincode, parcel);
+            futures.add(CompletableFuture.supplyAsync(() -> {
+                List<DeliveryOption> options = deliveryServiceClient.getAvailableCourierService(request);
+                return options != null ? options : Collections.<DeliveryOption>emptyList();
+            }, executor));
+        }
+
+        List<List<DeliveryOption>> quotes = new ArrayList<>(futures.size());
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(properties.getQuoteTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            for (CompletableFuture<List<DeliveryOption>> future : futures) {
+                quotes.add(future.join());
+            }
+        } catch (ExecutionException | TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            log.error("Failed to get courier quotes for {} parcels: {}", parcels.size(), e.getMessage());
+            throw new ServiceCommunicationException("Failed to retrieve courier quotes for shipping estimation.",
+                    e.getCause() != null ? e.getCause() : e);
+        }
+        List<DeliveryOption> options = quotes.size() == 1 ? quotes.get(0) : combine(quotes);
+        if (options.stream().noneMatch(option -> option.getCost() != null)) {
+            throw new NoCourierAvailableException(parcels.size() == 1
+                    ? "No courier service delivers this cart to pincode " + deliveryPincode + "."
+                    : "No single courier service can deliver all " + parcels.size()
+                            + " parcels of this cart to pincode " + deliveryPincode + ".");
+        }
+        return options;
+    }
+
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static CourierServiceabilityRequest toRequest(int pickupPincode, int deliveryPincode, PackedParcel parcel) {
+        return CourierServiceabilityRequest.builder()
+                .pickup_postcode(pickupPincode)
+                .delivery_postcode(deliveryPincode)
+                .weight(ParcelAggregator.toKg(Math.max(parcel.weightGrams(), MIN_PARCEL_WEIGHT_GRAMS)))
+                .cod(0) // 0 for Prepaid, 1 for COD
+                .length(ParcelAggregator.toCm(parcel.lengthTenthMm()))
+                .width(ParcelAggregator.toCm(parcel.widthTenthMm()))
+                .height(ParcelAggregator.toCm(parcel.heightTenthMm()))
+                .declared_value(BigDecimal.valueOf(100.00)) // Example declared value, as before
+                .items_count(parcel.units())
+                .build();
+    }
+
+    private static List<DeliveryOption> combine(List<List<DeliveryOption>> quotes) {
+        Map<String, DeliveryOption> combined = new LinkedHashMap<>();
+        for (DeliveryOption option : quotes.get(0)) {
+            if (option.getCost() != null) {
+                combined.putIfAbsent(serviceKey(option), option.toBuilder().minWeight(null).maxWeight(null).build());
+            }
+        }
+        for (int i = 1; i < quotes.size() && !combined.isEmpty(); i++) {
+            Map<String, DeliveryOption> parcelOptions = new LinkedHashMap<>();
+            for (DeliveryOption option : quotes.get(i)) {
+                if (option.getCost() != null) {
+                    parcelOptions.putIfAbsent(serviceKey(option), option);
+                }
+            }
+            combined.keySet().retainAll(parcelOptions.keySet());
+            for (Map.Entry<String, DeliveryOption> entry : combined.entrySet()) {
+                DeliveryOption total = entry.getValue();
+                DeliveryOption parcel = parcelOptions.get(entry.getKey());
+                total.setCost(total.getCost().add(parcel.getCost()));
+                if (parcel.getEstimatedDeliveryDays() != null && (total.getEstimatedDeliveryDays() == null
+                        || parcel.getEstimatedDeliveryDays() > total.getEstimatedDeliveryDays())) {
+                    total.setEstimatedDeliveryDays(parcel.getEstimatedDeliveryDays());
+                    total.setEtdRaw(parcel.getEtdRaw());
+                }
+            }
+        }
+        return new ArrayList<>(combined.values());
+    }
+
+    private static String serviceKey(DeliveryOption option) {
+        return option.getCourierId() != null ? option.getCourierId() : option.getCarrierName() + "|" + option.getServiceType();
+    }
+}
@@ -3,10 +3,9 @@ package com.lemicare.shoppingcart.service;
 import com.cosmicdoc.common.model.StorefrontProduct;
 import com.cosmicdoc.common.model.Wishlist;
 import com.cosmicdoc.common.model.WishlistItem;
-import com.cosmicdoc.common.repository.StorefrontProductRepository;
-import com.cosmicdoc.common.repository.WishlistRepository;
 import com.google.cloud.Timestamp;
 import com.lemicare.shoppingcart.client.StorefrontServiceClient;
+import com.lemicare.shoppingcart.storage.WishlistStore;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 
@@ -21,7 +20,7 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class WishlistService {
 
-    private final WishlistRepository wishlistRepository;
+    private final WishlistStore wishlistStore;
     private final StorefrontServiceClient storefrontServiceClient;
     // To fetch product details
 
@@ -31,7 +30,7 @@ public class WishlistService {
      * If no wishlist exists, an empty one is returned.
      */
     public Wishlist getWishlist(String organizationId, String customerId) throws ExecutionException, InterruptedException {
-        return wishlistRepository.findByOrganizationIdAndCustomerId(organizationId, customerId)
+        return wishlistStore.findByOrganizationIdAndCustomerId(organizationId, customerId)
                 // Pass an empty ArrayList instead of null
                 .orElseGet(() -> new Wishlist(customerId, organizationId, new ArrayList<>()));
     }
@@ -41,14 +40,14 @@ public class WishlistService {
      * This is what you'll typically use to display the wishlist in the UI.
      */
     public Wishlist addProductToWishlist(String organizationId, String customerId, String productId) throws ExecutionException, InterruptedException {
-        Wishlist wishlist = wishlistRepository.findByOrganizationIdAndCustomerId(organizationId, customerId)
+        Wishlist wishlist = wishlistStore.findByOrganizationIdAndCustomerId(organizationId, customerId)
                 // Pass an empty ArrayList instead of null
                 .orElseGet(() -> new Wishlist(customerId, organizationId, new ArrayList<>()));
 
         if (!wishlist.containsProduct(productId)) {
             WishlistItem newItem = new WishlistItem(productId, Timestamp.now());
             wishlist.getItems().add(newItem);
-            return wishlistRepository.save(wishlist);
+            return wishlistStore.save(wishlist);
         }
         return wishlist; // Item already in wishlist, no change
     }
@@ -59,13 +58,13 @@ public class WishlistService {
      * @return The updated wishlist.
      */
     public Wishlist removeProductFromWishlist(String organizationId, String customerId, String productId) throws ExecutionException, InterruptedException {
-        Optional<Wishlist> optionalWishlist = wishlistRepository.findByOrganizationIdAndCustomerId(organizationId, customerId);
+        Optional<Wishlist> optionalWishlist = wishlistStore.findByOrganizationIdAndCustomerId(organizationId, customerId);
 
         if (optionalWishlist.isPresent()) {
             Wishlist wishlist = optionalWishlist.get();
             boolean removed = wishlist.getItems().removeIf(item -> item.getProductId().equals(productId));
             if (removed) {
-                return wishlistRepository.save(wishlist);
+                return wishlistStore.save(wishlist);
             }
             // If the item wasn't found, just return the existing wishlist (no change)
             return wishlist;
@@ -78,7 +77,7 @@ public class WishlistService {
      * Clears (deletes) the entire wishlist for a user within an organization.
      */
     public void clearWishlist(String organizationId, String customerId) throws ExecutionException, InterruptedException {
-        wishlistRepository.delete(organizationId, customerId);
+        wishlistStore.delete(organizationId, customerId);
     }
 
     /**
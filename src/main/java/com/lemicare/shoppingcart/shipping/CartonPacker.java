@@ -0,0 +1,293 @@
+package com.lemicare.shoppingcart.shipping;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.lemicare.shoppingcart.config.ShippingProperties;
+import com.lemicare.shoppingcart.metrics.CacheMeters;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Packs cart lines into cartons from a fixed catalogue with first-fit-decreasing.
+ * <p>
+ * Units are taken largest first and put into the first open parcel whose carton holds the unit
+ * in some axis-aligned orientation and still has volume and weight to spare; identical units of
+ * a line are placed in one step. When no open parcel takes a unit, a parcel with the largest
+ * carton that fits it is opened. Finally every parcel is moved to the smallest carton that
+ * still holds its contents. Fit is judged by volume, reduced by the configured fill factor, not
+ * by exact 3D placement.
+ * <p>
+ * Units larger or heavier than every carton ship alone in their own packaging. Plans are
+ * remembered by cart composition, so repeated estimates for an unchanged cart skip packing.
+ */
+public class CartonPacker {
+
+    /** Carton name of parcels made of a single unit that fits no carton. */
+    public static final String OWN_PACKAGING = "OWN_PACKAGING";
+
+    // Cartons ordered by usable volume, smallest first; dimensions sorted longest first.
+    private final String[] names;
+    private final long[] sideA;
+    private final long[] sideB;
+    private final long[] sideC;
+    private final long[] capacity;
+    private final long[] maxWeight;
+    private final Cache<String, PackingPlan> plans;
+
+    /** Quantity of one product with its unit metrics. */
+    public record Line(ParcelMetrics metrics, int quantity) {
+    }
+
+    public CartonPacker(ShippingProperties properties, MeterRegistry registry) {
+        List<ShippingProperties.CartonSpec> specs = new ArrayList<>(properties.getCartons());
+        if (specs.isEmpty()) {
+            throw new IllegalStateException("app.shipping.cartons must list at least one carton.");
+        }
+        int count = specs.size();
+        names = new String[count];
+        sideA = new long[count];
+        sideB = new long[count];
+        sideC = new long[count];
+        capacity = new long[count];
+        maxWeight = new long[count];
+        long[][] sides = new long[count][];
+        for (int i = 0; i < count; i++) {
+            ShippingProperties.CartonSpec spec = specs.get(i);
+            sides[i] = sorted(LengthUnit.CM.toTenthsOfMm(spec.getLengthCm()), LengthUnit.CM.toTenthsOfMm(spec.getWidthCm()),
+                    LengthUnit.CM.toTenthsOfMm(spec.getHeightCm()));
+        }
+        Integer[] order = new Integer[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingLong(i -> sides[i][0] * sides[i][1] * sides[i][2]));
+        for (int i = 0; i < count; i++) {
+            ShippingProperties.CartonSpec spec = specs.get(order[i]);
+            long[] s = sides[order[i]];
+            names[i] = spec.getName();
+            sideA[i] = s[0];
+            sideB[i] = s[1];
+            sideC[i] = s[2];
+            capacity[i] = (long) (s[0] * s[1] * s[2] * properties.getFillFactor());
+            maxWeight[i] = WeightUnit.KG.toGrams(spec.getMaxWeightKg());
+        }
+        plans = CacheBuilder.newBuilder()
+                .maximumSize(properties.getPlanCacheMaxEntries())
+                .expireAfterAccess(properties.getPlanCacheExpiry())
+                .recordStats()
+                .build();
+        CacheMeters.monitor(registry, plans, "carton-plans");
+    }
+
+    /**
+     * Returns the packing plan for the lines, reusing the plan of an earlier cart with the same
+     * composition.
+     */
+    public PackingPlan plan(List<Line> lines) {
+        Unit[] units = units(lines);
+        String key = compositionKey(units);
+        PackingPlan plan = plans.getIfPresent(key);
+        if (plan == null) {
+            plan = pack(units);
+            plans.put(key, plan);
+        }
+        return plan;
+    }
+
+    /** Packs the lines without consulting the plan cache. */
+    public PackingPlan pack(List<Line> lines) {
+        return pack(units(lines));
+    }
+
+    private PackingPlan pack(Unit[] units) {
+        Parcels parcels = new Parcels();
+        for (Unit unit : units) {
+            int remaining = unit.quantity;
+            for (int p = 0; p < parcels.size && remaining > 0; p++) {
+                int carton = parcels.carton[p];
+                if (carton < 0 || !fits(unit, carton)) {
+                    continue;
+                }
+                int taken = take(unit, remaining, parcels.freeVolume[p], parcels.freeWeight[p]);
+                if (taken > 0) {
+                    parcels.place(p, unit, taken);
+                    remaining -= taken;
+                }
+            }
+            while (remaining > 0) {
+                int carton = largestFitting(unit);
+                if (carton < 0) {
+                    for (; remaining > 0; remaining--) {
+                        parcels.placeAlone(unit);
+                    }
+                    break;
+                }
+                int p = parcels.open(carton, capacity[carton], maxWeight[carton]);
+                // A unit close to the carton's size may exceed the fill factor on its own.
+                int taken = Math.max(1, take(unit, remaining, parcels.freeVolume[p], parcels.freeWeight[p]));
+                parcels.place(p, unit, taken);
+                remaining -= taken;
+            }
+        }
+        return parcels.toPlan();
+    }
+
+    private boolean fits(Unit unit, int carton) {
+        return unit.a <= sideA[carton] && unit.b <= sideB[carton] && unit.c <= sideC[carton]
+                && unit.weight <= maxWeight[carton];
+    }
+
+    private int largestFitting(Unit unit) {
+        for (int carton = names.length - 1; carton >= 0; carton--) {
+            if (fits(unit, carton)) {
+                return carton;
+            }
+        }
+        return -1;
+    }
+
+    private static int take(Unit unit, int remaining, long freeVolume, long freeWeight) {
+        long taken = remaining;
+        if (unit.volume > 0) {
+            taken = Math.min(taken, freeVolume / unit.volume);
+        }
+        if (unit.weight > 0) {
+            taken = Math.min(taken, freeWeight / unit.weight);
+        }
+        return (int) Math.max(0, taken);
+    }
+
+    private static Unit[] units(List<Line> lines) {
+        Unit[] units = new Unit[lines.size()];
+        for (int i = 0; i < units.length; i++) {
+            Line line = lines.get(i);
+            units[i] = new Unit(line.metrics(), line.quantity());
+        }
+        // Decreasing: largest volume first, then heaviest; the rest only makes the order canonical.
+        Arrays.sort(units, Unit.DECREASING);
+        return units;
+    }
+
+    private static String compositionKey(Unit[] units) {
+        StringBuilder key = new StringBuilder(units.length * 32);
+        for (Unit unit : units) {
+            key.append(unit.a).append(',').append(unit.b).append(',').append(unit.c).append(',')
+                    .append(unit.weight).append('x').append(unit.quantity).append(';');
+        }
+        return key.toString();
+    }
+
+    private static long[] sorted(long x, long y, long z) {
+        long[] sides = {x, y, z};
+        Arrays.sort(sides);
+        return new long[]{sides[2], sides[1], sides[0]};
+    }
+
+    private static final class Unit {
+
+        static final Comparator<Unit> DECREASING = Comparator.comparingLong((Unit u) -> u.volume).reversed()
+                .thenComparing(Comparator.comparingLong((Unit u) -> u.weight).reversed())
+                .thenComparing(Comparator.comparingLong((Unit u) -> u.a).reversed())
+                .thenComparing(Comparator.comparingLong((Unit u) -> u.b).reversed())
+                .thenComparingInt(u -> u.quantity);
+
+        final long a;
+        final long b;
+        final long c;
+        final long volume;
+        final long weight;
+        final int quantity;
+
+        Unit(ParcelMetrics metrics, int quantity) {
+            long[] sides = sorted(metrics.lengthTenthMm(), metrics.widthTenthMm(), metrics.heightTenthMm());
+            this.a = sides[0];
+            this.b = sides[1];
+            this.c = sides[2];
+            this.volume = Math.multiplyExact(Math.multiplyExact(a, b), c);
+            this.weight = metrics.weightGrams();
+            this.quantity = quantity;
+        }
+    }
+
+    /** Open parcels as parallel primitive arrays; carton -1 marks a unit in its own packaging. */
+    private final class Parcels {
+        int size;
+        int[] carton = new int[8];
+        long[] freeVolume = new long[8];
+        long[] freeWeight = new long[8];
+        long[] usedVolume = new long[8];
+        long[] usedWeight = new long[8];
+        long[] maxA = new long[8];
+        long[] maxB = new long[8];
+        long[] maxC = new long[8];
+        int[] units = new int[8];
+
+        int open(int cartonIndex, long volume, long weight) {
+            if (size == carton.length) {
+                grow();
+            }
+            carton[size] = cartonIndex;
+            freeVolume[size] = volume;
+            freeWeight[size] = weight;
+            return size++;
+        }
+
+        void place(int p, Unit unit, int count) {
+            long volume = Math.multiplyExact(unit.volume, count);
+            long weight = Math.multiplyExact(unit.weight, count);
+            freeVolume[p] -= volume;
+            freeWeight[p] -= weight;
+            usedVolume[p] += volume;
+            usedWeight[p] += weight;
+            maxA[p] = Math.max(maxA[p], unit.a);
+            maxB[p] = Math.max(maxB[p], unit.b);
+            maxC[p] = Math.max(maxC[p], unit.c);
+            units[p] += count;
+        }
+
+        void placeAlone(Unit unit) {
+            int p = open(-1, 0, 0);
+            place(p, unit, 1);
+        }
+
+        PackingPlan toPlan() {
+            List<PackedParcel> result = new ArrayList<>(size);
+            for (int p = 0; p < size; p++) {
+                if (carton[p] < 0) {
+                    result.add(new PackedParcel(OWN_PACKAGING, maxA[p], maxB[p], maxC[p], usedWeight[p], units[p]));
+                    continue;
+                }
+                int c = smallestHolding(p);
+                result.add(new PackedParcel(names[c], sideA[c], sideB[c], sideC[c], usedWeight[p], units[p]));
+            }
+            return new PackingPlan(List.copyOf(result));
+        }
+
+        private int smallestHolding(int p) {
+            for (int c = 0; c < carton[p]; c++) {
+                if (maxA[p] <= sideA[c] && maxB[p] <= sideB[c] && maxC[p] <= sideC[c]
+                        && usedWeight[p] <= maxWeight[c] && (usedVolume[p] <= capacity[c] || units[p] == 1)) {
+                    return c;
+                }
+            }
+            return carton[p];
+        }
+
+        private void grow() {
+            int length = carton.length * 2;
+            carton = Arrays.copyOf(carton, length);
+            freeVolume = Arrays.copyOf(freeVolume, length);
+            freeWeight = Arrays.copyOf(freeWeight, length);
+            usedVolume = Arrays.copyOf(usedVolume, length);
+            usedWeight = Arrays.copyOf(usedWeight, length);
+            maxA = Arrays.copyOf(maxA, length);
+            maxB = Arrays.copyOf(maxB, length);
+            maxC = Arrays.copyOf(maxC, length);
+            units = Arrays.copyOf(units, length);
+        }
+    }
+}
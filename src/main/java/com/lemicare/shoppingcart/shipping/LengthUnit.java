@@ -0,0 +1,51 @@
+package com.lemicare.shoppingcart.shipping;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Length units used in catalogue data, with their size in tenths of a millimetre.
+ */
+public enum LengthUnit {
+    MM(10.0, "mm", "millimeter", "millimeters", "millimetre", "millimetres"),
+    CM(100.0, "cm", "centimeter", "centimeters", "centimetre", "centimetres"),
+    M(10_000.0, "m", "meter", "meters", "metre", "metres"),
+    INCH(254.0, "in", "inch", "inches");
+
+    // Every spelling in lower and upper case, so the common cases resolve without case folding.
+    private static final Map<String, LengthUnit> BY_NAME = new HashMap<>();
+
+    static {
+        for (LengthUnit unit : values()) {
+            for (String alias : unit.aliases) {
+                BY_NAME.put(alias, unit);
+                BY_NAME.put(alias.toUpperCase(Locale.ROOT), unit);
+            }
+        }
+    }
+
+    private final double tenthsOfMm;
+    private final String[] aliases;
+
+    LengthUnit(double tenthsOfMm, String... aliases) {
+        this.tenthsOfMm = tenthsOfMm;
+        this.aliases = aliases;
+    }
+
+    /** Whole tenths of a millimetre in {@code value} of this unit, rounded half up. */
+    public long toTenthsOfMm(double value) {
+        return Math.round(value * tenthsOfMm);
+    }
+
+    /**
+     * @return the unit, or null if the name is not a known spelling.
+     */
+    public static LengthUnit resolve(String name) {
+        if (name == null) {
+            return null;
+        }
+        LengthUnit unit = BY_NAME.get(name);
+        return unit != null ? unit : BY_NAME.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+}
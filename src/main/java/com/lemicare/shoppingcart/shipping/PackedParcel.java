@@ -0,0 +1,13 @@
+package com.lemicare.shoppingcart.shipping;
+
+/**
+ * One parcel of a {@link PackingPlan}: the carton used, its dimensions and the weight of its
+ * contents.
+ *
+ * @param carton name of the carton, or {@link CartonPacker#OWN_PACKAGING} for an item that fits
+ *               no carton and ships in its own packaging.
+ * @param units  item units in the parcel.
+ */
+public record PackedParcel(String carton, long lengthTenthMm, long widthTenthMm, long heightTenthMm,
+                           long weightGrams, int units) {
+}
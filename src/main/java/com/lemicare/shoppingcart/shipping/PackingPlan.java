@@ -0,0 +1,17 @@
+package com.lemicare.shoppingcart.shipping;
+
+import java.util.List;
+
+/**
+ * Parcels a cart is shipped in.
+ */
+public record PackingPlan(List<PackedParcel> parcels) {
+
+    public int units() {
+        int units = 0;
+        for (PackedParcel parcel : parcels) {
+            units += parcel.units();
+        }
+        return units;
+    }
+}
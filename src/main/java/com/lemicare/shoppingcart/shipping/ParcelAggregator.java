@@ -0,0 +1,62 @@
+package com.lemicare.shoppingcart.shipping;
+
+import java.math.BigDecimal;
+
+/**
+ * Accumulates cart lines into one parcel: total weight, cumulative volume and the largest
+ * length, width and height of any item. All state is primitive, so adding a line allocates
+ * nothing; {@link BigDecimal} values are only produced for the courier request.
+ */
+public final class ParcelAggregator {
+
+    private long weightGrams;
+    private long volumeTenthMm3;
+    private long maxLengthTenthMm;
+    private long maxWidthTenthMm;
+    private long maxHeightTenthMm;
+
+    /**
+     * @throws ArithmeticException if a total overflows.
+     */
+    public void add(ParcelMetrics metrics, int quantity) {
+        weightGrams = Math.addExact(weightGrams, Math.multiplyExact(metrics.weightGrams(), quantity));
+        if (metrics.hasDimensions()) {
+            maxLengthTenthMm = Math.max(maxLengthTenthMm, metrics.lengthTenthMm());
+            maxWidthTenthMm = Math.max(maxWidthTenthMm, metrics.widthTenthMm());
+            maxHeightTenthMm = Math.max(maxHeightTenthMm, metrics.heightTenthMm());
+            long unitVolume = Math.multiplyExact(Math.multiplyExact(metrics.lengthTenthMm(), metrics.widthTenthMm()),
+                    metrics.heightTenthMm());
+            volumeTenthMm3 = Math.addExact(volumeTenthMm3, Math.multiplyExact(unitVolume, quantity));
+        }
+    }
+
+    public long weightGrams() {
+        return weightGrams;
+    }
+
+    public long volumeTenthMm3() {
+        return volumeTenthMm3;
+    }
+
+    public long maxLengthTenthMm() {
+        return maxLengthTenthMm;
+    }
+
+    public long maxWidthTenthMm() {
+        return maxWidthTenthMm;
+    }
+
+    public long maxHeightTenthMm() {
+        return maxHeightTenthMm;
+    }
+
+    /** Grams as kilograms with three decimals. */
+    public static BigDecimal toKg(long grams) {
+        return BigDecimal.valueOf(grams, 3);
+    }
+
+    /** Tenths of a millimetre as centimetres with two decimals. */
+    public static BigDecimal toCm(long tenthMm) {
+        return BigDecimal.valueOf(tenthMm, 2);
+    }
+}
@@ -0,0 +1,54 @@
+package com.lemicare.shoppingcart.shipping;
+
+import com.lemicare.shoppingcart.dto.response.CartProductView;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Weight and dimensions of one unit of a product, normalized to grams and tenths of a
+ * millimetre. Built once per distinct product, so aggregating lines never touches units again.
+ *
+ * @param hasWeight     whether the catalogue had a weight for the product.
+ * @param hasDimensions whether the catalogue had dimensions for the product.
+ */
+@Slf4j
+public record ParcelMetrics(long weightGrams, long lengthTenthMm, long widthTenthMm, long heightTenthMm,
+                            boolean hasWeight, boolean hasDimensions) {
+
+    /**
+     * Unknown units are read as kilograms and centimetres, as shipping estimates always have.
+     */
+    public static ParcelMetrics of(CartProductView product) {
+        long weightGrams = 0;
+        boolean hasWeight = false;
+        CartProductView.WeightView weight = product.getWeight();
+        if (weight != null && weight.getValue() != null && weight.getUnit() != null) {
+            WeightUnit unit = WeightUnit.resolve(weight.getUnit());
+            if (unit == null) {
+                log.warn("Unknown weight unit: {}. Assuming KG.", weight.getUnit());
+                unit = WeightUnit.KG;
+            }
+            weightGrams = unit.toGrams(weight.getValue().doubleValue());
+            hasWeight = true;
+        }
+
+        long length = 0;
+        long width = 0;
+        long height = 0;
+        boolean hasDimensions = false;
+        CartProductView.DimensionsView dims = product.getDimensions();
+        if (dims != null && dims.getUnit() != null) {
+            LengthUnit unit = LengthUnit.resolve(dims.getUnit());
+            if (unit == null) {
+                log.warn("Unknown dimension unit: {}. Assuming CM.", dims.getUnit());
+                unit = LengthUnit.CM;
+            }
+            length = dims.getLength() != null ? unit.toTenthsOfMm(dims.getLength().doubleValue()) : 0;
+            width = dims.getWidth() != null ? unit.toTenthsOfMm(dims.getWidth().doubleValue()) : 0;
+            height = dims.getHeight() != null ? unit.toTenthsOfMm(dims.getHeight().doubleValue()) : 0;
+            hasDimensions = true;
+        } else if (dims != null) {
+            hasDimensions = true; // without a unit the dimensions count as zero
+        }
+        return new ParcelMetrics(weightGrams, length, width, height, hasWeight, hasDimensions);
+    }
+}
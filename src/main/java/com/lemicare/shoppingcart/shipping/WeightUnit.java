@@ -0,0 +1,51 @@
+package com.lemicare.shoppingcart.shipping;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Weight units used in catalogue data, with their size in grams.
+ */
+public enum WeightUnit {
+    G(1.0, "g", "gm", "gms", "gram", "grams"),
+    KG(1000.0, "kg", "kgs", "kilogram", "kilograms"),
+    LB(453.592, "lb", "lbs", "pound", "pounds"),
+    OZ(28.3495, "oz", "ounce", "ounces");
+
+    // Every spelling in lower and upper case, so the common cases resolve without case folding.
+    private static final Map<String, WeightUnit> BY_NAME = new HashMap<>();
+
+    static {
+        for (WeightUnit unit : values()) {
+            for (String alias : unit.aliases) {
+                BY_NAME.put(alias, unit);
+                BY_NAME.put(alias.toUpperCase(Locale.ROOT), unit);
+            }
+        }
+    }
+
+    private final double grams;
+    private final String[] aliases;
+
+    WeightUnit(double grams, String... aliases) {
+        this.grams = grams;
+        this.aliases = aliases;
+    }
+
+    /** Whole grams in {@code value} of this unit, rounded half up. */
+    public long toGrams(double value) {
+        return Math.round(value * grams);
+    }
+
+    /**
+     * @return the unit, or null if the name is not a known spelling.
+     */
+    public static WeightUnit resolve(String name) {
+        if (name == null) {
+            return null;
+        }
+        WeightUnit unit = BY_NAME.get(name);
+        return unit != null ? unit : BY_NAME.get(name.trim().toLowerCase(Locale.ROOT));
+    }
+}
@@ -0,0 +1,194 @@
+package com.lemicare.shoppingcart.startup;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.cloud.Timestamp;
+import com.lemicare.shoppingcart.dto.request.CartDto;
+import com.lemicare.shoppingcart.dto.response.CartProductView;
+import com.lemicare.shoppingcart.mapper.CartMapper;
+import com.lemicare.shoppingcart.storage.CartStore;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Warms the instance up before it reports ready, so a cold start does not make the first
+ * shoppers pay for credential loading, channel and TLS set-up and interpreted code.
+ * <p>
+ * Spring Boot only moves the readiness state to ACCEPTING_TRAFFIC once all application runners
+ * have returned, so the readiness probe stays down while this runs. In parallel it:
+ * <ul>
+ *     <li>runs a cheap store read, which opens the Firestore channels and fetches a token,</li>
+ *     <li>resolves and pre-connects every downstream Feign host; Feign's default client uses
+ *     {@link HttpURLConnection}, so the kept-alive connections are reused by the first calls,</li>
+ *     <li>exercises the cart mapping and JSON (de)serialization paths until they are compiled.</li>
+ * </ul>
+ * Failures are logged and never prevent start-up. The store read is repeated afterwards and its
+ * latency reported as the first warm response, next to the time from JVM start to ready.
+ */
+@Slf4j
+@Component
+@EnableConfigurationProperties(WarmUpProperties.class)
+public class StartupWarmUp implements ApplicationRunner {
+
+    private final WarmUpProperties properties;
+    private final CartStore cartStore;
+    private final CartMapper cartMapper;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry registry;
+    private final List<String> downstreamUrls;
+    private final AtomicLong timeToReadyMillis = new AtomicLong();
+    private final AtomicLong firstWarmReadMillis = new AtomicLong();
+
+    public StartupWarmUp(WarmUpProperties properties, CartStore cartStore, CartMapper cartMapper,
+                         ObjectMapper objectMapper, MeterRegistry registry,
+                         @Value("${services.inventory.url}") String inventoryUrl,
+                         @Value("${services.cms.url}") String storefrontUrl,
+                         @Value("${services.delivery.url}") String deliveryUrl) {
+        this.properties = properties;
+        this.cartStore = cartStore;
+        this.cartMapper = cartMapper;
+        this.objectMapper = objectMapper;
+        this.registry = registry;
+        this.downstreamUrls = List.of(inventoryUrl, storefrontUrl, deliveryUrl);
+        TimeGauge.builder("cart.startup.time.to.ready", timeToReadyMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Time from JVM start until warm-up finished")
+                .register(registry);
+        TimeGauge.builder("cart.startup.first.warm.read", firstWarmReadMillis, TimeUnit.MILLISECONDS, AtomicLong::get)
+                .description("Latency of the first store read after warm-up")
+                .register(registry);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.nanoTime();
+
+        List<CompletableFuture<Void>> tasks = new ArrayList<>();
+        tasks.add(CompletableFuture.runAsync(() -> timed("store", this::warmStore)));
+        for (String url : downstreamUrls) {
+            tasks.add(CompletableFuture.runAsync(() -> timed("downstream", () -> preConnect(url))));
+        }
+        timed("mapping", this::warmMapping);
+
+        try {
+            CompletableFuture.allOf(tasks.toArray(new CompletableFuture[0]))
+                    .get(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Warm-up did not finish within {}; reporting ready anyway.", properties.getTimeout());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        } catch (ExecutionException e) {
+            log.warn("Warm-up step failed: {}", e.getCause().getMessage());
+        }
+
+        long warmReadStart = System.nanoTime();
+        try {
+            cartStore.warmUp();
+            firstWarmReadMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - warmReadStart));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            log.warn("Post warm-up store read failed: {}", e.getMessage());
+        }
+        timeToReadyMillis.set(ManagementFactory.getRuntimeMXBean().getUptime());
+
+        log.info("Warm-up finished in {} ms; ready {} ms after JVM start; first warm store read took {} ms.",
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start), timeToReadyMillis.get(), firstWarmReadMillis.get());
+    }
+
+    private void warmStore() {
+        try {
+            cartStore.warmUp();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | RuntimeException e) {
+            log.warn("Store warm-up read failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Resolves the host and completes a HEAD request, leaving a TLS connection in the JDK
+     * keep-alive cache. The response status does not matter.
+     */
+    private void preConnect(String url) {
+        try {
+            URI uri = URI.create(url);
+            InetAddress.getAllByName(uri.getHost());
+            HttpURLConnection connection = (HttpURLConnection) uri.toURL().openConnection();
+            connection.setRequestMethod("HEAD");
+            connection.setConnectTimeout((int) properties.getConnectTimeout().toMillis());
+            connection.setReadTimeout((int) properties.getConnectTimeout().toMillis());
+            int status = connection.getResponseCode();
+            // Draining the (empty) body returns the connection to the keep-alive cache.
+            InputStream body = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+            if (body != null) {
+                body.readAllBytes();
+                body.close();
+            }
+            log.debug("Pre-connected to {} (HTTP {}).", uri.getHost(), status);
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Could not pre-connect to {}: {}", url, e.getMessage());
+        }
+        // No disconnect(): that would close the socket instead of keeping it for reuse.
+    }
+
+    private void warmMapping() {
+        Timestamp now = Timestamp.now();
+        Cart cart = Cart.builder()
+                .cartId("warmup-cart").orgId("warmup").userId("warmup-user").status("ACTIVE")
+                .totalItems(3).subtotalAmount(297.0).createdAt(now).lastModifiedAt(now)
+                .build();
+        List<CartItem> items = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            items.add(CartItem.builder()
+                    .cartItemId("warmup-item-" + i).orgId("warmup").cartId("warmup-cart").productId("warmup-product-" + i)
+                    .productName("Warm-up product").priceAtAddToCart(99.0).quantity(1).itemTotalPrice(99.0)
+                    .addedAt(now).lastModifiedAt(now).sku("WARMUP")
+                    .build());
+        }
+        byte[] productJson = ("{\"productId\":\"warmup-product\",\"productName\":\"Warm-up product\",\"mrp\":99.0,"
+                + "\"sku\":\"WARMUP\",\"weight\":{\"value\":250,\"unit\":\"g\"},"
+                + "\"dimensions\":{\"length\":10,\"width\":5,\"height\":2,\"unit\":\"cm\"}}").getBytes();
+        try {
+            for (int i = 0; i < properties.getMappingIterations(); i++) {
+                CartDto dto = cartMapper.toDto(cart, items);
+                objectMapper.writeValueAsBytes(dto);
+                objectMapper.readValue(productJson, CartProductView.class);
+            }
+        } catch (IOException e) {
+            log.warn("Mapping warm-up failed: {}", e.getMessage());
+        }
+    }
+
+    private void timed(String phase, Runnable step) {
+        Timer.builder("cart.startup.warmup")
+                .tag("phase", phase)
+                .register(registry)
+                .record(step);
+    }
+}
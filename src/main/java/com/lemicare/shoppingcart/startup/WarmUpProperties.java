@@ -0,0 +1,26 @@
+package com.lemicare.shoppingcart.startup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the start-up warm-up, bound from {@code app.warmup.*} in application.yml.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.warmup")
+public class WarmUpProperties {
+
+    /** Whether the warm-up runs before the instance reports ready. */
+    private boolean enabled = true;
+
+    /** Round trips through the cart mapping and JSON serialization path. */
+    private int mappingIterations = 500;
+
+    /** Connect and read timeout for pre-connecting to each downstream host. */
+    private Duration connectTimeout = Duration.ofSeconds(3);
+
+    /** Upper bound on the whole warm-up; readiness is never held back longer than this. */
+    private Duration timeout = Duration.ofSeconds(20);
+}
@@ -0,0 +1,18 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+
+import java.util.Optional;
+
+/**
+ * Receives the state of an owner's active cart from {@link CartStore#watchActiveCart}.
+ * Calls for one watch never overlap.
+ */
+public interface CartChangeListener {
+
+    /** The owner's active cart after a change, or empty when the owner has none. */
+    void onChange(Optional<Cart> activeCart);
+
+    /** The watch failed and has stopped; no further calls follow. */
+    void onError(Throwable error);
+}
@@ -0,0 +1,10 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.google.cloud.Timestamp;
+
+/**
+ * Position after the last cart of a page, for queries ordered by
+ * {@code lastModifiedAt} and then cart id.
+ */
+public record CartCursor(Timestamp lastModifiedAt, String cartId) {
+}
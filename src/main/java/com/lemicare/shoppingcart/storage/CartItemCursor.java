@@ -0,0 +1,66 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.CartItem;
+import com.google.cloud.Timestamp;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Position after the last item of a page, for item listings ordered by {@code addedAt} and
+ * then cart item id. Clients receive it as an opaque URL-safe token.
+ */
+public record CartItemCursor(Timestamp addedAt, String cartItemId) {
+
+    /** Order of paged item listings; items without {@code addedAt} sort first. */
+    static final Comparator<CartItem> ITEM_ORDER = Comparator
+            .comparing(CartItem::getAddedAt, Comparator.nullsFirst(Comparator.<Timestamp>naturalOrder()))
+            .thenComparing(CartItem::getCartItemId);
+
+    public static CartItemCursor after(CartItem item) {
+        return new CartItemCursor(item.getAddedAt(), item.getCartItemId());
+    }
+
+    public String encode() {
+        String raw = (addedAt == null ? "" : addedAt.getSeconds() + "." + addedAt.getNanos()) + ":" + cartItemId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}.
+     */
+    public static CartItemCursor decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            int colon = raw.indexOf(':');
+            String position = raw.substring(0, colon);
+            String cartItemId = raw.substring(colon + 1);
+            if (cartItemId.isEmpty()) {
+                throw new IllegalArgumentException("Empty cart item id");
+            }
+            Timestamp addedAt = null;
+            if (!position.isEmpty()) {
+                int dot = position.indexOf('.');
+                addedAt = Timestamp.ofTimeSecondsAndNanos(
+                        Long.parseLong(position.substring(0, dot)), Integer.parseInt(position.substring(dot + 1)));
+            }
+            return new CartItemCursor(addedAt, cartItemId);
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cart item cursor.", e);
+        }
+    }
+
+    /** Sorts already loaded items and cuts out the page following {@code after}. */
+    static List<CartItem> page(Collection<CartItem> items, CartItemCursor after, int limit) {
+        CartItem from = after == null ? null
+                : CartItem.builder().addedAt(after.addedAt()).cartItemId(after.cartItemId()).build();
+        return items.stream()
+                .filter(item -> from == null || ITEM_ORDER.compare(item, from) > 0)
+                .sorted(ITEM_ORDER)
+                .limit(limit)
+                .toList();
+    }
+}
@@ -0,0 +1,8 @@
+package com.lemicare.shoppingcart.storage;
+
+/**
+ * Range of cart ids, {@code fromCartId} inclusive and {@code toCartId} exclusive; a null bound
+ * is open. Disjoint ranges let one organization's carts be scanned in parallel.
+ */
+public record CartRange(String fromCartId, String toCartId) {
+}
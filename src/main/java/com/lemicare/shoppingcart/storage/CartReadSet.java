@@ -0,0 +1,26 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Result of a batched transactional read: the carts and items that exist, keyed by id in the
+ * order they were requested. Ids that were not found are simply absent.
+ */
+public record CartReadSet(Map<String, Cart> carts, Map<String, CartItem> items) {
+
+    /** Items of the read set that belong to the given cart. */
+    public List<CartItem> itemsOf(String cartId) {
+        List<CartItem> result = new ArrayList<>();
+        for (CartItem item : items.values()) {
+            if (cartId.equals(item.getCartId())) {
+                result.add(item);
+            }
+        }
+        return result;
+    }
+}
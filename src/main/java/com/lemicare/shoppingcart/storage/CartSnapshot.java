@@ -0,0 +1,13 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+
+import java.util.List;
+
+/**
+ * A cart document together with all of its line items, as held by the hot-cart tier and
+ * returned by {@link CartStore#scanCarts}.
+ */
+public record CartSnapshot(Cart cart, List<CartItem> items) {
+}
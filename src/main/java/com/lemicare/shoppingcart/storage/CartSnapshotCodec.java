@@ -0,0 +1,125 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.google.cloud.Timestamp;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of a {@link CartSnapshot} for off-heap storage.
+ * Fields are written positionally; bump {@link #FORMAT_VERSION} whenever the layout changes.
+ */
+final class CartSnapshotCodec {
+
+    private static final int FORMAT_VERSION = 1;
+
+    private CartSnapshotCodec() {
+    }
+
+    static byte[] encode(CartSnapshot snapshot) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(256 + snapshot.items().size() * 160);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(FORMAT_VERSION);
+            Cart cart = snapshot.cart();
+            writeString(out, cart.getCartId());
+            writeString(out, cart.getOrgId());
+            writeString(out, cart.getUserId());
+            writeString(out, cart.getGuestId());
+            writeString(out, cart.getStatus());
+            out.writeInt(cart.getTotalItems());
+            out.writeDouble(cart.getSubtotalAmount());
+            writeTimestamp(out, cart.getCreatedAt());
+            writeTimestamp(out, cart.getLastModifiedAt());
+
+            out.writeInt(snapshot.items().size());
+            for (CartItem item : snapshot.items()) {
+                writeString(out, item.getCartItemId());
+                writeString(out, item.getOrgId());
+                writeString(out, item.getCartId());
+                writeString(out, item.getProductId());
+                writeString(out, item.getProductName());
+                writeString(out, item.getSku());
+                out.writeDouble(item.getPriceAtAddToCart());
+                out.writeInt(item.getQuantity());
+                out.writeDouble(item.getItemTotalPrice());
+                writeTimestamp(out, item.getAddedAt());
+                writeTimestamp(out, item.getLastModifiedAt());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    static CartSnapshot decode(byte[] data) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                throw new IllegalStateException("Unsupported cart snapshot format: " + version);
+            }
+            Cart cart = Cart.builder()
+                    .cartId(readString(in))
+                    .orgId(readString(in))
+                    .userId(readString(in))
+                    .guestId(readString(in))
+                    .status(readString(in))
+                    .totalItems(in.readInt())
+                    .subtotalAmount(in.readDouble())
+                    .createdAt(readTimestamp(in))
+                    .lastModifiedAt(readTimestamp(in))
+                    .build();
+
+            int itemCount = in.readInt();
+            List<CartItem> items = new ArrayList<>(itemCount);
+            for (int i = 0; i < itemCount; i++) {
+                items.add(CartItem.builder()
+                        .cartItemId(readString(in))
+                        .orgId(readString(in))
+                        .cartId(readString(in))
+                        .productId(readString(in))
+                        .productName(readString(in))
+                        .sku(readString(in))
+                        .priceAtAddToCart(in.readDouble())
+                        .quantity(in.readInt())
+                        .itemTotalPrice(in.readDouble())
+                        .addedAt(readTimestamp(in))
+                        .lastModifiedAt(readTimestamp(in))
+                        .build());
+            }
+            return new CartSnapshot(cart, items);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static void writeTimestamp(DataOutputStream out, Timestamp value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value.getSeconds());
+            out.writeInt(value.getNanos());
+        }
+    }
+
+    private static Timestamp readTimestamp(DataInputStream in) throws IOException {
+        return in.readBoolean() ? Timestamp.ofTimeSecondsAndNanos(in.readLong(), in.readInt()) : null;
+    }
+}
@@ -0,0 +1,55 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+
+import java.util.Objects;
+
+/**
+ * Helpers shared by the cart store implementations.
+ */
+final class CartSnapshots {
+
+    private CartSnapshots() {
+    }
+
+    /**
+     * Whether the cart still has the status, owner and {@code lastModifiedAt} of the expected copy.
+     */
+    static boolean isUnchanged(Cart expected, Cart current) {
+        return current != null
+                && Objects.equals(expected.getStatus(), current.getStatus())
+                && Objects.equals(expected.getUserId(), current.getUserId())
+                && Objects.equals(expected.getLastModifiedAt(), current.getLastModifiedAt());
+    }
+
+    static Cart copyOf(Cart cart) {
+        return Cart.builder()
+                .cartId(cart.getCartId())
+                .orgId(cart.getOrgId())
+                .userId(cart.getUserId())
+                .guestId(cart.getGuestId())
+                .status(cart.getStatus())
+                .totalItems(cart.getTotalItems())
+                .subtotalAmount(cart.getSubtotalAmount())
+                .createdAt(cart.getCreatedAt())
+                .lastModifiedAt(cart.getLastModifiedAt())
+                .build();
+    }
+
+    static CartItem copyOf(CartItem item) {
+        return CartItem.builder()
+                .cartItemId(item.getCartItemId())
+                .orgId(item.getOrgId())
+                .cartId(item.getCartId())
+                .productId(item.getProductId())
+                .productName(item.getProductName())
+                .priceAtAddToCart(item.getPriceAtAddToCart())
+                .quantity(item.getQuantity())
+                .itemTotalPrice(item.getItemTotalPrice())
+                .addedAt(item.getAddedAt())
+                .lastModifiedAt(item.getLastModifiedAt())
+                .sku(item.getSku())
+                .build();
+    }
+}
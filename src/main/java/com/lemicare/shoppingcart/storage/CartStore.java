@@ -0,0 +1,125 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.google.cloud.Timestamp;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
+
+/**
+ * Storage SPI for carts and their line items.
+ * <p>
+ * The service layer talks only to this interface; the backing implementation is picked by
+ * profile: {@link FirestoreCartStore} everywhere except the {@code local} profile, which
+ * uses the in-process {@link InMemoryCartStore}.
+ * <p>
+ * Reads outside {@link #runInTransaction} are not isolated. Inside a transaction, documents
+ * read through the {@link CartTransaction} are checked for conflicts at commit and the
+ * callback may be re-run, so it must not have side effects outside the transaction.
+ */
+public interface CartStore {
+
+    /** Attempts made by {@link #runInTransaction(CartTransactionCallback)}, as in the Firestore client. */
+    int DEFAULT_TRANSACTION_ATTEMPTS = 5;
+
+    /** Status of a cart whose deletion by {@link #deleteCartsIfUnchanged} has started. */
+    String REAPING = "REAPING";
+
+    /** Looks up the active cart of a logged-in user within an organization. */
+    Optional<Cart> findCartByUser(String orgId, String userId) throws ExecutionException, InterruptedException;
+
+    /** Looks up the active cart of a guest within an organization. */
+    Optional<Cart> findCartByGuest(String orgId, String guestId) throws ExecutionException, InterruptedException;
+
+    List<CartItem> findItemsByCartId(String cartId) throws ExecutionException, InterruptedException;
+
+    Optional<CartItem> findItemByCartIdAndProductId(String cartId, String productId) throws ExecutionException, InterruptedException;
+
+    /**
+     * Looks up the active cart of a user or, when {@code userId} is null, of a guest, reading only
+     * its id, status, totals and timestamps. Other fields of the returned cart are not set.
+     */
+    Optional<Cart> findActiveCartHeader(String orgId, String userId, String guestId)
+            throws ExecutionException, InterruptedException;
+
+    /**
+     * Returns up to {@code limit} items of the cart ordered by {@code addedAt} and then cart item
+     * id, starting after the cursor ({@code null} for the first page). Reads at most
+     * {@code limit} item documents.
+     */
+    List<CartItem> findItemsPage(String cartId, CartItemCursor after, int limit)
+            throws ExecutionException, InterruptedException;
+
+    /**
+     * Returns up to {@code limit} carts in the given status whose last modification is before
+     * {@code cutoff}, ordered by last modification and then cart id, starting after the cursor
+     * ({@code null} for the first page). With {@code guestsOnly}, carts with a user are left out
+     * by the query itself rather than read and skipped.
+     */
+    List<Cart> findCartsByStatusModifiedBefore(String status, boolean guestsOnly, Timestamp cutoff,
+                                               CartCursor after, int limit)
+            throws ExecutionException, InterruptedException;
+
+    /**
+     * Deletes each of the given carts together with all of its items, but only if its status,
+     * owner and {@code lastModifiedAt} are still those of the copy passed in, so a cart touched
+     * since it was read is kept. The check and the cart's removal from view are atomic; the items
+     * may then be deleted separately, at most {@code maxItemDeletesPerSecond} per second. A cart
+     * whose items could not all be deleted is left in status {@link #REAPING}, and passing it
+     * in again finishes it.
+     */
+    DeletedCarts deleteCartsIfUnchanged(Collection<Cart> carts, int maxItemDeletesPerSecond)
+            throws ExecutionException, InterruptedException;
+
+    /**
+     * Deletes every item of the cart outside any transaction, issuing deletes in parallel but at
+     * most {@code maxOpsPerSecond} per second. {@code onDeleted} receives the running count of
+     * deleted items as deletes complete, possibly from other threads.
+     *
+     * @return the number of items deleted.
+     */
+    long purgeItems(String cartId, int maxOpsPerSecond, LongConsumer onDeleted)
+            throws ExecutionException, InterruptedException;
+
+    /**
+     * Reads up to {@code limit} carts of the organization within the range, ordered by cart id
+     * and starting after {@code afterCartId} (null for the first page), each together with all
+     * of its items. A null {@code status} matches every status.
+     */
+    List<CartSnapshot> scanCarts(String orgId, String status, CartRange range, String afterCartId, int limit)
+            throws ExecutionException, InterruptedException;
+
+    /**
+     * Watches the active cart of a user or, when {@code userId} is null, of a guest. The listener
+     * is called with the current state right away and again after every change to it, including
+     * the cart being cleared, merged or replaced by a new one.
+     */
+    CartWatch watchActiveCart(String orgId, String userId, String guestId, CartChangeListener listener);
+
+    /**
+     * Performs a cheap read so connections, credentials and client code paths are initialized
+     * before the first real request. The default does nothing.
+     */
+    default void warmUp() throws ExecutionException, InterruptedException {
+    }
+
+    /**
+     * Runs the callback in a read-write transaction and returns its result once committed.
+     * Runtime exceptions thrown by the callback propagate unchanged.
+     */
+    default <T> T runInTransaction(CartTransactionCallback<T> callback) throws ExecutionException, InterruptedException {
+        return runInTransaction(DEFAULT_TRANSACTION_ATTEMPTS, callback);
+    }
+
+    /**
+     * Like {@link #runInTransaction(CartTransactionCallback)}, making at most {@code maxAttempts}
+     * attempts. When the last attempt is aborted by contention a
+     * {@link TransactionContentionException} is thrown.
+     */
+    <T> T runInTransaction(int maxAttempts, CartTransactionCallback<T> callback)
+            throws ExecutionException, InterruptedException;
+}
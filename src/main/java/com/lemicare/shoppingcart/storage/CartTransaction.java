@@ -0,0 +1,42 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Transactional view of the cart store handed to a {@link CartTransactionCallback}.
+ * All reads must happen before the first write, as with Firestore transactions.
+ * Writes become visible only when the transaction commits.
+ */
+public interface CartTransaction {
+
+    Optional<Cart> getCart(String cartId) throws ExecutionException, InterruptedException;
+
+    Optional<CartItem> getItem(String cartItemId) throws ExecutionException, InterruptedException;
+
+    /**
+     * Reads the given carts and items in a single round trip. Every document read becomes part
+     * of the transaction's read set, exactly as with {@link #getCart} and {@link #getItem}.
+     */
+    CartReadSet getAll(Collection<String> cartIds, Collection<String> cartItemIds)
+            throws ExecutionException, InterruptedException;
+
+    void putCart(Cart cart);
+
+    void putItem(CartItem cartItem);
+
+    void deleteCart(String cartId);
+
+    void deleteItem(String cartItemId);
+
+    /**
+     * Increments the cart's generation counter, kept next to the cart record. The generation
+     * moves forward whenever the cart's contents are discarded as a whole (e.g. on clear), so a
+     * reader holding an older generation knows its view of the items is gone.
+     */
+    void advanceGeneration(String cartId);
+}
@@ -0,0 +1,10 @@
+package com.lemicare.shoppingcart.storage;
+
+/**
+ * Work executed inside a {@link CartStore} transaction. May be invoked more than once
+ * when the transaction is retried.
+ */
+@FunctionalInterface
+public interface CartTransactionCallback<T> {
+    T apply(CartTransaction transaction) throws Exception;
+}
@@ -0,0 +1,43 @@
+package com.lemicare.shoppingcart.storage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Retry policy for cart transactions, bound from {@code app.storage.transactions.*}.
+ * <p>
+ * {@link #defaults} applies to every operation; entries in {@link #operations} override it for a
+ * single operation name as used by {@link CartTransactionRunner} (e.g. {@code merge-guest-cart}).
+ */
+@Data
+@ConfigurationProperties(prefix = "app.storage.transactions")
+public class CartTransactionProperties {
+
+    private RetryPolicy defaults = new RetryPolicy();
+
+    private Map<String, RetryPolicy> operations = new LinkedHashMap<>();
+
+    public RetryPolicy policyFor(String operation) {
+        return operations.getOrDefault(operation, defaults);
+    }
+
+    @Data
+    public static class RetryPolicy {
+
+        /** Total attempts including the first; Firestore's own default is 5. */
+        private int maxAttempts = 5;
+
+        /** Upper bound of the randomized pause before the first retry. */
+        private Duration initialBackoff = Duration.ofMillis(20);
+
+        /** Upper bound of the pause before any retry. */
+        private Duration maxBackoff = Duration.ofSeconds(1);
+
+        /** Growth of the backoff bound per retry. */
+        private double multiplier = 2.0;
+    }
+}
@@ -0,0 +1,216 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.lemicare.shoppingcart.metrics.TenantTags;
+import com.lemicare.shoppingcart.profiling.OperationTimings;
+import com.lemicare.shoppingcart.profiling.RequestLedger;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collection;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs named cart transactions with a per-operation retry policy and records how they behave.
+ * <p>
+ * Each attempt runs as a single-attempt store transaction; attempts aborted by contention are
+ * retried here with randomized exponential backoff, so the policy is ours rather than the
+ * client library's. Per operation and organization it records:
+ * <ul>
+ *     <li>{@code cart.tx.attempts} by outcome (committed, aborted, failed),</li>
+ *     <li>{@code cart.tx.attempt.duration}, how long one attempt held its read set,</li>
+ *     <li>{@code cart.tx.duration} for the whole transaction including retries,</li>
+ *     <li>{@code cart.tx.documents.read} and {@code cart.tx.documents.written} per committed attempt,</li>
+ *     <li>{@code cart.tx.exhausted} when the last attempt was aborted too.</li>
+ * </ul>
+ * Organization tags are bounded by {@link TenantTags}. Every attempt is also traced as a
+ * {@code cart.tx.attempt} span tagged with the operation, the attempt number and its outcome.
+ */
+@Slf4j
+public class CartTransactionRunner {
+
+    private final CartStore cartStore;
+    private final CartTransactionProperties properties;
+    private final MeterRegistry registry;
+    private final TenantTags tenantTags;
+    private final Tracer tracer;
+
+    public CartTransactionRunner(CartStore cartStore, CartTransactionProperties properties,
+                                 MeterRegistry registry, TenantTags tenantTags, Tracer tracer) {
+        this.cartStore = cartStore;
+        this.properties = properties;
+        this.registry = registry;
+        this.tenantTags = tenantTags;
+        this.tracer = tracer;
+    }
+
+    public <T> T run(String operation, String orgId, CartTransactionCallback<T> callback)
+            throws ExecutionException, InterruptedException {
+        CartTransactionProperties.RetryPolicy policy = properties.policyFor(operation);
+        String org = tenantTags.orgTag(orgId);
+        long startNanos = System.nanoTime();
+        String outcome = "failed";
+        try {
+            for (int attempt = 1; ; attempt++) {
+                CountingTransaction[] counted = new CountingTransaction[1];
+                long attemptStart = System.nanoTime();
+                Span span = tracer.nextSpan()
+                        .name("cart.tx.attempt")
+                        .tag("operation", operation)
+                        .tag("attempt", Integer.toString(attempt))
+                        .start();
+                // The span is ended in each branch, so the backoff pause is not part of it.
+                try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+                    T result = cartStore.runInTransaction(1, transaction -> {
+                        counted[0] = new CountingTransaction(transaction);
+                        return callback.apply(counted[0]);
+                    });
+                    span.tag("outcome", "committed").end();
+                    recordAttempt(operation, org, "committed", attemptStart);
+                    if (counted[0] != null) {
+                        summary("cart.tx.documents.read", operation, org).record(counted[0].reads);
+                        summary("cart.tx.documents.written", operation, org).record(counted[0].writes);
+                    }
+                    outcome = "committed";
+                    return result;
+                } catch (TransactionContentionException e) {
+                    span.tag("outcome", "aborted").end();
+                    recordAttempt(operation, org, "aborted", attemptStart);
+                    if (attempt >= policy.getMaxAttempts()) {
+                        Counter.builder("cart.tx.exhausted")
+                                .tag("operation", operation).tag("org", org)
+                                .register(registry).increment();
+                        log.warn("Transaction {} for orgId {} aborted {} times, giving up.", operation, orgId, attempt);
+                        outcome = "exhausted";
+                        throw e;
+                    }
+                    long pauseMillis = backoffMillis(policy, attempt);
+                    log.debug("Transaction {} for orgId {} aborted on attempt {}, retrying in {} ms.",
+                            operation, orgId, attempt, pauseMillis);
+                    Thread.sleep(pauseMillis);
+                } catch (ExecutionException | InterruptedException | RuntimeException e) {
+                    span.error(e).tag("outcome", "failed").end();
+                    recordAttempt(operation, org, "failed", attemptStart);
+                    throw e;
+                } finally {
+                    if (counted[0] != null) {
+                        RequestLedger.recordDocumentsRead(counted[0].reads);
+                    }
+                }
+            }
+        } finally {
+            Timer.builder("cart.tx.duration")
+                    .tag("operation", operation).tag("org", org).tag("outcome", outcome)
+                    .register(registry)
+                    .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private void recordAttempt(String operation, String org, String outcome, long attemptStartNanos) {
+        OperationTimings.recordTransactionAttempt();
+        RequestLedger.recordTransactionAttempt();
+        Counter.builder("cart.tx.attempts")
+                .tag("operation", operation).tag("org", org).tag("outcome", outcome)
+                .register(registry).increment();
+        Timer.builder("cart.tx.attempt.duration")
+                .tag("operation", operation).tag("org", org).tag("outcome", outcome)
+                .register(registry)
+                .record(System.nanoTime() - attemptStartNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private DistributionSummary summary(String name, String operation, String org) {
+        return DistributionSummary.builder(name)
+                .tag("operation", operation).tag("org", org)
+                .register(registry);
+    }
+
+    /**
+     * Full jitter: a random pause up to the exponentially growing bound, so retries of
+     * transactions that collided once do not collide again.
+     */
+    private static long backoffMillis(CartTransactionProperties.RetryPolicy policy, int attempt) {
+        double bound = policy.getInitialBackoff().toMillis() * Math.pow(policy.getMultiplier(), attempt - 1);
+        long capped = (long) Math.min(bound, policy.getMaxBackoff().toMillis());
+        return capped <= 0 ? 0 : ThreadLocalRandom.current().nextLong(capped + 1);
+    }
+
+    /**
+     * Passes every call through and counts documents written and documents read that exist, as
+     * the store's query metrics do; ids that were looked up but not found are not counted.
+     */
+    private static final class CountingTransaction implements CartTransaction {
+
+        private final CartTransaction transaction;
+        private int reads;
+        private int writes;
+
+        private CountingTransaction(CartTransaction transaction) {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public Optional<Cart> getCart(String cartId) throws ExecutionException, InterruptedException {
+            Optional<Cart> cart = transaction.getCart(cartId);
+            if (cart.isPresent()) {
+                reads++;
+            }
+            return cart;
+        }
+
+        @Override
+        public Optional<CartItem> getItem(String cartItemId) throws ExecutionException, InterruptedException {
+            Optional<CartItem> item = transaction.getItem(cartItemId);
+            if (item.isPresent()) {
+                reads++;
+            }
+            return item;
+        }
+
+        @Override
+        public CartReadSet getAll(Collection<String> cartIds, Collection<String> cartItemIds)
+                throws ExecutionException, InterruptedException {
+            CartReadSet readSet = transaction.getAll(cartIds, cartItemIds);
+            reads += readSet.carts().size() + readSet.items().size();
+            return readSet;
+        }
+
+        @Override
+        public void putCart(Cart cart) {
+            writes++;
+            transaction.putCart(cart);
+        }
+
+        @Override
+        public void putItem(CartItem cartItem) {
+            writes++;
+            transaction.putItem(cartItem);
+        }
+
+        @Override
+        public void deleteCart(String cartId) {
+            writes++;
+            transaction.deleteCart(cartId);
+        }
+
+        @Override
+        public void deleteItem(String cartItemId) {
+            writes++;
+            transaction.deleteItem(cartItemId);
+        }
+
+        @Override
+        public void advanceGeneration(String cartId) {
+            writes++;
+            transaction.advanceGeneration(cartId);
+        }
+    }
+}
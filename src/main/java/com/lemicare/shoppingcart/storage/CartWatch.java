@@ -0,0 +1,11 @@
+package com.lemicare.shoppingcart.storage;
+
+/**
+ * Handle of a watch started with {@link CartStore#watchActiveCart}.
+ */
+@FunctionalInterface
+public interface CartWatch {
+
+    /** Stops the watch; no listener calls are made afterwards. Safe to call more than once. */
+    void cancel();
+}
@@ -0,0 +1,7 @@
+package com.lemicare.shoppingcart.storage;
+
+/**
+ * Outcome of {@link CartStore#deleteCartsIfUnchanged}: carts actually deleted and their items.
+ */
+public record DeletedCarts(int carts, long items) {
+}
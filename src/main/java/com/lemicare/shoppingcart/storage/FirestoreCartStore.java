@@ -0,0 +1,466 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.cosmicdoc.common.repository.CartItemRepository;
+import com.google.api.core.ApiFuture;
+import com.google.api.core.ApiFutureCallback;
+import com.google.api.core.ApiFutures;
+import com.google.api.gax.rpc.ApiException;
+import com.google.api.gax.rpc.StatusCode;
+import com.google.cloud.Timestamp;
+import com.google.cloud.firestore.BulkWriter;
+import com.google.cloud.firestore.BulkWriterOptions;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.FieldPath;
+import com.google.cloud.firestore.FieldValue;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.ListenerRegistration;
+import com.google.cloud.firestore.Query;
+import com.google.cloud.firestore.QueryDocumentSnapshot;
+import com.google.cloud.firestore.SetOptions;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.TransactionOptions;
+import com.google.cloud.firestore.WriteResult;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.lemicare.shoppingcart.profiling.OperationTimings;
+import com.lemicare.shoppingcart.profiling.RequestLedger;
+import com.lemicare.shoppingcart.tracing.ContextPropagation;
+import io.micrometer.context.ContextSnapshot;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link CartStore} backed by the "carts" and "cartItems" Firestore collections.
+ * Item queries go through the shared repository; owner lookups, maintenance queries and
+ * transactions run on the Firestore client.
+ */
+@Component
+@Profile("!local")
+@RequiredArgsConstructor
+public class FirestoreCartStore implements CartStore {
+
+    static final String CARTS = "carts";
+    static final String CART_ITEMS = "cartItems";
+    /** Extra field on cart documents, not part of the shared Cart model. */
+    static final String GENERATION = "generation";
+    private static final String ACTIVE = "ACTIVE";
+    // Firestore accepts at most 30 values in an "in" filter.
+    private static final int MAX_IN_VALUES = 30;
+    private static final int PURGE_PAGE_SIZE = 500;
+
+    private final Firestore firestore;
+    private final CartItemRepository cartItemRepository;
+
+    @Override
+    public Optional<Cart> findCartByUser(String orgId, String userId) throws ExecutionException, InterruptedException {
+        return findActiveCart(orgId, "userId", userId);
+    }
+
+    @Override
+    public Optional<Cart> findCartByGuest(String orgId, String guestId) throws ExecutionException, InterruptedException {
+        return findActiveCart(orgId, "guestId", guestId);
+    }
+
+    /**
+     * Only ACTIVE carts are returned: cleared and merged carts are terminal, and their items may
+     * still be in the middle of being purged.
+     */
+    private Optional<Cart> findActiveCart(String orgId, String ownerField, String ownerId)
+            throws ExecutionException, InterruptedException {
+        List<QueryDocumentSnapshot> documents = firestore.collection(CARTS)
+                .whereEqualTo("orgId", orgId)
+                .whereEqualTo(ownerField, ownerId)
+                .whereEqualTo("status", ACTIVE)
+                .limit(1)
+                .get().get().getDocuments();
+        return documents.isEmpty() ? Optional.empty() : Optional.of(documents.get(0).toObject(Cart.class));
+    }
+
+    @Override
+    public Optional<Cart> findActiveCartHeader(String orgId, String userId, String guestId)
+            throws ExecutionException, InterruptedException {
+        // Field mask: the document's other fields are neither read nor decoded.
+        List<QueryDocumentSnapshot> documents = firestore.collection(CARTS)
+                .whereEqualTo("orgId", orgId)
+                .whereEqualTo(userId != null ? "userId" : "guestId", userId != null ? userId : guestId)
+                .whereEqualTo("status", ACTIVE)
+                .select("status", "totalItems", "subtotalAmount", "createdAt", "lastModifiedAt")
+                .limit(1)
+                .get().get().getDocuments();
+        if (documents.isEmpty()) {
+            return Optional.empty();
+        }
+        QueryDocumentSnapshot document = documents.get(0);
+        Cart cart = document.toObject(Cart.class);
+        cart.setCartId(document.getId());
+        return Optional.of(cart);
+    }
+
+    @Override
+    public List<CartItem> findItemsByCartId(String cartId) throws ExecutionException, InterruptedException {
+        return cartItemRepository.findByCartId(cartId);
+    }
+
+    @Override
+    public Optional<CartItem> findItemByCartIdAndProductId(String cartId, String productId) throws ExecutionException, InterruptedException {
+        return cartItemRepository.findByCartIdAndProductId(cartId, productId);
+    }
+
+    @Override
+    public List<CartItem> findItemsPage(String cartId, CartItemCursor after, int limit)
+            throws ExecutionException, InterruptedException {
+        // Requires a composite index on cartItems (cartId ASC, addedAt ASC, __name__ ASC); the
+        // document id tie-break is part of the cursor ordering.
+        Query query = firestore.collection(CART_ITEMS)
+                .whereEqualTo("cartId", cartId)
+                .orderBy("addedAt")
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        if (after != null) {
+            query = query.startAfter(after.addedAt(), after.cartItemId());
+        }
+        List<CartItem> items = new ArrayList<>(limit);
+        for (QueryDocumentSnapshot document : query.get().get().getDocuments()) {
+            items.add(document.toObject(CartItem.class));
+        }
+        return items;
+    }
+
+    @Override
+    public List<Cart> findCartsByStatusModifiedBefore(String status, boolean guestsOnly, Timestamp cutoff,
+                                                      CartCursor after, int limit)
+            throws ExecutionException, InterruptedException {
+        // Requires composite indexes on carts (status ASC, lastModifiedAt ASC) and, for guestsOnly,
+        // (status ASC, userId ASC, lastModifiedAt ASC).
+        Query query = firestore.collection(CARTS).whereEqualTo("status", status);
+        if (guestsOnly) {
+            query = query.whereEqualTo("userId", null);
+        }
+        query = query
+                .whereLessThan("lastModifiedAt", cutoff)
+                .orderBy("lastModifiedAt")
+                .orderBy(FieldPath.documentId())
+                .limit(limit);
+        if (after != null) {
+            query = query.startAfter(after.lastModifiedAt(), after.cartId());
+        }
+        List<Cart> carts = new ArrayList<>(limit);
+        for (QueryDocumentSnapshot document : query.get().get().getDocuments()) {
+            carts.add(document.toObject(Cart.class));
+        }
+        return carts;
+    }
+
+    @Override
+    public DeletedCarts deleteCartsIfUnchanged(Collection<Cart> carts, int maxItemDeletesPerSecond)
+            throws ExecutionException, InterruptedException {
+        // A cart can have more items than one transaction may write, so the transactions, one per
+        // cart and all in flight together, only re-check each cart and mark it REAPING, which
+        // hides it from shoppers. Items then go through the throttled bulk delete, one cart at a
+        // time, and the cart document last; a cart left REAPING by a failure is finished later.
+        List<Cart> expectedCarts = List.copyOf(carts);
+        List<ApiFuture<Boolean>> marks = new ArrayList<>(expectedCarts.size());
+        for (Cart expected : expectedCarts) {
+            DocumentReference cartRef = firestore.collection(CARTS).document(expected.getCartId());
+            marks.add(firestore.runTransaction(transaction -> {
+                DocumentSnapshot current = transaction.get(cartRef).get();
+                if (!current.exists() || !CartSnapshots.isUnchanged(expected, current.toObject(Cart.class))) {
+                    return false;
+                }
+                if (!REAPING.equals(current.getString("status"))) {
+                    transaction.update(cartRef, "status", REAPING);
+                }
+                return true;
+            }));
+        }
+        int deletedCarts = 0;
+        long deletedItems = 0;
+        for (int i = 0; i < expectedCarts.size(); i++) {
+            if (!marks.get(i).get()) {
+                continue;
+            }
+            String cartId = expectedCarts.get(i).getCartId();
+            deletedItems += purgeItems(cartId, maxItemDeletesPerSecond, count -> { });
+            firestore.collection(CARTS).document(cartId).delete().get();
+            deletedCarts++;
+        }
+        return new DeletedCarts(deletedCarts, deletedItems);
+    }
+
+    @Override
+    public List<CartSnapshot> scanCarts(String orgId, String status, CartRange range, String afterCartId, int limit)
+            throws ExecutionException, InterruptedException {
+        Query query = firestore.collection(CARTS).whereEqualTo("orgId", orgId);
+        if (status != null) {
+            query = query.whereEqualTo("status", status);
+        }
+        query = query.orderBy(FieldPath.documentId());
+        if (afterCartId != null) {
+            query = query.startAfter(afterCartId);
+        } else if (range.fromCartId() != null) {
+            query = query.startAt(range.fromCartId());
+        }
+        if (range.toCartId() != null) {
+            query = query.endBefore(range.toCartId());
+        }
+
+        List<Cart> page = new ArrayList<>(limit);
+        for (QueryDocumentSnapshot document : query.limit(limit).get().get().getDocuments()) {
+            page.add(document.toObject(Cart.class));
+        }
+
+        // Items of the whole page with one "in" query per 30 carts rather than one query per cart.
+        Map<String, List<CartItem>> itemsByCartId = new LinkedHashMap<>();
+        page.forEach(cart -> itemsByCartId.put(cart.getCartId(), new ArrayList<>()));
+        List<String> cartIds = new ArrayList<>(itemsByCartId.keySet());
+        for (int from = 0; from < cartIds.size(); from += MAX_IN_VALUES) {
+            List<String> chunk = cartIds.subList(from, Math.min(from + MAX_IN_VALUES, cartIds.size()));
+            for (QueryDocumentSnapshot document : firestore.collection(CART_ITEMS)
+                    .whereIn("cartId", new ArrayList<>(chunk)).get().get().getDocuments()) {
+                CartItem item = document.toObject(CartItem.class);
+                itemsByCartId.get(item.getCartId()).add(item);
+            }
+        }
+
+        List<CartSnapshot> snapshots = new ArrayList<>(page.size());
+        for (Cart cart : page) {
+            snapshots.add(new CartSnapshot(cart, itemsByCartId.get(cart.getCartId())));
+        }
+        return snapshots;
+    }
+
+    @Override
+    public CartWatch watchActiveCart(String orgId, String userId, String guestId, CartChangeListener listener) {
+        boolean user = userId != null;
+        // Same query as the owner lookup, so a cleared cart drops out and its successor shows up.
+        ListenerRegistration registration = firestore.collection(CARTS)
+                .whereEqualTo("orgId", orgId)
+                .whereEqualTo(user ? "userId" : "guestId", user ? userId : guestId)
+                .whereEqualTo("status", ACTIVE)
+                .limit(1)
+                .addSnapshotListener((snapshot, error) -> {
+                    if (error != null) {
+                        listener.onError(error);
+                    } else if (snapshot != null) {
+                        listener.onChange(snapshot.isEmpty()
+                                ? Optional.empty()
+                                : Optional.of(snapshot.getDocuments().get(0).toObject(Cart.class)));
+                    }
+                });
+        return registration::remove;
+    }
+
+    @Override
+    public void warmUp() throws ExecutionException, InterruptedException {
+        // Opens the channel, fetches an access token and exercises the query path; reads at most one id.
+        firestore.collection(CARTS).select(FieldPath.documentId()).limit(1).get().get();
+    }
+
+    @Override
+    public long purgeItems(String cartId, int maxOpsPerSecond, LongConsumer onDeleted)
+            throws ExecutionException, InterruptedException {
+        AtomicLong deleted = new AtomicLong();
+        AtomicReference<Throwable> firstFailure = new AtomicReference<>();
+        AtomicLong failed = new AtomicLong();
+        ApiFutureCallback<WriteResult> callback = new ApiFutureCallback<>() {
+            @Override
+            public void onSuccess(WriteResult result) {
+                onDeleted.accept(deleted.incrementAndGet());
+            }
+
+            @Override
+            public void onFailure(Throwable t) {
+                failed.incrementAndGet();
+                firstFailure.compareAndSet(null, t);
+            }
+        };
+
+        BulkWriter writer = firestore.bulkWriter(BulkWriterOptions.builder()
+                .setInitialOpsPerSecond(Math.min(maxOpsPerSecond, 500))
+                .setMaxOpsPerSecond(maxOpsPerSecond)
+                .build());
+        try {
+            QueryDocumentSnapshot last = null;
+            while (true) {
+                Query page = firestore.collection(CART_ITEMS)
+                        .whereEqualTo("cartId", cartId)
+                        .orderBy(FieldPath.documentId())
+                        .select(FieldPath.documentId())
+                        .limit(PURGE_PAGE_SIZE);
+                if (last != null) {
+                    page = page.startAfter(last);
+                }
+                List<QueryDocumentSnapshot> documents = page.get().get().getDocuments();
+                if (documents.isEmpty()) {
+                    break;
+                }
+                for (QueryDocumentSnapshot document : documents) {
+                    ApiFutures.addCallback(writer.delete(document.getReference()), callback, MoreExecutors.directExecutor());
+                }
+                // Keeps at most one page of deletes in flight while the next page is read.
+                writer.flush().get();
+                last = documents.get(documents.size() - 1);
+            }
+        } finally {
+            writer.close();
+        }
+        if (failed.get() > 0) {
+            throw new ExecutionException("Failed to delete " + failed.get() + " items of cart " + cartId, firstFailure.get());
+        }
+        return deleted.get();
+    }
+
+    @Override
+    public <T> T runInTransaction(int maxAttempts, CartTransactionCallback<T> callback)
+            throws ExecutionException, InterruptedException {
+        TransactionOptions options = TransactionOptions.createReadWriteOptionsBuilder()
+                .setNumberOfAttempts(maxAttempts)
+                .build();
+        // The client calls the function on its own executor; without the caller's context there,
+        // store and downstream calls made by the callback would start new traces and miss the
+        // request's timings.
+        ContextSnapshot context = ContextPropagation.capture();
+        // Time spent in the callback belongs to whatever it calls (inventory, queries, its own
+        // transactional reads, which record themselves); the rest is begin, commit and retries.
+        AtomicLong callbackNanos = new AtomicLong();
+        long start = System.nanoTime();
+        try {
+            return firestore.runTransaction((Transaction.Function<T>) transaction -> {
+                try (ContextSnapshot.Scope ignored = context.setThreadLocals()) {
+                    long callbackStart = System.nanoTime();
+                    try {
+                        return callback.apply(new FirestoreCartTransaction(transaction));
+                    } finally {
+                        callbackNanos.addAndGet(System.nanoTime() - callbackStart);
+                    }
+                }
+            }, options).get();
+        } catch (ExecutionException e) {
+            if (isAborted(e.getCause())) {
+                throw new TransactionContentionException(
+                        "Transaction aborted by contention after " + maxAttempts + " attempt(s)", e.getCause());
+            }
+            // Surface the callback's own runtime exceptions (CartNotFoundException, ...) unwrapped.
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        } finally {
+            recordFirestore(System.nanoTime() - start - callbackNanos.get());
+        }
+    }
+
+    private static void recordFirestore(long nanos) {
+        OperationTimings.recordFirestore(nanos);
+        RequestLedger.recordFirestore(nanos);
+    }
+
+    private static <V> V awaitRead(ApiFuture<V> read) throws ExecutionException, InterruptedException {
+        long start = System.nanoTime();
+        try {
+            return read.get();
+        } finally {
+            recordFirestore(System.nanoTime() - start);
+        }
+    }
+
+    private static boolean isAborted(Throwable error) {
+        for (Throwable t = error; t != null; t = t.getCause()) {
+            if (t instanceof ApiException apiException
+                    && apiException.getStatusCode().getCode() == StatusCode.Code.ABORTED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class FirestoreCartTransaction implements CartTransaction {
+
+        private final Transaction transaction;
+        private final CollectionReference carts = firestore.collection(CARTS);
+        private final CollectionReference cartItems = firestore.collection(CART_ITEMS);
+
+        private FirestoreCartTransaction(Transaction transaction) {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public Optional<Cart> getCart(String cartId) throws ExecutionException, InterruptedException {
+            return Optional.ofNullable(awaitRead(transaction.get(carts.document(cartId))).toObject(Cart.class));
+        }
+
+        @Override
+        public Optional<CartItem> getItem(String cartItemId) throws ExecutionException, InterruptedException {
+            return Optional.ofNullable(awaitRead(transaction.get(cartItems.document(cartItemId))).toObject(CartItem.class));
+        }
+
+        @Override
+        public CartReadSet getAll(Collection<String> cartIds, Collection<String> cartItemIds)
+                throws ExecutionException, InterruptedException {
+            Map<String, Cart> cartsById = new LinkedHashMap<>();
+            Map<String, CartItem> itemsById = new LinkedHashMap<>();
+            if (cartIds.isEmpty() && cartItemIds.isEmpty()) {
+                return new CartReadSet(cartsById, itemsById);
+            }
+            List<DocumentReference> refs = new ArrayList<>(cartIds.size() + cartItemIds.size());
+            cartIds.forEach(id -> refs.add(carts.document(id)));
+            cartItemIds.forEach(id -> refs.add(cartItems.document(id)));
+
+            // Snapshots come back in request order: carts first, then items.
+            List<DocumentSnapshot> snapshots = awaitRead(transaction.getAll(refs.toArray(new DocumentReference[0])));
+            for (int i = 0; i < snapshots.size(); i++) {
+                DocumentSnapshot snapshot = snapshots.get(i);
+                if (!snapshot.exists()) {
+                    continue;
+                }
+                if (i < cartIds.size()) {
+                    cartsById.put(snapshot.getId(), snapshot.toObject(Cart.class));
+                } else {
+                    itemsById.put(snapshot.getId(), snapshot.toObject(CartItem.class));
+                }
+            }
+            return new CartReadSet(cartsById, itemsById);
+        }
+
+        @Override
+        public void putCart(Cart cart) {
+            // Merge keeps fields outside the shared model, such as the generation counter.
+            transaction.set(carts.document(cart.getCartId()), cart, SetOptions.merge());
+        }
+
+        @Override
+        public void putItem(CartItem cartItem) {
+            transaction.set(cartItems.document(cartItem.getCartItemId()), cartItem);
+        }
+
+        @Override
+        public void deleteCart(String cartId) {
+            transaction.delete(carts.document(cartId));
+        }
+
+        @Override
+        public void deleteItem(String cartItemId) {
+            transaction.delete(cartItems.document(cartItemId));
+        }
+
+        @Override
+        public void advanceGeneration(String cartId) {
+            transaction.update(carts.document(cartId), GENERATION, FieldValue.increment(1));
+        }
+    }
+}
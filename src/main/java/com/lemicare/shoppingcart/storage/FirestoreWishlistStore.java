@@ -0,0 +1,36 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Wishlist;
+import com.cosmicdoc.common.repository.WishlistRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * {@link WishlistStore} delegating to the shared Firestore wishlist repository.
+ */
+@Component
+@Profile("!local")
+@RequiredArgsConstructor
+public class FirestoreWishlistStore implements WishlistStore {
+
+    private final WishlistRepository wishlistRepository;
+
+    @Override
+    public Optional<Wishlist> findByOrganizationIdAndCustomerId(String organizationId, String customerId) throws ExecutionException, InterruptedException {
+        return wishlistRepository.findByOrganizationIdAndCustomerId(organizationId, customerId);
+    }
+
+    @Override
+    public Wishlist save(Wishlist wishlist) throws ExecutionException, InterruptedException {
+        return wishlistRepository.save(wishlist);
+    }
+
+    @Override
+    public void delete(String organizationId, String customerId) throws ExecutionException, InterruptedException {
+        wishlistRepository.delete(organizationId, customerId);
+    }
+}
@@ -0,0 +1,240 @@
+package com.lemicare.shoppingcart.storage;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Bounded off-heap store of {@link CartSnapshot}s, keyed by cart id and indexed by owner.
+ * <p>
+ * Snapshots are encoded into an {@link OffHeapSlab}; only the small per-entry index lives on the
+ * heap. When the slab is full the least recently used carts are evicted, and carts idle longer
+ * than the configured timeout are swept out periodically. Eviction only drops the local copy:
+ * writes go through to Firestore, which stays the system of record.
+ */
+public class HotCartCache {
+
+    private final OffHeapSlab slab;
+    private final long maxStalenessNanos;
+    private final long idleTimeoutNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    // Access-ordered: iteration starts at the least recently used cart.
+    private final LinkedHashMap<String, Entry> entries = new LinkedHashMap<>(256, 0.75f, true);
+    private final Map<String, String> cartIdByOwner = new HashMap<>();
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    public HotCartCache(HotCartTierProperties properties, MeterRegistry registry) {
+        this.slab = new OffHeapSlab(properties.getCapacityBytes(), properties.getBlockSize());
+        this.maxStalenessNanos = properties.getMaxStaleness().toNanos();
+        this.idleTimeoutNanos = properties.getIdleTimeout().toNanos();
+        this.hits = Counter.builder("cart.hottier.requests").tag("result", "hit").register(registry);
+        this.misses = Counter.builder("cart.hottier.requests").tag("result", "miss").register(registry);
+        this.evictions = Counter.builder("cart.hottier.evictions").register(registry);
+        Gauge.builder("cart.hottier.used.bytes", this, cache -> cache.usedBytes()).baseUnit("bytes").register(registry);
+        Gauge.builder("cart.hottier.entries", this, cache -> cache.size()).register(registry);
+    }
+
+    static String ownerKey(String orgId, String kind, String id) {
+        return orgId + '|' + kind + '|' + id;
+    }
+
+    Optional<CartSnapshot> getByOwner(String ownerKey) {
+        byte[] data;
+        lock.lock();
+        try {
+            String cartId = cartIdByOwner.get(ownerKey);
+            data = cartId != null ? readLocked(cartId) : null;
+        } finally {
+            lock.unlock();
+        }
+        return decode(data);
+    }
+
+    Optional<CartSnapshot> getByCartId(String cartId) {
+        byte[] data;
+        lock.lock();
+        try {
+            data = readLocked(cartId);
+        } finally {
+            lock.unlock();
+        }
+        return decode(data);
+    }
+
+    /**
+     * Stores (or replaces) the snapshot as freshly loaded. If the encoded cart cannot fit even
+     * after evicting every other entry, it is simply not cached.
+     */
+    void put(CartSnapshot snapshot) {
+        store(snapshot, false);
+    }
+
+    /**
+     * Replaces a cached snapshot with one derived from it, keeping its original load time, so a
+     * cart that keeps being written through still reloads from Firestore once it is too old.
+     * Does nothing if the cart is no longer cached.
+     */
+    void update(CartSnapshot snapshot) {
+        store(snapshot, true);
+    }
+
+    private void store(CartSnapshot snapshot, boolean keepLoadedAt) {
+        byte[] data = CartSnapshotCodec.encode(snapshot);
+        String cartId = snapshot.cart().getCartId();
+        String[] ownerKeys = ownerKeysOf(snapshot);
+
+        lock.lock();
+        try {
+            Entry existing = entries.get(cartId);
+            if (keepLoadedAt && existing == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            long loadedAtNanos = keepLoadedAt ? existing.loadedAtNanos : now;
+            removeLocked(cartId);
+            int needed = slab.blocksFor(data.length);
+            Iterator<Map.Entry<String, Entry>> lru = entries.entrySet().iterator();
+            while (slab.freeBlockCount() < needed && lru.hasNext()) {
+                Entry victim = lru.next().getValue();
+                lru.remove();
+                releaseLocked(victim);
+                evictions.increment();
+            }
+            int[] blocks = slab.store(data);
+            if (blocks == null) {
+                return;
+            }
+            entries.put(cartId, new Entry(cartId, blocks, data.length, ownerKeys, loadedAtNanos, now));
+            for (String ownerKey : ownerKeys) {
+                cartIdByOwner.put(ownerKey, cartId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    void invalidate(String cartId) {
+        lock.lock();
+        try {
+            removeLocked(cartId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.storage.hot-tier.sweep-interval:PT30S}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        lock.lock();
+        try {
+            Iterator<Entry> it = entries.values().iterator();
+            while (it.hasNext()) {
+                Entry entry = it.next();
+                if (now - entry.lastAccessNanos > idleTimeoutNanos) {
+                    it.remove();
+                    releaseLocked(entry);
+                    evictions.increment();
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    long usedBytes() {
+        lock.lock();
+        try {
+            return (long) (slab.totalBlockCount() - slab.freeBlockCount()) * slab.blockSize();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    int size() {
+        lock.lock();
+        try {
+            return entries.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private byte[] readLocked(String cartId) {
+        Entry entry = entries.get(cartId);
+        if (entry == null) {
+            return null;
+        }
+        long now = System.nanoTime();
+        if (now - entry.loadedAtNanos > maxStalenessNanos) {
+            removeLocked(cartId);
+            return null;
+        }
+        entry.lastAccessNanos = now;
+        return slab.load(entry.blocks, entry.length);
+    }
+
+    private void removeLocked(String cartId) {
+        Entry entry = entries.remove(cartId);
+        if (entry != null) {
+            releaseLocked(entry);
+        }
+    }
+
+    private void releaseLocked(Entry entry) {
+        slab.release(entry.blocks);
+        for (String ownerKey : entry.ownerKeys) {
+            cartIdByOwner.remove(ownerKey, entry.cartId);
+        }
+    }
+
+    private Optional<CartSnapshot> decode(byte[] data) {
+        if (data == null) {
+            misses.increment();
+            return Optional.empty();
+        }
+        hits.increment();
+        return Optional.of(CartSnapshotCodec.decode(data));
+    }
+
+    private static String[] ownerKeysOf(CartSnapshot snapshot) {
+        String orgId = snapshot.cart().getOrgId();
+        String userId = snapshot.cart().getUserId();
+        String guestId = snapshot.cart().getGuestId();
+        if (userId != null && guestId != null) {
+            return new String[]{ownerKey(orgId, "u", userId), ownerKey(orgId, "g", guestId)};
+        }
+        if (userId != null) {
+            return new String[]{ownerKey(orgId, "u", userId)};
+        }
+        return guestId != null ? new String[]{ownerKey(orgId, "g", guestId)} : new String[0];
+    }
+
+    private static final class Entry {
+        private final String cartId;
+        private final int[] blocks;
+        private final int length;
+        private final String[] ownerKeys;
+        private final long loadedAtNanos;
+        private long lastAccessNanos;
+
+        private Entry(String cartId, int[] blocks, int length, String[] ownerKeys, long loadedAtNanos, long lastAccessNanos) {
+            this.cartId = cartId;
+            this.blocks = blocks;
+            this.length = length;
+            this.ownerKeys = ownerKeys;
+            this.loadedAtNanos = loadedAtNanos;
+            this.lastAccessNanos = lastAccessNanos;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.lemicare.shoppingcart.storage;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+/**
+ * Settings for the off-heap hot-cart tier, bound from {@code app.storage.hot-tier.*}.
+ * <p>
+ * The tier caches per instance, so a cart written through another instance is only seen
+ * here once the local entry exceeds {@link #maxStaleness}. Keep that bound short unless
+ * traffic has session affinity.
+ */
+@Data
+@ConfigurationProperties(prefix = "app.storage.hot-tier")
+public class HotCartTierProperties {
+
+    /** Whether active carts are cached off-heap in front of Firestore. */
+    private boolean enabled = false;
+
+    /** Off-heap bytes reserved for cached carts. Must fit within -XX:MaxDirectMemorySize. */
+    private long capacityBytes = 64L * 1024 * 1024;
+
+    /** Size of one storage block; a cart occupies as many blocks as its encoding needs. */
+    private int blockSize = 1024;
+
+    /** Age after which a cached cart is reloaded from Firestore on the next read. */
+    private Duration maxStaleness = Duration.ofSeconds(30);
+
+    /** Carts not read or written for this long are evicted by the background sweep. */
+    private Duration idleTimeout = Duration.ofMinutes(10);
+}
@@ -0,0 +1,445 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.google.cloud.Timestamp;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
+
+/**
+ * In-process {@link CartStore} for the {@code local} profile, so the full service can run
+ * offline and be load-tested or profiled without a Firestore project.
+ * <p>
+ * Reads are lock-free over concurrent maps. Transactions are optimistic: the callback runs
+ * without a lock, records the version of every document it reads and buffers its writes. The
+ * commit takes a short lock, checks that none of those documents changed since they were read
+ * and applies the writes, so a failing callback leaves no partial state behind and transactions
+ * on different carts run concurrently, as they do against Firestore. A conflicting transaction is
+ * retried up to its attempt limit, then fails with {@link TransactionContentionException}.
+ * Entities are copied on the way in and out so callers can never mutate stored state in place.
+ */
+@Component
+@Profile("local")
+public class InMemoryCartStore implements CartStore {
+
+    private static final String ACTIVE = "ACTIVE";
+    private static final Comparator<Cart> BY_MODIFICATION =
+            Comparator.comparing(Cart::getLastModifiedAt).thenComparing(Cart::getCartId);
+
+    private final Map<String, Cart> carts = new ConcurrentHashMap<>();
+    private final Map<String, CartItem> items = new ConcurrentHashMap<>();
+    private final Map<String, Set<String>> itemIdsByCartId = new ConcurrentHashMap<>();
+    // "orgId|u|userId" or "orgId|g|guestId" -> cartId of the owner's active cart
+    private final Map<String, String> activeCartIdByOwner = new ConcurrentHashMap<>();
+    private final Map<String, Long> generationByCartId = new ConcurrentHashMap<>();
+    private final Map<String, List<CartChangeListener>> watchersByOwner = new ConcurrentHashMap<>();
+    // Document key ("c:" + cartId or "i:" + cartItemId) -> version of its last write; absent when deleted
+    private final Map<String, Long> versions = new ConcurrentHashMap<>();
+    private final AtomicLong versionSequence = new AtomicLong();
+    // Held only to validate and apply a commit, and by the bulk deletes.
+    private final ReentrantLock commitLock = new ReentrantLock();
+
+    @Override
+    public Optional<Cart> findCartByUser(String orgId, String userId) {
+        return findActiveCart(ownerKey(orgId, "u", userId));
+    }
+
+    @Override
+    public Optional<Cart> findCartByGuest(String orgId, String guestId) {
+        return findActiveCart(ownerKey(orgId, "g", guestId));
+    }
+
+    @Override
+    public List<CartItem> findItemsByCartId(String cartId) {
+        Set<String> ids = itemIdsByCartId.get(cartId);
+        if (ids == null) {
+            return new ArrayList<>();
+        }
+        List<CartItem> result = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            CartItem item = items.get(id);
+            if (item != null) {
+                result.add(CartSnapshots.copyOf(item));
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public Optional<Cart> findActiveCartHeader(String orgId, String userId, String guestId) {
+        return userId != null ? findCartByUser(orgId, userId) : findCartByGuest(orgId, guestId);
+    }
+
+    @Override
+    public List<CartItem> findItemsPage(String cartId, CartItemCursor after, int limit) {
+        return CartItemCursor.page(findItemsByCartId(cartId), after, limit);
+    }
+
+    @Override
+    public Optional<CartItem> findItemByCartIdAndProductId(String cartId, String productId) {
+        Set<String> ids = itemIdsByCartId.get(cartId);
+        if (ids == null) {
+            return Optional.empty();
+        }
+        for (String id : ids) {
+            CartItem item = items.get(id);
+            if (item != null && productId.equals(item.getProductId())) {
+                return Optional.of(CartSnapshots.copyOf(item));
+            }
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public List<Cart> findCartsByStatusModifiedBefore(String status, boolean guestsOnly, Timestamp cutoff,
+                                                      CartCursor after, int limit) {
+        return carts.values().stream()
+                .filter(cart -> status.equals(cart.getStatus()))
+                .filter(cart -> !guestsOnly || cart.getUserId() == null)
+                .filter(cart -> cart.getLastModifiedAt() != null && cart.getLastModifiedAt().compareTo(cutoff) < 0)
+                .filter(cart -> after == null || isAfter(cart, after))
+                .sorted(BY_MODIFICATION)
+                .limit(limit)
+                .map(CartSnapshots::copyOf)
+                .toList();
+    }
+
+    @Override
+    public DeletedCarts deleteCartsIfUnchanged(Collection<Cart> expected, int maxItemDeletesPerSecond)
+            throws InterruptedException {
+        int deletedCarts = 0;
+        long deletedItems = 0;
+        Set<String> touchedOwners = new LinkedHashSet<>();
+        commitLock.lockInterruptibly();
+        try {
+            for (Cart cart : expected) {
+                Cart current = carts.get(cart.getCartId());
+                if (!CartSnapshots.isUnchanged(cart, current)) {
+                    continue;
+                }
+                for (CartItem item : findItemsByCartId(cart.getCartId())) {
+                    removeItem(item.getCartItemId());
+                    deletedItems++;
+                }
+                removeCart(cart.getCartId());
+                addOwnerKeys(touchedOwners, current);
+                deletedCarts++;
+            }
+            notifyWatchers(touchedOwners);
+        } finally {
+            commitLock.unlock();
+        }
+        return new DeletedCarts(deletedCarts, deletedItems);
+    }
+
+    @Override
+    public List<CartSnapshot> scanCarts(String orgId, String status, CartRange range, String afterCartId, int limit) {
+        return carts.values().stream()
+                .filter(cart -> orgId.equals(cart.getOrgId()))
+                .filter(cart -> status == null || status.equals(cart.getStatus()))
+                .filter(cart -> range.fromCartId() == null || cart.getCartId().compareTo(range.fromCartId()) >= 0)
+                .filter(cart -> range.toCartId() == null || cart.getCartId().compareTo(range.toCartId()) < 0)
+                .filter(cart -> afterCartId == null || cart.getCartId().compareTo(afterCartId) > 0)
+                .sorted(Comparator.comparing(Cart::getCartId))
+                .limit(limit)
+                .map(cart -> new CartSnapshot(CartSnapshots.copyOf(cart), findItemsByCartId(cart.getCartId())))
+                .toList();
+    }
+
+    @Override
+    public CartWatch watchActiveCart(String orgId, String userId, String guestId, CartChangeListener listener) {
+        String key = userId != null ? ownerKey(orgId, "u", userId) : ownerKey(orgId, "g", guestId);
+        // Registered and notified under the commit lock, so calls for one watch never overlap.
+        commitLock.lock();
+        try {
+            watchersByOwner.computeIfAbsent(key, k -> new CopyOnWriteArrayList<>()).add(listener);
+            listener.onChange(findActiveCart(key));
+        } finally {
+            commitLock.unlock();
+        }
+        return () -> watchersByOwner.computeIfPresent(key, (k, listeners) -> {
+            listeners.remove(listener);
+            return listeners.isEmpty() ? null : listeners;
+        });
+    }
+
+    @Override
+    public long purgeItems(String cartId, int maxOpsPerSecond, LongConsumer onDeleted) throws InterruptedException {
+        long deleted = 0;
+        commitLock.lockInterruptibly();
+        try {
+            for (CartItem item : findItemsByCartId(cartId)) {
+                removeItem(item.getCartItemId());
+                onDeleted.accept(++deleted);
+            }
+        } finally {
+            commitLock.unlock();
+        }
+        return deleted;
+    }
+
+    @Override
+    public <T> T runInTransaction(int maxAttempts, CartTransactionCallback<T> callback)
+            throws ExecutionException, InterruptedException {
+        for (int attempt = 1; ; attempt++) {
+            InMemoryCartTransaction transaction = new InMemoryCartTransaction();
+            T result;
+            try {
+                result = callback.apply(transaction);
+            } catch (RuntimeException | ExecutionException | InterruptedException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new ExecutionException(e);
+            }
+            commitLock.lockInterruptibly();
+            try {
+                if (transaction.unchangedSinceRead()) {
+                    Set<String> touchedOwners = transaction.commit();
+                    notifyWatchers(touchedOwners);
+                    return result;
+                }
+            } finally {
+                commitLock.unlock();
+            }
+            if (attempt >= maxAttempts) {
+                throw new TransactionContentionException(
+                        "Transaction aborted by contention after " + maxAttempts + " attempt(s)", null);
+            }
+        }
+    }
+
+    private Optional<Cart> findActiveCart(String ownerKey) {
+        String cartId = activeCartIdByOwner.get(ownerKey);
+        Cart cart = cartId != null ? carts.get(cartId) : null;
+        return cart != null ? Optional.of(CartSnapshots.copyOf(cart)) : Optional.empty();
+    }
+
+    private void notifyWatchers(Set<String> ownerKeys) {
+        for (String key : ownerKeys) {
+            List<CartChangeListener> listeners = watchersByOwner.get(key);
+            if (listeners == null) {
+                continue;
+            }
+            for (CartChangeListener listener : listeners) {
+                try {
+                    listener.onChange(findActiveCart(key));
+                } catch (RuntimeException e) {
+                    listener.onError(e);
+                }
+            }
+        }
+    }
+
+    private void storeCart(Cart cart) {
+        Cart previous = carts.put(cart.getCartId(), cart);
+        versions.put(cartKey(cart.getCartId()), versionSequence.incrementAndGet());
+        if (previous != null) {
+            unindexOwner(previous);
+        }
+        if (ACTIVE.equals(cart.getStatus())) {
+            if (cart.getUserId() != null) {
+                activeCartIdByOwner.put(ownerKey(cart.getOrgId(), "u", cart.getUserId()), cart.getCartId());
+            }
+            if (cart.getGuestId() != null) {
+                activeCartIdByOwner.put(ownerKey(cart.getOrgId(), "g", cart.getGuestId()), cart.getCartId());
+            }
+        }
+    }
+
+    private void removeCart(String cartId) {
+        generationByCartId.remove(cartId);
+        Cart previous = carts.remove(cartId);
+        versions.remove(cartKey(cartId));
+        if (previous != null) {
+            unindexOwner(previous);
+        }
+    }
+
+    private void unindexOwner(Cart cart) {
+        if (cart.getUserId() != null) {
+            activeCartIdByOwner.remove(ownerKey(cart.getOrgId(), "u", cart.getUserId()), cart.getCartId());
+        }
+        if (cart.getGuestId() != null) {
+            activeCartIdByOwner.remove(ownerKey(cart.getOrgId(), "g", cart.getGuestId()), cart.getCartId());
+        }
+    }
+
+    private void storeItem(CartItem item) {
+        CartItem previous = items.put(item.getCartItemId(), item);
+        versions.put(itemKey(item.getCartItemId()), versionSequence.incrementAndGet());
+        if (previous != null && !previous.getCartId().equals(item.getCartId())) {
+            unindexItem(previous);
+        }
+        itemIdsByCartId.computeIfAbsent(item.getCartId(), id -> ConcurrentHashMap.newKeySet()).add(item.getCartItemId());
+    }
+
+    private void removeItem(String cartItemId) {
+        CartItem previous = items.remove(cartItemId);
+        versions.remove(itemKey(cartItemId));
+        if (previous != null) {
+            unindexItem(previous);
+        }
+    }
+
+    private void unindexItem(CartItem item) {
+        itemIdsByCartId.computeIfPresent(item.getCartId(), (cartId, ids) -> {
+            ids.remove(item.getCartItemId());
+            return ids.isEmpty() ? null : ids;
+        });
+    }
+
+    private static void addOwnerKeys(Set<String> keys, Cart cart) {
+        if (cart == null) {
+            return;
+        }
+        if (cart.getUserId() != null) {
+            keys.add(ownerKey(cart.getOrgId(), "u", cart.getUserId()));
+        }
+        if (cart.getGuestId() != null) {
+            keys.add(ownerKey(cart.getOrgId(), "g", cart.getGuestId()));
+        }
+    }
+
+    private static boolean isAfter(Cart cart, CartCursor cursor) {
+        int byTime = cart.getLastModifiedAt().compareTo(cursor.lastModifiedAt());
+        return byTime > 0 || (byTime == 0 && cart.getCartId().compareTo(cursor.cartId()) > 0);
+    }
+
+    private static String cartKey(String cartId) {
+        return "c:" + cartId;
+    }
+
+    private static String itemKey(String cartItemId) {
+        return "i:" + cartItemId;
+    }
+
+    private static String ownerKey(String orgId, String kind, String id) {
+        return orgId + '|' + kind + '|' + id;
+    }
+
+    private final class InMemoryCartTransaction implements CartTransaction {
+
+        // Insertion-ordered so writes are applied in the order they were issued; null marks a delete.
+        private final Map<String, Cart> cartWrites = new LinkedHashMap<>();
+        private final Map<String, CartItem> itemWrites = new LinkedHashMap<>();
+        private final List<String> generationBumps = new ArrayList<>();
+        // Version of each document when it was first read; 0 when it did not exist.
+        private final Map<String, Long> readVersions = new ConcurrentHashMap<>();
+
+        @Override
+        public Optional<Cart> getCart(String cartId) {
+            recordRead(cartKey(cartId));
+            Cart cart = carts.get(cartId);
+            return cart != null ? Optional.of(CartSnapshots.copyOf(cart)) : Optional.empty();
+        }
+
+        @Override
+        public Optional<CartItem> getItem(String cartItemId) {
+            recordRead(itemKey(cartItemId));
+            CartItem item = items.get(cartItemId);
+            return item != null ? Optional.of(CartSnapshots.copyOf(item)) : Optional.empty();
+        }
+
+        @Override
+        public CartReadSet getAll(Collection<String> cartIds, Collection<String> cartItemIds) {
+            Map<String, Cart> cartsById = new LinkedHashMap<>();
+            Map<String, CartItem> itemsById = new LinkedHashMap<>();
+            cartIds.forEach(id -> getCart(id).ifPresent(cart -> cartsById.put(id, cart)));
+            cartItemIds.forEach(id -> getItem(id).ifPresent(item -> itemsById.put(id, item)));
+            return new CartReadSet(cartsById, itemsById);
+        }
+
+        @Override
+        public void putCart(Cart cart) {
+            cartWrites.put(cart.getCartId(), CartSnapshots.copyOf(cart));
+        }
+
+        @Override
+        public void putItem(CartItem cartItem) {
+            itemWrites.put(cartItem.getCartItemId(), CartSnapshots.copyOf(cartItem));
+        }
+
+        @Override
+        public void deleteCart(String cartId) {
+            cartWrites.put(cartId, null);
+        }
+
+        @Override
+        public void deleteItem(String cartItemId) {
+            itemWrites.put(cartItemId, null);
+        }
+
+        @Override
+        public void advanceGeneration(String cartId) {
+            generationBumps.add(cartId);
+        }
+
+        /**
+         * Takes the version before the document itself; a commit in between changes the version,
+         * so the transaction fails validation rather than keeping a torn read.
+         */
+        private void recordRead(String key) {
+            readVersions.putIfAbsent(key, versions.getOrDefault(key, 0L));
+        }
+
+        /**
+         * Whether no document read by this transaction has been written since. Called under the commit lock.
+         */
+        private boolean unchangedSinceRead() {
+            for (Map.Entry<String, Long> read : readVersions.entrySet()) {
+                if (versions.getOrDefault(read.getKey(), 0L).longValue() != read.getValue()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Applies the buffered writes and returns the owner keys of every cart written.
+         */
+        private Set<String> commit() {
+            Set<String> touchedOwners = new LinkedHashSet<>();
+            // Owners of both the previous and the new version of every written cart.
+            cartWrites.forEach((id, cart) -> {
+                addOwnerKeys(touchedOwners, carts.get(id));
+                addOwnerKeys(touchedOwners, cart);
+            });
+            itemWrites.forEach((id, item) -> {
+                if (item != null) {
+                    storeItem(item);
+                } else {
+                    removeItem(id);
+                }
+            });
+            cartWrites.forEach((id, cart) -> {
+                if (cart != null) {
+                    storeCart(cart);
+                } else {
+                    removeCart(id);
+                }
+            });
+            generationBumps.forEach(id -> {
+                generationByCartId.merge(id, 1L, Long::sum);
+                // An update of the cart document, as in Firestore.
+                versions.computeIfPresent(cartKey(id), (key, version) -> versionSequence.incrementAndGet());
+            });
+            return touchedOwners;
+        }
+    }
+}
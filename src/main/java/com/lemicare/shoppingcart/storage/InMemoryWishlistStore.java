@@ -0,0 +1,46 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Wishlist;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-process {@link WishlistStore} for the {@code local} profile.
+ * Wishlists are copied on save and on read so callers never share the stored list.
+ */
+@Component
+@Profile("local")
+public class InMemoryWishlistStore implements WishlistStore {
+
+    private final Map<String, Wishlist> wishlists = new ConcurrentHashMap<>();
+
+    @Override
+    public Optional<Wishlist> findByOrganizationIdAndCustomerId(String organizationId, String customerId) {
+        Wishlist wishlist = wishlists.get(key(organizationId, customerId));
+        return wishlist != null ? Optional.of(copyOf(wishlist)) : Optional.empty();
+    }
+
+    @Override
+    public Wishlist save(Wishlist wishlist) {
+        wishlists.put(key(wishlist.getOrganizationId(), wishlist.getCustomerId()), copyOf(wishlist));
+        return wishlist;
+    }
+
+    @Override
+    public void delete(String organizationId, String customerId) {
+        wishlists.remove(key(organizationId, customerId));
+    }
+
+    private static String key(String organizationId, String customerId) {
+        return organizationId + '|' + customerId;
+    }
+
+    private static Wishlist copyOf(Wishlist wishlist) {
+        return new Wishlist(wishlist.getCustomerId(), wishlist.getOrganizationId(), new ArrayList<>(wishlist.getItems()));
+    }
+}
@@ -0,0 +1,90 @@
+package com.lemicare.shoppingcart.storage;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Fixed-size block allocator over a single direct (off-heap) buffer.
+ * <p>
+ * The arena is allocated once, so storing and evicting entries creates no garbage beyond the
+ * small block-index arrays; values are laid out across whichever free blocks are handed out.
+ * Not thread-safe: callers serialize access.
+ */
+final class OffHeapSlab {
+
+    private final ByteBuffer arena;
+    private final int blockSize;
+    private final int[] freeBlocks;
+    private int freeCount;
+
+    OffHeapSlab(long capacityBytes, int blockSize) {
+        if (blockSize <= 0) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        long blockCount = capacityBytes / blockSize;
+        if (blockCount < 1 || blockCount * blockSize > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Capacity must hold at least one block and stay below 2 GiB: " + capacityBytes);
+        }
+        this.blockSize = blockSize;
+        this.arena = ByteBuffer.allocateDirect((int) (blockCount * blockSize));
+        this.freeBlocks = new int[(int) blockCount];
+        for (int i = 0; i < freeBlocks.length; i++) {
+            freeBlocks[i] = freeBlocks.length - 1 - i;
+        }
+        this.freeCount = freeBlocks.length;
+    }
+
+    int blocksFor(int length) {
+        return Math.max(1, (length + blockSize - 1) / blockSize);
+    }
+
+    int freeBlockCount() {
+        return freeCount;
+    }
+
+    int totalBlockCount() {
+        return freeBlocks.length;
+    }
+
+    int blockSize() {
+        return blockSize;
+    }
+
+    /**
+     * Copies the data into newly allocated blocks.
+     *
+     * @return the blocks holding the data, or null if there are not enough free blocks.
+     */
+    int[] store(byte[] data) {
+        int needed = blocksFor(data.length);
+        if (needed > freeCount) {
+            return null;
+        }
+        int[] blocks = new int[needed];
+        int offset = 0;
+        for (int i = 0; i < needed; i++) {
+            int block = freeBlocks[--freeCount];
+            blocks[i] = block;
+            int length = Math.min(blockSize, data.length - offset);
+            arena.put(block * blockSize, data, offset, length);
+            offset += length;
+        }
+        return blocks;
+    }
+
+    byte[] load(int[] blocks, int length) {
+        byte[] data = new byte[length];
+        int offset = 0;
+        for (int block : blocks) {
+            int chunk = Math.min(blockSize, length - offset);
+            arena.get(block * blockSize, data, offset, chunk);
+            offset += chunk;
+        }
+        return data;
+    }
+
+    void release(int[] blocks) {
+        for (int block : blocks) {
+            freeBlocks[freeCount++] = block;
+        }
+    }
+}
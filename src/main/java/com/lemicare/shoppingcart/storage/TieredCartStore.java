@@ -0,0 +1,298 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.model.CartItem;
+import com.google.cloud.Timestamp;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.function.LongConsumer;
+
+/**
+ * {@link CartStore} that serves active carts from the off-heap {@link HotCartCache} and
+ * writes through to the backing store.
+ * <p>
+ * Lookups outside transactions are answered from the cache when possible; a miss loads the
+ * cart and all its items from the backing store and caches them together. Reads made while a
+ * transaction callback is running always bypass the cache, so totals are never recomputed from
+ * a stale copy. After a transaction commits, its writes are applied to the cached snapshot
+ * without renewing its load time, so even a cart written continuously is reloaded once it
+ * exceeds the staleness bound.
+ */
+public class TieredCartStore implements CartStore {
+
+    private static final String ACTIVE = "ACTIVE";
+    private static final ThreadLocal<Boolean> IN_TRANSACTION = new ThreadLocal<>();
+
+    private final CartStore delegate;
+    private final HotCartCache cache;
+
+    public TieredCartStore(CartStore delegate, HotCartCache cache) {
+        this.delegate = delegate;
+        this.cache = cache;
+    }
+
+    @Override
+    public Optional<Cart> findCartByUser(String orgId, String userId) throws ExecutionException, InterruptedException {
+        if (inTransaction()) {
+            return delegate.findCartByUser(orgId, userId);
+        }
+        Optional<CartSnapshot> cached = cache.getByOwner(HotCartCache.ownerKey(orgId, "u", userId));
+        if (cached.isPresent()) {
+            return Optional.of(cached.get().cart());
+        }
+        return load(delegate.findCartByUser(orgId, userId));
+    }
+
+    @Override
+    public Optional<Cart> findCartByGuest(String orgId, String guestId) throws ExecutionException, InterruptedException {
+        if (inTransaction()) {
+            return delegate.findCartByGuest(orgId, guestId);
+        }
+        Optional<CartSnapshot> cached = cache.getByOwner(HotCartCache.ownerKey(orgId, "g", guestId));
+        if (cached.isPresent()) {
+            return Optional.of(cached.get().cart());
+        }
+        return load(delegate.findCartByGuest(orgId, guestId));
+    }
+
+    @Override
+    public List<CartItem> findItemsByCartId(String cartId) throws ExecutionException, InterruptedException {
+        if (!inTransaction()) {
+            Optional<CartSnapshot> cached = cache.getByCartId(cartId);
+            if (cached.isPresent()) {
+                return cached.get().items();
+            }
+        }
+        return delegate.findItemsByCartId(cartId);
+    }
+
+    @Override
+    public Optional<CartItem> findItemByCartIdAndProductId(String cartId, String productId) throws ExecutionException, InterruptedException {
+        if (!inTransaction()) {
+            Optional<CartSnapshot> cached = cache.getByCartId(cartId);
+            if (cached.isPresent()) {
+                return cached.get().items().stream()
+                        .filter(item -> productId.equals(item.getProductId()))
+                        .findFirst();
+            }
+        }
+        return delegate.findItemByCartIdAndProductId(cartId, productId);
+    }
+
+    @Override
+    public Optional<Cart> findActiveCartHeader(String orgId, String userId, String guestId)
+            throws ExecutionException, InterruptedException {
+        // Served from a cached snapshot when there is one, but a miss does not load the items.
+        Optional<CartSnapshot> cached = cache.getByOwner(
+                userId != null ? HotCartCache.ownerKey(orgId, "u", userId) : HotCartCache.ownerKey(orgId, "g", guestId));
+        if (cached.isPresent()) {
+            return Optional.of(cached.get().cart());
+        }
+        return delegate.findActiveCartHeader(orgId, userId, guestId);
+    }
+
+    @Override
+    public List<CartItem> findItemsPage(String cartId, CartItemCursor after, int limit)
+            throws ExecutionException, InterruptedException {
+        if (!inTransaction()) {
+            Optional<CartSnapshot> cached = cache.getByCartId(cartId);
+            if (cached.isPresent()) {
+                return CartItemCursor.page(cached.get().items(), after, limit);
+            }
+        }
+        return delegate.findItemsPage(cartId, after, limit);
+    }
+
+    @Override
+    public List<Cart> findCartsByStatusModifiedBefore(String status, boolean guestsOnly, Timestamp cutoff,
+                                                      CartCursor after, int limit)
+            throws ExecutionException, InterruptedException {
+        return delegate.findCartsByStatusModifiedBefore(status, guestsOnly, cutoff, after, limit);
+    }
+
+    @Override
+    public DeletedCarts deleteCartsIfUnchanged(Collection<Cart> carts, int maxItemDeletesPerSecond)
+            throws ExecutionException, InterruptedException {
+        carts.forEach(cart -> cache.invalidate(cart.getCartId()));
+        return delegate.deleteCartsIfUnchanged(carts, maxItemDeletesPerSecond);
+    }
+
+    @Override
+    public List<CartSnapshot> scanCarts(String orgId, String status, CartRange range, String afterCartId, int limit)
+            throws ExecutionException, InterruptedException {
+        return delegate.scanCarts(orgId, status, range, afterCartId, limit);
+    }
+
+    @Override
+    public CartWatch watchActiveCart(String orgId, String userId, String guestId, CartChangeListener listener) {
+        return delegate.watchActiveCart(orgId, userId, guestId, listener);
+    }
+
+    @Override
+    public void warmUp() throws ExecutionException, InterruptedException {
+        delegate.warmUp();
+    }
+
+    @Override
+    public long purgeItems(String cartId, int maxOpsPerSecond, LongConsumer onDeleted)
+            throws ExecutionException, InterruptedException {
+        cache.invalidate(cartId);
+        return delegate.purgeItems(cartId, maxOpsPerSecond, onDeleted);
+    }
+
+    @Override
+    public <T> T runInTransaction(int maxAttempts, CartTransactionCallback<T> callback)
+            throws ExecutionException, InterruptedException {
+        // The callback may run several times; only the last attempt's writes were committed.
+        RecordingTransaction[] committed = new RecordingTransaction[1];
+        T result = delegate.runInTransaction(maxAttempts, transaction -> {
+            RecordingTransaction recording = new RecordingTransaction(transaction);
+            committed[0] = recording;
+            IN_TRANSACTION.set(Boolean.TRUE);
+            try {
+                return callback.apply(recording);
+            } finally {
+                IN_TRANSACTION.remove();
+            }
+        });
+        if (committed[0] != null) {
+            writeThrough(committed[0]);
+        }
+        return result;
+    }
+
+    private Optional<Cart> load(Optional<Cart> cart) throws ExecutionException, InterruptedException {
+        if (cart.isPresent() && ACTIVE.equals(cart.get().getStatus())) {
+            List<CartItem> items = delegate.findItemsByCartId(cart.get().getCartId());
+            cache.put(new CartSnapshot(cart.get(), items));
+        }
+        return cart;
+    }
+
+    private void writeThrough(RecordingTransaction tx) {
+        Set<String> touchedCartIds = new HashSet<>(tx.cartWrites.keySet());
+        tx.itemPuts.values().forEach(item -> touchedCartIds.add(item.getCartId()));
+
+        for (String cartId : touchedCartIds) {
+            boolean cartWritten = tx.cartWrites.containsKey(cartId);
+            Cart writtenCart = tx.cartWrites.get(cartId);
+            if (cartWritten && writtenCart == null) {
+                cache.invalidate(cartId);
+                continue;
+            }
+
+            Optional<CartSnapshot> cached = cache.getByCartId(cartId);
+            List<CartItem> items;
+            Cart cart;
+            if (cached.isPresent()) {
+                Map<String, CartItem> merged = new LinkedHashMap<>();
+                cached.get().items().forEach(item -> merged.put(item.getCartItemId(), item));
+                tx.deletedItemIds.forEach(merged::remove);
+                tx.itemPuts.values().stream()
+                        .filter(item -> cartId.equals(item.getCartId()))
+                        .forEach(item -> merged.put(item.getCartItemId(), item));
+                items = new ArrayList<>(merged.values());
+                cart = writtenCart != null ? writtenCart : cached.get().cart();
+            } else if (writtenCart != null && !tx.readCartIds.contains(cartId)) {
+                // Created in this transaction, so every one of its items was written here too.
+                items = tx.itemPuts.values().stream()
+                        .filter(item -> cartId.equals(item.getCartId()))
+                        .toList();
+                cart = writtenCart;
+            } else {
+                continue;
+            }
+
+            if (!ACTIVE.equals(cart.getStatus())) {
+                cache.invalidate(cartId);
+            } else if (cached.isPresent()) {
+                // Still partly the cached copy, so it must not count as freshly loaded.
+                cache.update(new CartSnapshot(cart, items));
+            } else {
+                cache.put(new CartSnapshot(cart, items));
+            }
+        }
+    }
+
+    private static boolean inTransaction() {
+        return IN_TRANSACTION.get() != null;
+    }
+
+    /**
+     * Passes every call to the real transaction and remembers what was read and written.
+     */
+    private static final class RecordingTransaction implements CartTransaction {
+
+        private final CartTransaction transaction;
+        private final Set<String> readCartIds = new HashSet<>();
+        // null value marks a deleted cart
+        private final Map<String, Cart> cartWrites = new LinkedHashMap<>();
+        private final Map<String, CartItem> itemPuts = new LinkedHashMap<>();
+        private final Set<String> deletedItemIds = new HashSet<>();
+
+        private RecordingTransaction(CartTransaction transaction) {
+            this.transaction = transaction;
+        }
+
+        @Override
+        public Optional<Cart> getCart(String cartId) throws ExecutionException, InterruptedException {
+            Optional<Cart> cart = transaction.getCart(cartId);
+            if (cart.isPresent()) {
+                readCartIds.add(cartId);
+            }
+            return cart;
+        }
+
+        @Override
+        public Optional<CartItem> getItem(String cartItemId) throws ExecutionException, InterruptedException {
+            return transaction.getItem(cartItemId);
+        }
+
+        @Override
+        public CartReadSet getAll(Collection<String> cartIds, Collection<String> cartItemIds)
+                throws ExecutionException, InterruptedException {
+            CartReadSet readSet = transaction.getAll(cartIds, cartItemIds);
+            readCartIds.addAll(readSet.carts().keySet());
+            return readSet;
+        }
+
+        @Override
+        public void putCart(Cart cart) {
+            transaction.putCart(cart);
+            cartWrites.put(cart.getCartId(), CartSnapshots.copyOf(cart));
+        }
+
+        @Override
+        public void putItem(CartItem cartItem) {
+            transaction.putItem(cartItem);
+            itemPuts.put(cartItem.getCartItemId(), CartSnapshots.copyOf(cartItem));
+            deletedItemIds.remove(cartItem.getCartItemId());
+        }
+
+        @Override
+        public void deleteCart(String cartId) {
+            transaction.deleteCart(cartId);
+            cartWrites.put(cartId, null);
+        }
+
+        @Override
+        public void deleteItem(String cartItemId) {
+            transaction.deleteItem(cartItemId);
+            itemPuts.remove(cartItemId);
+            deletedItemIds.add(cartItemId);
+        }
+
+        @Override
+        public void advanceGeneration(String cartId) {
+            transaction.advanceGeneration(cartId);
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.lemicare.shoppingcart.storage;
+
+/**
+ * Thrown by a {@link CartStore} when a transaction was aborted because another transaction
+ * touched the same documents and the store's own attempts were used up.
+ */
+public class TransactionContentionException extends RuntimeException {
+
+    public TransactionContentionException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
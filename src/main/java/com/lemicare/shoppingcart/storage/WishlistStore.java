@@ -0,0 +1,18 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Wishlist;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Storage SPI for customer wishlists, selected by profile like {@link CartStore}.
+ */
+public interface WishlistStore {
+
+    Optional<Wishlist> findByOrganizationIdAndCustomerId(String organizationId, String customerId) throws ExecutionException, InterruptedException;
+
+    Wishlist save(Wishlist wishlist) throws ExecutionException, InterruptedException;
+
+    void delete(String organizationId, String customerId) throws ExecutionException, InterruptedException;
+}
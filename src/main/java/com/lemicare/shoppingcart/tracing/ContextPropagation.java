@@ -0,0 +1,43 @@
+package com.lemicare.shoppingcart.tracing;
+
+import io.micrometer.context.ContextExecutorService;
+import io.micrometer.context.ContextSnapshot;
+import io.micrometer.context.ContextSnapshotFactory;
+
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Carries the caller's thread-local context, in particular the current observation and span,
+ * onto the threads that run work on its behalf, so spans created there stay attached to the
+ * request that caused them.
+ */
+public final class ContextPropagation {
+
+    private static final ContextSnapshotFactory SNAPSHOTS = ContextSnapshotFactory.builder().build();
+
+    private ContextPropagation() {
+    }
+
+    /**
+     * Wraps an executor so that every task runs with the context captured when it was submitted.
+     */
+    public static ExecutorService wrap(ExecutorService executor) {
+        return ContextExecutorService.wrap(executor, () -> SNAPSHOTS.captureAll());
+    }
+
+    /**
+     * Wraps a task so that it runs with the context of the current thread, wherever it runs.
+     */
+    public static Runnable wrap(Runnable task) {
+        return SNAPSHOTS.captureAll().wrap(task);
+    }
+
+    /**
+     * Captures the current thread's context, for code called back on threads we do not submit to
+     * ourselves, such as Firestore transaction functions. Restore it there with
+     * {@link ContextSnapshot#setThreadLocals()}.
+     */
+    public static ContextSnapshot capture() {
+        return SNAPSHOTS.captureAll();
+    }
+}
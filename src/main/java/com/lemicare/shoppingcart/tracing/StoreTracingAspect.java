@@ -0,0 +1,47 @@
+package com.lemicare.shoppingcart.tracing;
+
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ExecutionException;
+
+/**
+ * Opens a span around every public method of the Firestore stores, named after the store and the
+ * method, so a trace shows each query and each transaction attempt under the request that made it.
+ */
+@Aspect
+@Component
+public class StoreTracingAspect {
+
+    private final Tracer tracer;
+
+    public StoreTracingAspect(ObjectProvider<Tracer> tracer) {
+        this.tracer = tracer.getIfAvailable(() -> Tracer.NOOP);
+    }
+
+    @Around("execution(public * com.lemicare.shoppingcart.storage.FirestoreCartStore.*(..))"
+            + " || execution(public * com.lemicare.shoppingcart.storage.FirestoreWishlistStore.*(..))")
+    public Object trace(ProceedingJoinPoint joinPoint) throws Throwable {
+        String store = joinPoint.getSignature().getDeclaringType().getSimpleName();
+        String method = joinPoint.getSignature().getName();
+        Span span = tracer.nextSpan()
+                .name(store + "." + method)
+                .tag("db.system", "firestore")
+                .tag("store", store)
+                .tag("method", method)
+                .start();
+        try (Tracer.SpanInScope ignored = tracer.withSpan(span)) {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            span.error(e instanceof ExecutionException && e.getCause() != null ? e.getCause() : e);
+            throw e;
+        } finally {
+            span.end();
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.lemicare.shoppingcart.controller;
+
+import com.lemicare.shoppingcart.config.SecurityConfig;
+import com.lemicare.shoppingcart.filter.TenantFilter;
+import com.lemicare.shoppingcart.metrics.TenantTags;
+import com.lemicare.shoppingcart.service.CartExportService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Admin-only endpoints must accept tokens carrying an operator scope and turn shopper tokens
+ * away. Tokens are signed with the configured secret and go through the real decoder and
+ * authority converter, so the checks see the authorities production would. Actuator endpoints
+ * are stood in for by a plain controller on the same paths, since only the URL rules are under
+ * test.
+ */
+@WebMvcTest(controllers = AdminCartController.class, properties = {
+        "spring.security.oauth2.resourceserver.jwt.secret-key=" + AdminEndpointSecurityTest.SECRET,
+        "spring.security.oauth2.resourceserver.jwt.issuer=" + AdminEndpointSecurityTest.ISSUER,
+        "spring.security.oauth2.resourceserver.jwt.audience=" + AdminEndpointSecurityTest.AUDIENCE
+})
+@Import({SecurityConfig.class, TenantFilter.class, AdminEndpointSecurityTest.ActuatorStub.class})
+class AdminEndpointSecurityTest {
+
+    static final String SECRET = "test-secret-key-that-is-32-bytes";
+    static final String ISSUER = "https://auth.lemicare.test";
+    static final String AUDIENCE = "lemicare-cart-service";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockBean
+    private CartExportService cartExportService;
+
+    @MockBean
+    private TenantTags tenantTags;
+
+    @Test
+    void exportAcceptsAnAdminToken() throws Exception {
+        mockMvc.perform(get("/api/admin/carts/export").header(HttpHeaders.AUTHORIZATION, bearer("admin")))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void exportAcceptsTheExportScope() throws Exception {
+        mockMvc.perform(get("/api/admin/carts/export").header(HttpHeaders.AUTHORIZATION, bearer("cart.export")))
+                .andExpect(request().asyncStarted());
+    }
+
+    @Test
+    void exportRejectsAShopperToken() throws Exception {
+        mockMvc.perform(get("/api/admin/carts/export").header(HttpHeaders.AUTHORIZATION, bearer("customer.read customer.write")))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void flightRecordingsAcceptAnOperatorToken() throws Exception {
+        mockMvc.perform(get("/actuator/jfr").header(HttpHeaders.AUTHORIZATION, bearer("admin")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/jfr").header(HttpHeaders.AUTHORIZATION, bearer("ops.profile")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void flightRecordingsRejectShoppersAndAnonymousCallers() throws Exception {
+        mockMvc.perform(get("/actuator/jfr").header(HttpHeaders.AUTHORIZATION, bearer("customer.read customer.write")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/jfr"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void slowRequestsAcceptAnOperatorToken() throws Exception {
+        mockMvc.perform(get("/actuator/slowrequests").header(HttpHeaders.AUTHORIZATION, bearer("admin")))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/actuator/slowrequests").header(HttpHeaders.AUTHORIZATION, bearer("ops.profile")))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void slowRequestsRejectShoppersAndAnonymousCallers() throws Exception {
+        mockMvc.perform(get("/actuator/slowrequests").header(HttpHeaders.AUTHORIZATION, bearer("customer.read customer.write")))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/slowrequests"))
+                .andExpect(status().isUnauthorized());
+    }
+
+    private static String bearer(String scope) {
+        Instant now = Instant.now();
+        String token = Jwts.builder()
+                .setIssuer(ISSUER)
+                .setAudience(AUDIENCE)
+                .setSubject("user-1")
+                .claim("organizationId", "org-1")
+                .claim("scope", scope)
+                .setIssuedAt(Date.from(now))
+                .setExpiration(Date.from(now.plus(5, ChronoUnit.MINUTES)))
+                .signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)), SignatureAlgorithm.HS256)
+                .compact();
+        return "Bearer " + token;
+    }
+
+    @RestController
+    static class ActuatorStub {
+
+        @GetMapping({"/actuator/jfr", "/actuator/slowrequests"})
+        String ok() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.lemicare.shoppingcart.filter;
+
+import com.lemicare.shoppingcart.config.CompressionProperties;
+import com.lemicare.shoppingcart.metrics.CompressionMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ResponseCompressionFilterTest {
+
+    private final ResponseCompressionFilter filter = new ResponseCompressionFilter(
+            new CompressionProperties(), new CompressionMetrics(new SimpleMeterRegistry()));
+
+    @Test
+    void eventStreamIsFlushedUncompressedWhateverTheRequestAccepts() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/cart/org-1/events");
+        request.addHeader(HttpHeaders.ACCEPT, "*/*");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        String event = "data: " + "x".repeat(4096) + "\n\n";
+
+        FilterChain chain = (req, res) -> {
+            res.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            PrintWriter writer = res.getWriter();
+            writer.write(event);
+            writer.flush();
+            res.flushBuffer();
+            // Reached the client before the handler returned.
+            assertThat(response.getContentAsString()).isEqualTo(event);
+            assertThat(response.isCommitted()).isTrue();
+        };
+        filter.doFilter(request, response, chain);
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentAsString()).isEqualTo(event);
+    }
+
+    @Test
+    void largeJsonIsCompressed() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/cart/org-1/summary");
+        request.addHeader(HttpHeaders.ACCEPT, "*/*");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.getWriter().write("{\"items\":\"" + "x".repeat(4096) + "\"}");
+        });
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+    }
+
+    @Test
+    void compressionStartsOnceTheThresholdIsReached() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/cart/org-1");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] chunk = "x".repeat(1500).getBytes(StandardCharsets.UTF_8);
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.setContentLength(chunk.length * 3);
+            OutputStream out = res.getOutputStream();
+            out.write(chunk);
+            // Below the 2048-byte threshold the body is still held back.
+            assertThat(response.getContentAsByteArray()).isEmpty();
+            out.write(chunk);
+            // Past it, the gzip stream is already writing to the client.
+            assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isEqualTo("gzip");
+            assertThat(response.getContentAsByteArray()).isNotEmpty();
+            out.write(chunk);
+        });
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_LENGTH)).isNull();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(response.getContentAsByteArray()))) {
+            assertThat(in.readAllBytes()).hasSize(chunk.length * 3);
+        }
+    }
+
+    @Test
+    void smallJsonIsSentAsIsWithItsLength() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/cart/org-1");
+        request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        byte[] body = "{\"items\":[]}".getBytes(StandardCharsets.UTF_8);
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            res.setContentLength(body.length);
+            res.getOutputStream().write(body);
+        });
+
+        assertThat(response.getHeader(HttpHeaders.CONTENT_ENCODING)).isNull();
+        assertThat(response.getContentLength()).isEqualTo(body.length);
+        assertThat(response.getContentAsByteArray()).isEqualTo(body);
+    }
+
+    @Test
+    void acceptEncodingIsParsedByCoding() {
+        assertThat(acceptsGzip("gzip")).isTrue();
+        assertThat(acceptsGzip("deflate, GZIP;q=0.5")).isTrue();
+        assertThat(acceptsGzip("*")).isTrue();
+        assertThat(acceptsGzip("gzip;q=0")).isFalse();
+        assertThat(acceptsGzip("gzip; q=0.0, *")).isFalse();
+        assertThat(acceptsGzip("x-gzip-not")).isFalse();
+        assertThat(acceptsGzip("br, *;q=0")).isFalse();
+        assertThat(acceptsGzip(null)).isFalse();
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/public/cart/org-1/summary");
+        if (acceptEncoding != null) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, acceptEncoding);
+        }
+        return ResponseCompressionFilter.acceptsGzip(request);
+    }
+}
@@ -0,0 +1,376 @@
+package com.lemicare.shoppingcart.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Drives the cart endpoints with a closed-loop mix of shopper sessions and writes per-endpoint
+ * throughput and latency percentiles to a JSON file.
+ * <p>
+ * The application runs with the {@code local} profile, so carts live in the in-memory store, and
+ * the storefront, inventory and delivery services are replaced by {@link DownstreamStub}s with
+ * configurable latency. Rate limiting is off, since every virtual shopper comes from the same
+ * address. Run with
+ * {@code ./mvnw -Ploadtest test}; the run is tuned with system properties:
+ * <ul>
+ *     <li>{@code loadtest.users} concurrent sessions (32),</li>
+ *     <li>{@code loadtest.warmup} and {@code loadtest.duration}, ISO-8601 durations (PT15S, PT60S),</li>
+ *     <li>{@code loadtest.mix}, relative weights of browse, add, update, estimate and merge,</li>
+ *     <li>{@code loadtest.products}, the catalogue size (500),</li>
+ *     <li>{@code loadtest.latency.storefront}, {@code .inventory} and {@code .delivery}, as
+ *         {@code "<median>,<p99>"} (see {@link LatencyModel}),</li>
+ *     <li>{@code loadtest.max-error-rate}, above which the run fails (0.01); a single failed
+ *         shipping estimate fails it regardless,</li>
+ *     <li>{@code loadtest.result}, the result file (target/loadtest-result.json).</li>
+ * </ul>
+ * Only requests started after the warm-up are recorded.
+ */
+@Tag("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {"logging.level.com.lemicare.shoppingcart=WARN", "logging.level.com.lemicare.shoppingcart.loadtest=INFO",
+                "app.rate-limit.enabled=false"})
+@ActiveProfiles("local")
+class CartLoadTest {
+
+    private static final Logger log = LoggerFactory.getLogger(CartLoadTest.class);
+
+    private static final String ORG_ID = "org-loadtest";
+    private static final int MAX_LINES = 25;
+    private static final String SOURCE_PINCODE = "600024";
+    private static final String DESTINATION_PINCODE = "600029";
+    private static final String COURIER_OPTIONS = """
+            [{"courierId":"10","carrierName":"Surface Express","serviceType":"SURFACE","cost":55.00,\
+            "currency":"INR","estimatedDeliveryDays":5},\
+            {"courierId":"20","carrierName":"Air Priority","serviceType":"AIR","cost":120.00,\
+            "currency":"INR","estimatedDeliveryDays":2},\
+            {"courierId":"30","carrierName":"Metro Same Day","serviceType":"SURFACE","cost":180.00,\
+            "currency":"INR","estimatedDeliveryDays":1}]""";
+
+    private static DownstreamStub storefront;
+    private static DownstreamStub inventory;
+    private static DownstreamStub delivery;
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+    @DynamicPropertySource
+    static void downstreamServices(DynamicPropertyRegistry registry) throws IOException {
+        storefront = new DownstreamStub(
+                LatencyModel.parse(System.getProperty("loadtest.latency.storefront", "15ms,80ms")),
+                CartLoadTest::storefrontResponse);
+        inventory = new DownstreamStub(
+                LatencyModel.parse(System.getProperty("loadtest.latency.inventory", "10ms,50ms")),
+                exchange -> "1000");
+        delivery = new DownstreamStub(
+                LatencyModel.parse(System.getProperty("loadtest.latency.delivery", "120ms,600ms")),
+                exchange -> COURIER_OPTIONS);
+        registry.add("services.cms.url", storefront::baseUrl);
+        registry.add("services.inventory.url", inventory::baseUrl);
+        registry.add("services.delivery.url", delivery::baseUrl);
+        registry.add("app.shipping.source-pincodes[" + ORG_ID + "]", () -> SOURCE_PINCODE);
+    }
+
+    @AfterAll
+    static void stopStubs() {
+        storefront.close();
+        inventory.close();
+        delivery.close();
+    }
+
+    @Test
+    void cartEndpointsUnderLoad() throws Exception {
+        int users = Integer.getInteger("loadtest.users", 32);
+        Duration warmUp = Duration.parse(System.getProperty("loadtest.warmup", "PT15S"));
+        Duration duration = Duration.parse(System.getProperty("loadtest.duration", "PT60S"));
+        int products = Integer.getInteger("loadtest.products", 500);
+        Map<String, Integer> mix = parseMix(System.getProperty("loadtest.mix",
+                "browse=40,add=25,update=15,estimate=10,merge=10"));
+        double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+        Path resultFile = Path.of(System.getProperty("loadtest.result", "target/loadtest-result.json"));
+
+        long measureFrom = System.nanoTime() + warmUp.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        List<Future<LoadResult>> sessions = new ArrayList<>(users);
+        ExecutorService executor = Executors.newFixedThreadPool(users);
+        try {
+            for (int i = 0; i < users; i++) {
+                sessions.add(executor.submit(() -> new Shopper(mix, products, measureFrom, deadline).run()));
+            }
+            LoadResult result = new LoadResult();
+            for (Future<LoadResult> session : sessions) {
+                result.mergeFrom(session.get());
+            }
+
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("finishedAt", Instant.now().toString());
+            report.put("users", users);
+            report.put("warmUpSeconds", warmUp.toSeconds());
+            report.put("durationSeconds", duration.toSeconds());
+            report.put("products", products);
+            report.put("mix", mix);
+            report.put("downstreamLatency", Map.of(
+                    "storefront", System.getProperty("loadtest.latency.storefront", "15ms,80ms"),
+                    "inventory", System.getProperty("loadtest.latency.inventory", "10ms,50ms"),
+                    "delivery", System.getProperty("loadtest.latency.delivery", "120ms,600ms")));
+            report.put("endpoints", result.summarize(duration.toNanos() / 1e9));
+
+            if (resultFile.getParent() != null) {
+                Files.createDirectories(resultFile.getParent());
+            }
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(resultFile.toFile(), report);
+            log.info("Load test result written to {}: {} requests, {} errors",
+                    resultFile.toAbsolutePath(), result.requests(), result.errors());
+
+            assertTrue(result.requests() > 0, "No requests completed during the measured window");
+            double errorRate = (double) result.errors() / result.requests();
+            assertTrue(errorRate <= maxErrorRate,
+                    "Error rate " + errorRate + " exceeds " + maxErrorRate + "; see " + resultFile);
+            if (mix.getOrDefault("estimate", 0) > 0) {
+                assertTrue(result.requests("estimate") > 0, "No shipping estimates completed");
+                assertEquals(0, result.errors("estimate"),
+                        "Shipping estimates did not all answer 200; see " + resultFile);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * One shopper at a time: browses and fills a guest cart, logs in (merge), keeps shopping as
+     * the user and eventually leaves, after which a new guest session starts.
+     */
+    private final class Shopper {
+
+        private final String[] actions;
+        private final int[] cumulativeWeights;
+        private final int products;
+        private final long measureFrom;
+        private final long deadline;
+        private final LoadResult result = new LoadResult();
+
+        private String guestId = newId("guest");
+        private String userId;
+        private List<String> itemIds = new ArrayList<>();
+
+        private Shopper(Map<String, Integer> mix, int products, long measureFrom, long deadline) {
+            this.actions = mix.keySet().toArray(new String[0]);
+            this.cumulativeWeights = new int[actions.length];
+            int total = 0;
+            for (int i = 0; i < actions.length; i++) {
+                total += mix.get(actions[i]);
+                cumulativeWeights[i] = total;
+            }
+            this.products = products;
+            this.measureFrom = measureFrom;
+            this.deadline = deadline;
+        }
+
+        LoadResult run() throws InterruptedException {
+            while (System.nanoTime() < deadline) {
+                String action = effectiveAction(pick());
+                long start = System.nanoTime();
+                boolean ok;
+                try {
+                    ok = perform(action);
+                } catch (IOException e) {
+                    ok = false;
+                }
+                if (start >= measureFrom) {
+                    result.record(action, System.nanoTime() - start, ok);
+                }
+            }
+            return result;
+        }
+
+        private String pick() {
+            int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (roll < cumulativeWeights[i]) {
+                    return actions[i];
+                }
+            }
+            return actions[actions.length - 1];
+        }
+
+        // Falls back to an add when the chosen action needs a cart line the session does not have.
+        private String effectiveAction(String action) {
+            if (action.equals("merge") && userId != null) {
+                // Already logged in: the shopper leaves and a new guest arrives.
+                guestId = newId("guest");
+                userId = null;
+                itemIds = new ArrayList<>();
+                return "add";
+            }
+            if (itemIds.isEmpty() && !action.equals("browse")) {
+                return "add";
+            }
+            if (action.equals("add") && itemIds.size() >= MAX_LINES) {
+                return "update";
+            }
+            return action;
+        }
+
+        private boolean perform(String action) throws IOException, InterruptedException {
+            return switch (action) {
+                case "browse" -> {
+                    HttpResponse<byte[]> response = send(request("").GET());
+                    // A shopper without a cart yet gets a 404, which is expected.
+                    yield response.statusCode() == 404 || readItems(response);
+                }
+                case "add" -> readItems(send(request("/items").POST(json(Map.of(
+                        "productId", "p-" + popularProduct(),
+                        "quantity", ThreadLocalRandom.current().nextInt(1, 4))))));
+                case "update" -> readItems(send(request("/items/" + randomItemId()).PUT(json(Map.of(
+                        "quantity", ThreadLocalRandom.current().nextInt(1, 6))))));
+                case "estimate" -> send(request("/estimateshippingcost?destinationPincode=" + DESTINATION_PINCODE)
+                        .GET()).statusCode() == 200;
+                case "merge" -> {
+                    String newUserId = newId("user");
+                    HttpResponse<byte[]> response = send(request("/merge").POST(json(Map.of(
+                            "guestId", guestId, "userId", newUserId))));
+                    boolean ok = readItems(response);
+                    if (ok) {
+                        userId = newUserId;
+                    }
+                    yield ok;
+                }
+                default -> throw new IllegalArgumentException("Unknown action " + action);
+            };
+        }
+
+        private HttpRequest.Builder request(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(
+                            URI.create("http://127.0.0.1:" + port + "/api/public/cart/" + ORG_ID + path))
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json");
+            return userId != null
+                    ? builder.header("X-User-ID", userId)
+                    : builder.header("Cookie", "_guest_id=" + guestId);
+        }
+
+        private HttpResponse<byte[]> send(HttpRequest.Builder request) throws IOException, InterruptedException {
+            return httpClient.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+        }
+
+        private HttpRequest.BodyPublisher json(Map<String, Object> body) throws IOException {
+            return HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body));
+        }
+
+        // Keeps the session's view of its cart lines in step with the server's.
+        private boolean readItems(HttpResponse<byte[]> response) throws IOException {
+            if (response.statusCode() != 200) {
+                return false;
+            }
+            JsonNode items = objectMapper.readTree(response.body()).path("items");
+            List<String> ids = new ArrayList<>(items.size());
+            items.forEach(item -> ids.add(item.path("cartItemId").asText()));
+            itemIds = ids;
+            return true;
+        }
+
+        private String randomItemId() {
+            return itemIds.get(ThreadLocalRandom.current().nextInt(itemIds.size()));
+        }
+
+        // Squaring a uniform draw makes low product numbers more popular, as in a real catalogue.
+        private int popularProduct() {
+            double draw = ThreadLocalRandom.current().nextDouble();
+            return (int) (products * draw * draw);
+        }
+    }
+
+    private static String newId(String prefix) {
+        return prefix + "-" + UUID.randomUUID();
+    }
+
+    private static Map<String, Integer> parseMix(String spec) {
+        Map<String, Integer> mix = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.split("=");
+            int weight = Integer.parseInt(parts[1].trim());
+            if (weight > 0) {
+                mix.put(parts[0].trim(), weight);
+            }
+        }
+        if (mix.isEmpty()) {
+            throw new IllegalArgumentException("loadtest.mix has no positive weights: " + spec);
+        }
+        return mix;
+    }
+
+    private static String storefrontResponse(HttpExchange exchange) {
+        String path = exchange.getRequestURI().getPath();
+        if (path.endsWith("/details")) {
+            String[] segments = path.split("/");
+            return product(segments[segments.length - 2]);
+        }
+        if (path.endsWith("/products")) {
+            String query = exchange.getRequestURI().getQuery();
+            if (query == null) {
+                return "[]";
+            }
+            // Feign sends one productIds parameter per id; comma-separated values are accepted too.
+            return List.of(query.split("&")).stream()
+                    .filter(parameter -> parameter.startsWith("productIds="))
+                    .flatMap(parameter -> List.of(parameter.substring("productIds=".length()).split(",")).stream())
+                    .map(CartLoadTest::product)
+                    .collect(Collectors.joining(",", "[", "]"));
+        }
+        return null;
+    }
+
+    // Prices and sizes depend only on the id, so repricing never finds a change.
+    private static String product(String productId) {
+        int seed = Math.floorMod(productId.hashCode(), 10_000);
+        return String.format(Locale.ROOT, """
+                {"id":"%s","productName":"Product %s","mrp":%.2f,"sku":"SKU-%s",\
+                "weight":{"value":%d,"unit":"g"},\
+                "dimensions":{"length":%d,"width":%d,"height":%d,"unit":"cm"}}""",
+                productId, productId, 20 + seed / 10.0, productId,
+                50 + seed % 950, 5 + seed % 20, 4 + seed % 12, 2 + seed % 8);
+    }
+}
@@ -0,0 +1,71 @@
+package com.lemicare.shoppingcart.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Stand-in for one downstream service: an HTTP server on an ephemeral port that answers every
+ * request with a JSON body after a delay drawn from a {@link LatencyModel}.
+ * <p>
+ * Requests are served on virtual threads, so the stub adds latency without queueing and the
+ * service under test is the only bottleneck.
+ */
+final class DownstreamStub implements AutoCloseable {
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final LatencyModel latency;
+    private final Function<HttpExchange, String> responder;
+
+    /**
+     * @param responder builds the JSON response for a request, or returns null for a 404.
+     */
+    DownstreamStub(LatencyModel latency, Function<HttpExchange, String> responder) throws IOException {
+        this.latency = latency;
+        this.responder = responder;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        server.setExecutor(executor);
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    String baseUrl() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange; InputStream body = exchange.getRequestBody()) {
+            body.readAllBytes();
+            TimeUnit.NANOSECONDS.sleep(latency.sampleNanos());
+            String json = responder.apply(exchange);
+            if (json == null) {
+                exchange.sendResponseHeaders(404, -1);
+                return;
+            }
+            byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().set("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
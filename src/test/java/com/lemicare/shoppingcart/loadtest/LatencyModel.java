@@ -0,0 +1,55 @@
+package com.lemicare.shoppingcart.loadtest;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Log-normal response-time distribution fixed by its median and 99th percentile, which is close
+ * to what real downstream services show: most calls near the median, a long tail.
+ * <p>
+ * Parsed from {@code "<median>,<p99>"}, each a number with an {@code ms} or {@code s} suffix,
+ * e.g. {@code "20ms,150ms"}. {@code "0ms,0ms"} disables the delay.
+ */
+final class LatencyModel {
+
+    // z-score of the 99th percentile of the standard normal distribution
+    private static final double Z_99 = 2.326;
+
+    private final Duration median;
+    private final double mu;
+    private final double sigma;
+
+    private LatencyModel(Duration median, Duration p99) {
+        if (p99.compareTo(median) < 0) {
+            throw new IllegalArgumentException("p99 " + p99 + " is below the median " + median);
+        }
+        this.median = median;
+        this.mu = median.isZero() ? 0 : Math.log(median.toNanos());
+        this.sigma = median.isZero() ? 0 : Math.log((double) p99.toNanos() / median.toNanos()) / Z_99;
+    }
+
+    static LatencyModel parse(String spec) {
+        String[] parts = spec.split(",");
+        if (parts.length != 2) {
+            throw new IllegalArgumentException("Expected '<median>,<p99>', got '" + spec + "'");
+        }
+        return new LatencyModel(duration(parts[0].trim()), duration(parts[1].trim()));
+    }
+
+    long sampleNanos() {
+        if (median.isZero()) {
+            return 0;
+        }
+        return (long) Math.exp(mu + sigma * ThreadLocalRandom.current().nextGaussian());
+    }
+
+    private static Duration duration(String value) {
+        if (value.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(value.substring(0, value.length() - 2)));
+        }
+        if (value.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(value.substring(0, value.length() - 1)));
+        }
+        throw new IllegalArgumentException("Expected a duration in ms or s, got '" + value + "'");
+    }
+}
@@ -0,0 +1,114 @@
+package com.lemicare.shoppingcart.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies recorded by one virtual user, per endpoint. Each user records into its own instance
+ * without synchronization; the instances are merged once the run is over.
+ */
+final class LoadResult {
+
+    private final Map<String, Samples> byEndpoint = new TreeMap<>();
+
+    void record(String endpoint, long nanos, boolean ok) {
+        byEndpoint.computeIfAbsent(endpoint, key -> new Samples()).add(nanos, ok);
+    }
+
+    void mergeFrom(LoadResult other) {
+        other.byEndpoint.forEach((endpoint, samples) ->
+                byEndpoint.computeIfAbsent(endpoint, key -> new Samples()).addAll(samples));
+    }
+
+    long requests() {
+        return byEndpoint.values().stream().mapToLong(samples -> samples.count).sum();
+    }
+
+    long errors() {
+        return byEndpoint.values().stream().mapToLong(samples -> samples.errors).sum();
+    }
+
+    long requests(String endpoint) {
+        Samples samples = byEndpoint.get(endpoint);
+        return samples == null ? 0 : samples.count;
+    }
+
+    long errors(String endpoint) {
+        Samples samples = byEndpoint.get(endpoint);
+        return samples == null ? 0 : samples.errors;
+    }
+
+    /**
+     * Per-endpoint statistics plus an {@code all} entry over every request, ready to be written
+     * as JSON.
+     */
+    Map<String, Map<String, Object>> summarize(double measuredSeconds) {
+        Map<String, Map<String, Object>> summary = new LinkedHashMap<>();
+        Samples all = new Samples();
+        byEndpoint.forEach((endpoint, samples) -> {
+            summary.put(endpoint, samples.summarize(measuredSeconds));
+            all.addAll(samples);
+        });
+        summary.put("all", all.summarize(measuredSeconds));
+        return summary;
+    }
+
+    private static final class Samples {
+
+        private long[] nanos = new long[1024];
+        private int count;
+        private long errors;
+
+        void add(long latencyNanos, boolean ok) {
+            if (count == nanos.length) {
+                nanos = Arrays.copyOf(nanos, count * 2);
+            }
+            nanos[count++] = latencyNanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        void addAll(Samples other) {
+            if (count + other.count > nanos.length) {
+                nanos = Arrays.copyOf(nanos, Math.max(nanos.length * 2, count + other.count));
+            }
+            System.arraycopy(other.nanos, 0, nanos, count, other.count);
+            count += other.count;
+            errors += other.errors;
+        }
+
+        Map<String, Object> summarize(double measuredSeconds) {
+            long[] sorted = Arrays.copyOf(nanos, count);
+            Arrays.sort(sorted);
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("requests", count);
+            stats.put("errors", errors);
+            stats.put("throughputPerSecond", round(count / measuredSeconds));
+            stats.put("p50Ms", millis(percentile(sorted, 0.50)));
+            stats.put("p95Ms", millis(percentile(sorted, 0.95)));
+            stats.put("p99Ms", millis(percentile(sorted, 0.99)));
+            stats.put("maxMs", millis(count == 0 ? 0 : sorted[count - 1]));
+            return stats;
+        }
+
+        // Nearest-rank percentile.
+        private static long percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(quantile * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+
+        private static double millis(long nanos) {
+            return round(nanos / 1_000_000.0);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 100) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.lemicare.shoppingcart.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Held-back logs must come out as they would have been written at the time of the call.
+ */
+class RequestLogSamplingTest {
+
+    private final LoggerContext loggerContext = new LoggerContext();
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private Logger logger;
+
+    @BeforeEach
+    void setUp() {
+        loggerContext.addTurboFilter(new SampledRequestTurboFilter());
+        loggerContext.start();
+        appender.setContext(loggerContext);
+        appender.start();
+        logger = loggerContext.getLogger(RequestLogSamplingTest.class);
+        logger.setLevel(Level.INFO);
+        logger.addAppender(appender);
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestLogSampling.discard();
+        MDC.clear();
+        loggerContext.stop();
+    }
+
+    @Test
+    void replayWritesTheEventAsItWasWhenLogged() throws Exception {
+        List<String> skus = new ArrayList<>(List.of("sku-1"));
+        MDC.put("cartId", "cart-1");
+        RequestLogSampling.defer(10);
+
+        long before = System.currentTimeMillis();
+        logger.info("Adding {}", skus);
+        assertThat(appender.list).isEmpty();
+
+        skus.add("sku-2");
+        MDC.put("cartId", "cart-2");
+        Thread.sleep(20);
+        long replayedAt = System.currentTimeMillis();
+        RequestLogSampling.replay();
+
+        assertThat(appender.list).hasSize(1);
+        ILoggingEvent event = appender.list.get(0);
+        assertThat(event.getFormattedMessage()).isEqualTo("Adding [sku-1]");
+        assertThat(event.getTimeStamp()).isBetween(before, replayedAt - 1);
+        assertThat(event.getThreadName()).isEqualTo(Thread.currentThread().getName());
+        assertThat(event.getMDCPropertyMap())
+                .containsEntry("cartId", "cart-1")
+                .containsEntry(RequestLogSampling.REPLAYED_MDC_KEY, "true");
+    }
+
+    @Test
+    void discardDropsHeldEvents() {
+        RequestLogSampling.defer(10);
+        logger.info("Dropped");
+        RequestLogSampling.discard();
+        logger.info("Written");
+
+        assertThat(appender.list).extracting(ILoggingEvent::getFormattedMessage).containsExactly("Written");
+    }
+}
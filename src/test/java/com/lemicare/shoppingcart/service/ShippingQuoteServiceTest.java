@@ -0,0 +1,77 @@
+package com.lemicare.shoppingcart.service;
+
+import com.lemicare.shoppingcart.config.ShippingProperties;
+import com.lemicare.shoppingcart.dto.response.DeliveryOption;
+import com.lemicare.shoppingcart.exception.NoCourierAvailableException;
+import com.lemicare.shoppingcart.shipping.PackedParcel;
+import com.lemicare.shoppingcart.shipping.PackingPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ShippingQuoteServiceTest {
+
+    private static final PackedParcel LIGHT = new PackedParcel("small", 1000, 1000, 1000, 500, 1);
+    private static final PackedParcel HEAVY = new PackedParcel("large", 4000, 3000, 2000, 9000, 3);
+
+    private ShippingQuoteService service;
+
+    @AfterEach
+    void shutdown() {
+        if (service != null) {
+            service.shutdown();
+        }
+    }
+
+    @Test
+    void parcelsWithDisjointCourierSetsAreRejectedAsUndeliverable() {
+        // The light parcel only goes by courier 1, the heavy one only by courier 2.
+        service = serviceQuoting(Map.of(
+                500, List.of(option("1", "40.00")),
+                9000, List.of(option("2", "120.00"))));
+
+        assertThatThrownBy(() -> service.quote(560001, 110001, new PackingPlan(List.of(LIGHT, HEAVY))))
+                .isInstanceOf(NoCourierAvailableException.class)
+                .hasMessageContaining("all 2 parcels");
+    }
+
+    @Test
+    void sharedCourierIsCombinedAcrossParcels() throws Exception {
+        service = serviceQuoting(Map.of(
+                500, List.of(option("1", "40.00"), option("2", "55.00")),
+                9000, List.of(option("2", "120.00"))));
+
+        List<DeliveryOption> options = service.quote(560001, 110001, new PackingPlan(List.of(LIGHT, HEAVY)));
+
+        assertThat(options).singleElement().satisfies(option -> {
+            assertThat(option.getCourierId()).isEqualTo("2");
+            assertThat(option.getCost()).isEqualByComparingTo("175.00");
+        });
+    }
+
+    /**
+     * Answers each parcel by its weight in grams.
+     */
+    private static ShippingQuoteService serviceQuoting(Map<Integer, List<DeliveryOption>> optionsByWeightGrams) {
+        return new ShippingQuoteService(request -> {
+            int grams = request.getWeight().multiply(BigDecimal.valueOf(1000)).intValue();
+            return optionsByWeightGrams.get(grams).stream().map(option -> option.toBuilder().build()).toList();
+        }, new ShippingProperties(), new SimpleMeterRegistry());
+    }
+
+    private static DeliveryOption option(String courierId, String cost) {
+        return DeliveryOption.builder()
+                .courierId(courierId)
+                .carrierName("Courier " + courierId)
+                .cost(new BigDecimal(cost))
+                .estimatedDeliveryDays(3)
+                .build();
+    }
+}
@@ -0,0 +1,141 @@
+package com.lemicare.shoppingcart.storage;
+
+import com.cosmicdoc.common.model.Cart;
+import com.cosmicdoc.common.repository.CartItemRepository;
+import com.google.api.core.ApiFutures;
+import com.google.cloud.firestore.CollectionReference;
+import com.google.cloud.firestore.DocumentReference;
+import com.google.cloud.firestore.DocumentSnapshot;
+import com.google.cloud.firestore.Firestore;
+import com.google.cloud.firestore.Transaction;
+import com.google.cloud.firestore.TransactionOptions;
+import com.lemicare.shoppingcart.metrics.TenantTags;
+import com.lemicare.shoppingcart.profiling.RequestLedger;
+import com.lemicare.shoppingcart.profiling.SlowRequest;
+import io.micrometer.context.ContextRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.tracing.Span;
+import io.micrometer.tracing.Tracer;
+import io.micrometer.tracing.contextpropagation.ObservationAwareSpanThreadLocalAccessor;
+import io.micrometer.tracing.test.simple.SimpleTracer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * The Firestore client calls transaction functions on its own executor; these tests check that
+ * the caller's context, trace and request ledger, reaches the callback there and that the
+ * callback's own work is not booked as Firestore time.
+ */
+class FirestoreCartStoreTransactionContextTest {
+
+    private final SimpleTracer tracer = new SimpleTracer();
+    private final ExecutorService clientExecutor = Executors.newSingleThreadExecutor();
+    private final Transaction transaction = mock(Transaction.class);
+    private FirestoreCartStore store;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        ContextRegistry.getInstance().registerThreadLocalAccessor(new ObservationAwareSpanThreadLocalAccessor(tracer));
+
+        Firestore firestore = mock(Firestore.class);
+        CollectionReference collection = mock(CollectionReference.class);
+        when(collection.document(anyString())).thenReturn(mock(DocumentReference.class));
+        when(firestore.collection(anyString())).thenReturn(collection);
+        // Like the real client: the function runs on a client thread, never on the caller's.
+        when(firestore.runTransaction(any(Transaction.Function.class), any(TransactionOptions.class)))
+                .thenAnswer(invocation -> {
+                    Transaction.Function<Object> function = invocation.getArgument(0);
+                    return ApiFutures.immediateFuture(
+                            clientExecutor.submit(() -> function.updateCallback(transaction)).get());
+                });
+        store = new FirestoreCartStore(firestore, mock(CartItemRepository.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        clientExecutor.shutdownNow();
+    }
+
+    @Test
+    void callbackRunsInTheCallersTrace() throws Exception {
+        Span request = tracer.nextSpan().name("request").start();
+        Thread caller = Thread.currentThread();
+        Thread[] callbackThread = new Thread[1];
+        String traceIdInCallback;
+        try (Tracer.SpanInScope ignored = tracer.withSpan(request)) {
+            traceIdInCallback = store.runInTransaction(1, transaction -> {
+                callbackThread[0] = Thread.currentThread();
+                Span current = tracer.currentSpan();
+                return current != null ? current.context().traceId() : null;
+            });
+        } finally {
+            request.end();
+        }
+
+        assertThat(callbackThread[0]).isNotSameAs(caller);
+        assertThat(traceIdInCallback).isEqualTo(request.context().traceId());
+    }
+
+    @Test
+    void downstreamCallsInTheCallbackAreNotFirestoreTime() throws Exception {
+        RequestLedger ledger = RequestLedger.start();
+        try {
+            store.runInTransaction(1, transaction -> {
+                long start = System.nanoTime();
+                Thread.sleep(100);
+                RequestLedger.recordDownstream("inventory", System.nanoTime() - start);
+                return null;
+            });
+        } finally {
+            RequestLedger.end();
+        }
+
+        SlowRequest recorded = ledger.toSlowRequest("PUT", "/cart", "/cart", 200, "org", ledger.elapsedNanos());
+        assertThat(recorded.downstream()).containsKey("inventory");
+        assertThat(recorded.downstream().get("inventory")).isGreaterThanOrEqualTo(100.0);
+        assertThat(recorded.firestoreMillis()).isLessThan(50.0);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void transactionalOperationAddsToTheCallersLedger() throws Exception {
+        DocumentSnapshot cart = mock(DocumentSnapshot.class);
+        when(cart.toObject(Cart.class)).thenReturn(Cart.builder().cartId("cart-1").build());
+        DocumentSnapshot missingItem = mock(DocumentSnapshot.class);
+        when(transaction.get(any(DocumentReference.class)))
+                .thenReturn(ApiFutures.immediateFuture(cart), ApiFutures.immediateFuture(missingItem));
+        CartTransactionRunner runner = new CartTransactionRunner(store, new CartTransactionProperties(),
+                new SimpleMeterRegistry(), new TenantTags(100, List.of(), mock(ObjectProvider.class)), tracer);
+
+        RequestLedger ledger = RequestLedger.start();
+        try {
+            runner.run("update-item", "org", tx -> {
+                tx.getCart("cart-1");
+                tx.getItem("item-gone");
+                RequestLedger.recordDownstream("inventory", 1_000_000);
+                return null;
+            });
+        } finally {
+            RequestLedger.end();
+        }
+
+        SlowRequest recorded = ledger.toSlowRequest("PUT", "/cart", "/cart", 200, "org", ledger.elapsedNanos());
+        assertThat(recorded.transactionAttempts()).isEqualTo(1);
+        // The item that was not found is not a document read.
+        assertThat(recorded.documentsRead()).isEqualTo(1);
+        assertThat(recorded.downstream()).containsEntry("inventory", 1.0);
+    }
+}